@@ -0,0 +1,37 @@
+package com.kl.voucher_pool.cache;
+
+import org.bson.Document;
+
+/**
+ * Describes a change to a single document, as reported by the MongoDB change stream.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public class CacheInvalidationEvent {
+    private final String collection;
+    private final String documentId;
+    private final Document document;
+
+    public CacheInvalidationEvent(String collection, String documentId, Document document) {
+        this.collection = collection;
+        this.documentId = documentId;
+        this.document = document;
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public String getDocumentId() {
+        return documentId;
+    }
+
+    /**
+     * Returns the current version of the document, or null if it was deleted
+     * or no listener asked for documents.
+     */
+    public Document getDocument() {
+        return document;
+    }
+}
@@ -0,0 +1,44 @@
+package com.kl.voucher_pool.cache;
+
+import java.util.Set;
+
+/**
+ * Implemented by in-process caches that need to drop entries when documents change anywhere in the cluster.
+ * Every listener bean is registered with the ChangeStreamInvalidationPublisher.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public interface CacheInvalidationListener {
+
+    /**
+     * Returns the collections this listener caches documents of.
+     * The change stream only watches the collections some listener asked for.
+     *
+     * @return The names of the collections to receive events for
+     */
+    Set<String> collections();
+
+    /**
+     * Tells whether this listener reads the current version of the changed document from its events.
+     * Looking the document up costs an extra read per update, so it is only done if a listener needs it.
+     *
+     * @return true if events must carry the changed document
+     */
+    default boolean needsDocument() {
+        return false;
+    }
+
+    /**
+     * Drops whatever the cache holds for the changed document.
+     *
+     * @param event The change that happened
+     */
+    void invalidate(CacheInvalidationEvent event);
+
+    /**
+     * Drops all cached entries. Called when changes may have been missed,
+     * e.g. when the change stream could not be resumed.
+     */
+    void invalidateAll();
+}
@@ -0,0 +1,221 @@
+package com.kl.voucher_pool.cache;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ChangeStreamInvalidationPublisher watches the collections cached by the registered CacheInvalidationListeners
+ * through a MongoDB change stream and fans every change out to them. Changed documents are only looked up
+ * if a listener needs them. A listener failing on an event has its whole cache cleared instead, so that
+ * it cannot keep serving the stale entry, and the other listeners still receive the event.
+ * It is enabled with "voucher.cache.change-streams.enabled" and requires a replica set or sharded cluster.
+ *
+ * Each node keeps its own resume token in the "change_stream_resume_tokens" collection, so that after
+ * a restart it continues from where it stopped instead of missing changes. If the stream cannot be resumed,
+ * e.g. because the oplog has rolled over, all caches are cleared and a new stream is started.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+@Component
+@ConditionalOnProperty(name = "voucher.cache.change-streams.enabled", havingValue = "true")
+@Profile("!embedded")
+public class ChangeStreamInvalidationPublisher implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeStreamInvalidationPublisher.class);
+
+    private static final String RESUME_TOKENS_COLLECTION = "change_stream_resume_tokens";
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+    private static final long RETRY_DELAY_MILLIS = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final List<CacheInvalidationListener> listeners;
+    private final String nodeId;
+    private final long tokenSaveIntervalNanos;
+    private final List<String> watchedCollections;
+    private final FullDocument fullDocument;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public ChangeStreamInvalidationPublisher(MongoTemplate mongoTemplate,
+                                             List<CacheInvalidationListener> listeners,
+                                             @Value("${voucher.cache.change-streams.node-id}") String nodeId,
+                                             @Value("${voucher.cache.change-streams.token-save-interval:1s}") Duration tokenSaveInterval) {
+        this.mongoTemplate = mongoTemplate;
+        this.listeners = listeners;
+        this.nodeId = nodeId;
+        this.tokenSaveIntervalNanos = tokenSaveInterval.toNanos();
+        TreeSet<String> collections = new TreeSet<>();
+        listeners.forEach(listener -> collections.addAll(listener.collections()));
+        this.watchedCollections = List.copyOf(collections);
+        this.fullDocument = listeners.stream().anyMatch(CacheInvalidationListener::needsDocument)
+                ? FullDocument.UPDATE_LOOKUP
+                : FullDocument.DEFAULT;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::watchLoop, "change-stream-invalidation");
+        worker.setDaemon(true);
+        worker.start();
+        logger.info("Change stream cache invalidation started for node {} on {}", nodeId, watchedCollections);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void watchLoop() {
+        while (running) {
+            try {
+                watch(loadResumeToken());
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() == CHANGE_STREAM_HISTORY_LOST) {
+                    logger.warn("Change stream history lost for node {}, clearing all caches", nodeId);
+                    deleteResumeToken();
+                    listeners.forEach(this::invalidateAll);
+                } else {
+                    logger.warn("Change stream failed, retrying: {}", e.getMessage());
+                }
+                pauseBeforeRetry();
+            } catch (MongoException e) {
+                logger.warn("Change stream failed, retrying: {}", e.getMessage());
+                pauseBeforeRetry();
+            }
+        }
+    }
+
+    private void watch(BsonDocument resumeToken) {
+        ChangeStreamIterable<Document> changeStream = mongoTemplate.getDb()
+                .watch(List.of(Aggregates.match(Filters.in("ns.coll", watchedCollections))))
+                .fullDocument(fullDocument)
+                .maxAwaitTime(1, TimeUnit.SECONDS);
+        if (resumeToken != null) {
+            changeStream = changeStream.resumeAfter(resumeToken);
+        }
+
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = changeStream.cursor()) {
+            long lastTokenSave = System.nanoTime();
+            BsonDocument lastSavedToken = resumeToken;
+            while (running) {
+                ChangeStreamDocument<Document> change = cursor.tryNext();
+                if (change != null) {
+                    dispatch(change);
+                }
+                BsonDocument currentToken = cursor.getResumeToken();
+                long now = System.nanoTime();
+                if (currentToken != null && !currentToken.equals(lastSavedToken) && now - lastTokenSave > tokenSaveIntervalNanos) {
+                    saveResumeToken(currentToken);
+                    lastSavedToken = currentToken;
+                    lastTokenSave = now;
+                }
+            }
+            BsonDocument finalToken = cursor.getResumeToken();
+            if (finalToken != null && !finalToken.equals(lastSavedToken)) {
+                saveResumeToken(finalToken);
+            }
+        }
+    }
+
+    private void dispatch(ChangeStreamDocument<Document> change) {
+        if (change.getNamespace() == null || change.getDocumentKey() == null) {
+            // Collection level events such as drop or rename: anything cached may be gone.
+            listeners.forEach(this::invalidateAll);
+            return;
+        }
+        String collection = change.getNamespace().getCollectionName();
+        CacheInvalidationEvent event = new CacheInvalidationEvent(
+                collection, idAsString(change.getDocumentKey().get("_id")), change.getFullDocument());
+        for (CacheInvalidationListener listener : listeners) {
+            if (listener.collections().contains(collection)) {
+                try {
+                    listener.invalidate(event);
+                } catch (RuntimeException e) {
+                    logger.warn("Cache invalidation of {} {} failed, clearing the cache", collection, event.getDocumentId(), e);
+                    invalidateAll(listener);
+                }
+            }
+        }
+    }
+
+    private void invalidateAll(CacheInvalidationListener listener) {
+        try {
+            listener.invalidateAll();
+        } catch (RuntimeException e) {
+            logger.error("Clearing cache {} failed", listener.getClass().getSimpleName(), e);
+        }
+    }
+
+    private static String idAsString(BsonValue id) {
+        if (id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+        return id.isString() ? id.asString().getValue() : id.toString();
+    }
+
+    private MongoCollection<BsonDocument> resumeTokens() {
+        return mongoTemplate.getCollection(RESUME_TOKENS_COLLECTION).withDocumentClass(BsonDocument.class);
+    }
+
+    private BsonDocument loadResumeToken() {
+        BsonDocument stored = resumeTokens().find(Filters.eq("_id", nodeId)).first();
+        return stored == null ? null : stored.getDocument("token");
+    }
+
+    private void saveResumeToken(BsonDocument token) {
+        resumeTokens().replaceOne(Filters.eq("_id", nodeId),
+                new BsonDocument("_id", new BsonString(nodeId)).append("token", token),
+                new ReplaceOptions().upsert(true));
+    }
+
+    private void deleteResumeToken() {
+        resumeTokens().deleteOne(Filters.eq("_id", nodeId));
+    }
+
+    private void pauseBeforeRetry() {
+        try {
+            Thread.sleep(RETRY_DELAY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.kl.voucher_pool.cache;
+
+import com.kl.voucher_pool.model.SpecialOffer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * In-process cache of special offers by id.
+ *
+ * Offers are read for every redemption and every wallet entry but change rarely, so they are cached
+ * for a long time and evicted through change stream events instead. Caching is only enabled together
+ * with the change streams; without them every lookup goes to the database.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+@Component
+public class SpecialOfferCache implements CacheInvalidationListener {
+
+    private static final String COLLECTION = "special_offers";
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public SpecialOfferCache(@Value("${voucher.cache.change-streams.enabled:false}") boolean enabled,
+                             @Value("${voucher.cache.special-offers.ttl:10m}") Duration ttl) {
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the cached special offer, loading it on a miss.
+     *
+     * @param id The id of the special offer
+     * @param loader Loads the special offer from the database
+     * @return The special offer, or empty if it does not exist
+     */
+    public Optional<SpecialOffer> get(String id, Function<String, Optional<SpecialOffer>> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        Entry entry = entries.get(id);
+        long now = System.nanoTime();
+        if (entry != null && now - entry.loadedAt < ttlNanos) {
+            return Optional.of(copyOf(entry.specialOffer));
+        }
+        // A load racing with an invalidation may have read the old version, so it is not cached.
+        long invalidationsBeforeLoad = invalidations.get();
+        Optional<SpecialOffer> specialOffer = loader.apply(id);
+        if (specialOffer.isPresent() && invalidations.get() == invalidationsBeforeLoad) {
+            entries.put(id, new Entry(copyOf(specialOffer.get()), now));
+        }
+        return specialOffer;
+    }
+
+    @Override
+    public Set<String> collections() {
+        return Set.of(COLLECTION);
+    }
+
+    @Override
+    public void invalidate(CacheInvalidationEvent event) {
+        invalidations.incrementAndGet();
+        entries.remove(event.getDocumentId());
+    }
+
+    @Override
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * Callers may modify the offers they get, e.g. to update the discount, so the cache never hands out its own instances.
+     */
+    private static SpecialOffer copyOf(SpecialOffer specialOffer) {
+        SpecialOffer copy = new SpecialOffer(specialOffer.getName(), specialOffer.getDiscountPercentage());
+        copy.setId(specialOffer.getId());
+        return copy;
+    }
+
+    private static final class Entry {
+        private final SpecialOffer specialOffer;
+        private final long loadedAt;
+
+        private Entry(SpecialOffer specialOffer, long loadedAt) {
+            this.specialOffer = specialOffer;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.kl.voucher_pool.config;
+
+import com.kl.voucher_pool.repository.embedded.EmbeddedStore;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * EmbeddedSnapshotJob writes the EmbeddedStore to "voucher.embedded.snapshot.path" every
+ * "voucher.embedded.snapshot.interval" and once more on shutdown. A blank path disables snapshots.
+ *
+ * Redemptions made after the last snapshot are lost if the process dies, so the interval
+ * bounds how much an edge store can forget.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+@Component
+@Profile("embedded")
+public class EmbeddedSnapshotJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedSnapshotJob.class);
+
+    private final EmbeddedStore embeddedStore;
+    private final String snapshotPath;
+
+    public EmbeddedSnapshotJob(EmbeddedStore embeddedStore,
+                               @Value("${voucher.embedded.snapshot.path:}") String snapshotPath) {
+        this.embeddedStore = embeddedStore;
+        this.snapshotPath = snapshotPath;
+    }
+
+    @Scheduled(fixedDelayString = "${voucher.embedded.snapshot.interval:PT30S}",
+            initialDelayString = "${voucher.embedded.snapshot.interval:PT30S}")
+    public void snapshot() {
+        if (snapshotPath.isBlank()) {
+            return;
+        }
+        try {
+            int written = embeddedStore.writeSnapshot(Path.of(snapshotPath));
+            logger.debug("Wrote {} voucher codes to snapshot {}", written, snapshotPath);
+        } catch (IOException e) {
+            logger.error("Failed to write snapshot {}", snapshotPath, e);
+        }
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        snapshot();
+    }
+}
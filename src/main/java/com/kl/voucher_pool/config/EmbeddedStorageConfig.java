@@ -0,0 +1,91 @@
+package com.kl.voucher_pool.config;
+
+import com.kl.voucher_pool.repository.ExpiryNotificationRepository;
+import com.kl.voucher_pool.repository.IdempotencyRecordRepository;
+import com.kl.voucher_pool.repository.RecipientRepository;
+import com.kl.voucher_pool.repository.RedemptionRollupRepository;
+import com.kl.voucher_pool.repository.ScanCheckpointRepository;
+import com.kl.voucher_pool.repository.SpecialOfferRepository;
+import com.kl.voucher_pool.repository.VoucherCodeRepository;
+import com.kl.voucher_pool.repository.embedded.EmbeddedExpiryNotificationRepository;
+import com.kl.voucher_pool.repository.embedded.EmbeddedIdempotencyRecordRepository;
+import com.kl.voucher_pool.repository.embedded.EmbeddedRecipientRepository;
+import com.kl.voucher_pool.repository.embedded.EmbeddedRedemptionRollupRepository;
+import com.kl.voucher_pool.repository.embedded.EmbeddedScanCheckpointRepository;
+import com.kl.voucher_pool.repository.embedded.EmbeddedSpecialOfferRepository;
+import com.kl.voucher_pool.repository.embedded.EmbeddedStore;
+import com.kl.voucher_pool.repository.embedded.EmbeddedVoucherCodeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Replaces the MongoDB repositories with the EmbeddedStore when the "embedded" profile is active.
+ *
+ * The profile's application-embedded.properties excludes the MongoDB auto-configuration, so these
+ * beans are the only implementations of the repository interfaces and VoucherPoolService runs
+ * unchanged on top of them. The store is restored from "voucher.embedded.snapshot.path" on startup
+ * when that file exists.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+@Configuration
+@Profile("embedded")
+public class EmbeddedStorageConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedStorageConfig.class);
+
+    @Bean
+    public EmbeddedStore embeddedStore(@Value("${voucher.embedded.snapshot.path:}") String snapshotPath) throws IOException {
+        EmbeddedStore store = new EmbeddedStore();
+        if (!snapshotPath.isBlank() && Files.exists(Path.of(snapshotPath))) {
+            int restored = store.restoreSnapshot(Path.of(snapshotPath));
+            logger.info("Restored {} voucher codes from snapshot {}", restored, snapshotPath);
+        }
+        return store;
+    }
+
+    @Bean
+    public RecipientRepository recipientRepository(EmbeddedStore store) {
+        return new EmbeddedRecipientRepository(store);
+    }
+
+    @Bean
+    public SpecialOfferRepository specialOfferRepository(EmbeddedStore store) {
+        return new EmbeddedSpecialOfferRepository(store);
+    }
+
+    @Bean
+    public VoucherCodeRepository voucherCodeRepository(EmbeddedStore store) {
+        return new EmbeddedVoucherCodeRepository(store);
+    }
+
+    @Bean
+    public IdempotencyRecordRepository idempotencyRecordRepository(@Value("${voucher.idempotency.ttl:24h}") Duration ttl) {
+        return new EmbeddedIdempotencyRecordRepository(ttl);
+    }
+
+    @Bean
+    public ScanCheckpointRepository scanCheckpointRepository() {
+        return new EmbeddedScanCheckpointRepository();
+    }
+
+    @Bean
+    public ExpiryNotificationRepository expiryNotificationRepository() {
+        return new EmbeddedExpiryNotificationRepository();
+    }
+
+    @Bean
+    public RedemptionRollupRepository redemptionRollupRepository() {
+        return new EmbeddedRedemptionRollupRepository();
+    }
+}
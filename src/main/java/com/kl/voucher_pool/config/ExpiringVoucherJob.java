@@ -0,0 +1,127 @@
+package com.kl.voucher_pool.config;
+
+import com.kl.voucher_pool.model.ExpiryNotification;
+import com.kl.voucher_pool.model.ScanCheckpoint;
+import com.kl.voucher_pool.repository.ExpiryNotificationRepository;
+import com.kl.voucher_pool.repository.ScanCheckpointRepository;
+import com.kl.voucher_pool.service.ExpiringScanPosition;
+import com.kl.voucher_pool.service.ExpiringVoucher;
+import com.kl.voucher_pool.service.ExpiringVoucherBatch;
+import com.kl.voucher_pool.service.ExpiringVoucherNotifier;
+import com.kl.voucher_pool.service.ExpiringVoucherScanner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * ExpiringVoucherJob notifies recipients of their unused vouchers that expire within the next
+ * "voucher.expiring.job.days" days. It runs on the "voucher.expiring.job.cron" schedule when
+ * "voucher.expiring.job.enabled" is set, which should be done on a single instance only.
+ *
+ * Every run scans the whole window, so a voucher generated with an expiration date already inside it
+ * is found on the next run. Each notified voucher is recorded as an ExpiryNotification, and vouchers
+ * with a record are skipped, so every voucher is notified once. Records of expired vouchers are removed
+ * at the start of a run.
+ *
+ * Progress is saved in a ScanCheckpoint after every batch. A run interrupted by a restart resumes
+ * from its checkpoint on the next trigger, and a completed run is not repeated on the same day.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+@Component
+@ConditionalOnProperty(name = "voucher.expiring.job.enabled", havingValue = "true")
+public class ExpiringVoucherJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpiringVoucherJob.class);
+
+    private static final String JOB_ID = "expiring-vouchers";
+
+    private final ExpiringVoucherScanner expiringVoucherScanner;
+    private final ExpiringVoucherNotifier expiringVoucherNotifier;
+    private final ScanCheckpointRepository scanCheckpointRepository;
+    private final ExpiryNotificationRepository expiryNotificationRepository;
+    private final int days;
+    private final int batchSize;
+
+    public ExpiringVoucherJob(ExpiringVoucherScanner expiringVoucherScanner,
+                              ExpiringVoucherNotifier expiringVoucherNotifier,
+                              ScanCheckpointRepository scanCheckpointRepository,
+                              ExpiryNotificationRepository expiryNotificationRepository,
+                              @Value("${voucher.expiring.job.days:7}") int days,
+                              @Value("${voucher.expiring.job.batch-size:500}") int batchSize) {
+        this.expiringVoucherScanner = expiringVoucherScanner;
+        this.expiringVoucherNotifier = expiringVoucherNotifier;
+        this.scanCheckpointRepository = scanCheckpointRepository;
+        this.expiryNotificationRepository = expiryNotificationRepository;
+        this.days = days;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Scans the expiring vouchers batch by batch, starting from today's checkpoint if there is one,
+     * and notifies those not notified before.
+     */
+    @Scheduled(cron = "${voucher.expiring.job.cron:0 0 2 * * *}")
+    public void run() {
+        LocalDate today = LocalDate.now();
+        ScanCheckpoint checkpoint = checkpointFor(today);
+        if (checkpoint.isCompleted()) {
+            logger.info("Expiring voucher job already completed for {}", today);
+            return;
+        }
+
+        logger.info("Expiring voucher job started for {} (window up to {}, resuming from {})",
+                today, checkpoint.getWindowEnd(), checkpoint.getExpirationDate());
+        expiryNotificationRepository.deleteByExpirationDateBefore(today);
+        ExpiringScanPosition position = new ExpiringScanPosition(checkpoint.getExpirationDate(), checkpoint.getLastId());
+        long notified = 0;
+        while (position != null) {
+            ExpiringVoucherBatch batch = expiringVoucherScanner.nextBatch(position, checkpoint.getWindowEnd(), batchSize);
+            List<ExpiringVoucher> vouchers = notYetNotified(batch.getVouchers());
+            expiringVoucherNotifier.notify(vouchers);
+            expiryNotificationRepository.saveAll(vouchers.stream()
+                    .map(voucher -> new ExpiryNotification(voucher.getCode(), voucher.getExpirationDate()))
+                    .toList());
+            notified += vouchers.size();
+
+            position = batch.getNextPosition();
+            if (position == null) {
+                checkpoint.setCompleted(true);
+            } else {
+                checkpoint.setExpirationDate(position.getExpirationDate());
+                checkpoint.setLastId(position.getLastId());
+            }
+            scanCheckpointRepository.save(checkpoint);
+        }
+        logger.info("Expiring voucher job finished for {}. Notified: {}", today, notified);
+    }
+
+    /**
+     * Continues today's checkpoint, or starts a scan of the whole window. What an unfinished run
+     * of an earlier day already notified is skipped through the notification records.
+     */
+    private ScanCheckpoint checkpointFor(LocalDate today) {
+        ScanCheckpoint previous = scanCheckpointRepository.findById(JOB_ID).orElse(null);
+        if (previous != null && today.equals(previous.getRunDate())) {
+            return previous;
+        }
+        return new ScanCheckpoint(JOB_ID, today, today.plusDays(days), today);
+    }
+
+    private List<ExpiringVoucher> notYetNotified(List<ExpiringVoucher> vouchers) {
+        Set<String> notified = expiryNotificationRepository
+                .findAllById(vouchers.stream().map(ExpiringVoucher::getCode).toList()).stream()
+                .map(ExpiryNotification::getId)
+                .collect(Collectors.toSet());
+        return vouchers.stream().filter(voucher -> !notified.contains(voucher.getCode())).toList();
+    }
+}
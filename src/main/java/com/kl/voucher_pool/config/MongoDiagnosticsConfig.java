@@ -0,0 +1,34 @@
+package com.kl.voucher_pool.config;
+
+import com.kl.voucher_pool.diagnostics.MongoCommandTracer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.time.Duration;
+
+/**
+ * Registers the MongoCommandTracer with the MongoClient created by Spring Boot.
+ *
+ * Commands slower than "voucher.diagnostics.slow-command-threshold" are logged.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+@Configuration
+@Profile("!embedded")
+public class MongoDiagnosticsConfig {
+
+    @Bean
+    public MongoCommandTracer mongoCommandTracer(
+            @Value("${voucher.diagnostics.slow-command-threshold:100ms}") Duration slowCommandThreshold) {
+        return new MongoCommandTracer(slowCommandThreshold);
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCommandTracerCustomizer(MongoCommandTracer mongoCommandTracer) {
+        return builder -> builder.addCommandListener(mongoCommandTracer);
+    }
+}
@@ -0,0 +1,56 @@
+package com.kl.voucher_pool.config;
+
+import com.kl.voucher_pool.repository.partition.CodeHashPartitionStrategy;
+import com.kl.voucher_pool.repository.partition.OfferPartitionStrategy;
+import com.kl.voucher_pool.repository.partition.SingleCollectionPartitionStrategy;
+import com.kl.voucher_pool.repository.partition.VoucherCodeCollectionPreparer;
+import com.kl.voucher_pool.repository.partition.VoucherCodePartitionStrategy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+
+/**
+ * Configures how voucher codes are partitioned across MongoDB collections.
+ *
+ * The strategy is selected with "voucher.partitioning.strategy":
+ * - "single" (default): every voucher code stays in the "voucher_codes" collection
+ * - "offer": one collection per special offer
+ * - "hash": a fixed number of buckets chosen by the hash of the code
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+@Configuration
+@Profile("!embedded")
+public class PartitioningConfig {
+
+    @Bean
+    public VoucherCodePartitionStrategy voucherCodePartitionStrategy(
+            MongoTemplate mongoTemplate,
+            @Value("${voucher.partitioning.strategy:single}") String strategy,
+            @Value("${voucher.partitioning.hash-buckets:16}") int hashBuckets,
+            @Value("${voucher.partitioning.refresh-interval:30s}") Duration refreshInterval) {
+        switch (strategy) {
+            case "single":
+                return new SingleCollectionPartitionStrategy();
+            case "offer":
+                return new OfferPartitionStrategy(mongoTemplate, refreshInterval);
+            case "hash":
+                return new CodeHashPartitionStrategy(hashBuckets);
+            default:
+                throw new IllegalArgumentException("Unknown voucher partitioning strategy: " + strategy);
+        }
+    }
+
+    @Bean
+    public VoucherCodeCollectionPreparer voucherCodeCollectionPreparer(
+            MongoTemplate mongoTemplate,
+            VoucherCodePartitionStrategy partitionStrategy,
+            @Value("${voucher.partitioning.sharding-enabled:false}") boolean shardingEnabled) {
+        return new VoucherCodeCollectionPreparer(mongoTemplate, partitionStrategy, shardingEnabled);
+    }
+}
@@ -0,0 +1,44 @@
+package com.kl.voucher_pool.config;
+
+import com.kl.voucher_pool.service.RedemptionRollupService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * RedemptionRollupJob flushes the redemptions counted by this node to the redemption rollups
+ * every "voucher.rollups.flush-interval" and once more on shutdown. Each node flushes its own
+ * counts; the $inc upserts add them up in the shared rollups.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+@Component
+public class RedemptionRollupJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedemptionRollupJob.class);
+
+    private final RedemptionRollupService redemptionRollupService;
+
+    public RedemptionRollupJob(RedemptionRollupService redemptionRollupService) {
+        this.redemptionRollupService = redemptionRollupService;
+    }
+
+    @Scheduled(fixedDelayString = "${voucher.rollups.flush-interval:PT10S}",
+            initialDelayString = "${voucher.rollups.flush-interval:PT10S}")
+    public void flush() {
+        try {
+            long stored = redemptionRollupService.flush();
+            logger.debug("Flushed {} redemptions to the rollups", stored);
+        } catch (RuntimeException e) {
+            logger.error("Failed to flush redemption rollups, the counts are kept for the next flush", e);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,15 @@
+package com.kl.voucher_pool.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the scheduled background jobs of the application.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
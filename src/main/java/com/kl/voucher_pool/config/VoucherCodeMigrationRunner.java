@@ -0,0 +1,116 @@
+package com.kl.voucher_pool.config;
+
+import com.kl.voucher_pool.model.VoucherCode;
+import com.kl.voucher_pool.repository.partition.VoucherCodeCollectionPreparer;
+import com.kl.voucher_pool.repository.partition.VoucherCodePartitionStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * VoucherCodeMigrationRunner redistributes existing voucher codes from the "voucher_codes" collection
+ * into the partition collections of the configured strategy.
+ * It runs on application startup when "voucher.partitioning.migration.enabled" is set.
+ *
+ * Documents are moved in batches ordered by id: each batch is upserted into its target collections
+ * and only then removed from the source, so an interrupted migration can simply be restarted.
+ * The route of each code is recorded first, for strategies that look codes up through their routes.
+ * Enable "voucher.partitioning.legacy-fallback" on all nodes while the migration is running.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+@Component
+@ConditionalOnProperty(name = "voucher.partitioning.migration.enabled", havingValue = "true")
+@Profile("!embedded")
+public class VoucherCodeMigrationRunner implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(VoucherCodeMigrationRunner.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final VoucherCodePartitionStrategy partitionStrategy;
+    private final VoucherCodeCollectionPreparer collectionPreparer;
+    private final int batchSize;
+    private final long pauseMillis;
+
+    public VoucherCodeMigrationRunner(MongoTemplate mongoTemplate,
+                                      VoucherCodePartitionStrategy partitionStrategy,
+                                      VoucherCodeCollectionPreparer collectionPreparer,
+                                      @Value("${voucher.partitioning.migration.batch-size:1000}") int batchSize,
+                                      @Value("${voucher.partitioning.migration.pause-ms:0}") long pauseMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.partitionStrategy = partitionStrategy;
+        this.collectionPreparer = collectionPreparer;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    /**
+     * Moves all voucher codes that do not belong in the "voucher_codes" collection, batch by batch.
+     *
+     * @param args Command line arguments
+     */
+    @Override
+    public void run(String... args) throws InterruptedException {
+        logger.info("Starting voucher code migration with batch size {}", batchSize);
+        String lastId = null;
+        long moved = 0;
+        while (true) {
+            List<VoucherCode> batch = nextBatch(lastId);
+            if (batch.isEmpty()) {
+                break;
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+            moved += migrate(batch);
+            logger.info("Migrated {} voucher codes so far", moved);
+            if (pauseMillis > 0) {
+                Thread.sleep(pauseMillis);
+            }
+        }
+        logger.info("Voucher code migration finished. Moved: {}", moved);
+    }
+
+    private List<VoucherCode> nextBatch(String lastId) {
+        Query query = lastId == null ? new Query() : Query.query(Criteria.where("_id").gt(lastId));
+        query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(batchSize);
+        return mongoTemplate.find(query, VoucherCode.class, VoucherCodePartitionStrategy.BASE_COLLECTION);
+    }
+
+    private int migrate(List<VoucherCode> batch) {
+        Map<String, List<VoucherCode>> byCollection = batch.stream()
+                .collect(Collectors.groupingBy(partitionStrategy::collectionFor, LinkedHashMap::new, Collectors.toList()));
+        byCollection.remove(VoucherCodePartitionStrategy.BASE_COLLECTION);
+
+        int moved = 0;
+        for (Map.Entry<String, List<VoucherCode>> entry : byCollection.entrySet()) {
+            collectionPreparer.prepare(entry.getKey());
+            entry.getValue().forEach(partitionStrategy::register);
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, VoucherCode.class, entry.getKey());
+            for (VoucherCode voucherCode : entry.getValue()) {
+                bulkOps.replaceOne(Query.query(Criteria.where("_id").is(voucherCode.getId())),
+                        voucherCode, FindAndReplaceOptions.options().upsert());
+            }
+            bulkOps.execute();
+
+            List<String> ids = entry.getValue().stream().map(VoucherCode::getId).collect(Collectors.toList());
+            mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), VoucherCodePartitionStrategy.BASE_COLLECTION);
+            moved += ids.size();
+        }
+        return moved;
+    }
+}
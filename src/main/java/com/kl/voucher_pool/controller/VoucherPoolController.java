@@ -1,15 +1,25 @@
 package com.kl.voucher_pool.controller;
 
 import com.kl.voucher_pool.model.VoucherCode;
+import com.kl.voucher_pool.service.ErrorCode;
+import com.kl.voucher_pool.service.RedemptionCount;
+import com.kl.voucher_pool.service.RedemptionRollupService;
+import com.kl.voucher_pool.service.ServiceResult;
 import com.kl.voucher_pool.service.VoucherPoolService;
+import com.kl.voucher_pool.service.WalletEntry;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * VoucherPoolController handles HTTP requests related to voucher operations.
@@ -26,12 +36,24 @@ import java.util.Map;
 public class VoucherPoolController {
 
     private final VoucherPoolService voucherPoolService;
+    private final RedemptionRollupService redemptionRollupService;
 
-    public VoucherPoolController(VoucherPoolService voucherPoolService) {
+    public VoucherPoolController(VoucherPoolService voucherPoolService, RedemptionRollupService redemptionRollupService) {
         this.voucherPoolService = voucherPoolService;
+        this.redemptionRollupService = redemptionRollupService;
     }
 
     private static final String ERROR_KEY = "error";
+    private static final Duration MAX_REDEMPTION_RANGE = Duration.ofDays(7);
+    private static final Map<ErrorCode, Map<String, Object>> ERROR_BODIES = new EnumMap<>(ErrorCode.class);
+    private static final Set<ErrorCode> CONFLICTS =
+            EnumSet.of(ErrorCode.IDEMPOTENCY_KEY_REUSED, ErrorCode.IDEMPOTENCY_KEY_IN_PROGRESS);
+
+    static {
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            ERROR_BODIES.put(errorCode, Map.of(ERROR_KEY, errorCode.getMessage()));
+        }
+    }
 
     /**
      * Generates a new voucher code for a recipient with a specified special offer and expiration date.
@@ -39,19 +61,20 @@ public class VoucherPoolController {
      * @param email The email of the recipient
      * @param specialOffer The name of the special offer
      * @param expirationDate The expiration date of the voucher
+     * @param idempotencyKey Optional key making retries of the same request return the same voucher code
      * @return ResponseEntity containing the generated voucher code
      */
     @PostMapping("/generate")
     public ResponseEntity<Map<String, Object>> generateVoucher(
             @RequestParam String email,
             @RequestParam String specialOffer,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expirationDate) {
-        try {
-            VoucherCode voucherCode = voucherPoolService.generateVoucherCode(email, specialOffer, expirationDate);
-            return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("code", voucherCode.getCode()));
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(Map.of(ERROR_KEY, e.getMessage()));
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expirationDate,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        ServiceResult<VoucherCode> result = voucherPoolService.generateVoucherCode(email, specialOffer, expirationDate, idempotencyKey);
+        if (!result.isSuccess()) {
+            return errorResponse(result.getError());
         }
+        return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("code", result.getValue().getCode()));
     }
 
     /**
@@ -65,28 +88,61 @@ public class VoucherPoolController {
     public ResponseEntity<Map<String, Object>> validateVoucher(
             @RequestParam String code,
             @RequestParam String email) {
-        try {
-            Map<String, Object> result = voucherPoolService.validateVoucherCode(code, email);
-            return ResponseEntity.ok(result);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(Map.of(ERROR_KEY, e.getMessage()));
+        ServiceResult<Map<String, Object>> result = voucherPoolService.validateVoucherCode(code, email);
+        if (!result.isSuccess()) {
+            return errorResponse(result.getError());
         }
+        return ResponseEntity.ok(result.getValue());
     }
 
     /**
      * Retrieves all valid voucher codes for a recipient.
      * 
      * @param email The email of the recipient
-     * @return ResponseEntity containing the list of valid voucher codes
+     * @return ResponseEntity containing the list of valid voucher codes, each as "CODE - Offer name"
      */
     @GetMapping("/valid")
     public ResponseEntity<Map<String, Object>> getValidVouchers(@RequestParam String email) {
-        try {
-            List<String> validVouchers = voucherPoolService.getValidVoucherCodes(email);
-            return ResponseEntity.ok(Map.of("vouchers", validVouchers));
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(Map.of(ERROR_KEY, e.getMessage()));
+        ServiceResult<List<WalletEntry>> result = voucherPoolService.getValidVoucherCodes(email);
+        if (!result.isSuccess()) {
+            return errorResponse(result.getError());
         }
+        List<String> vouchers = result.getValue().stream()
+                .map(entry -> entry.getCode() + " - " + entry.getOfferName())
+                .toList();
+        return ResponseEntity.ok(Map.of("vouchers", vouchers));
+    }
+
+    /**
+     * Retrieves the redemptions of a special offer per minute, from the redemption rollups.
+     * Minutes without redemptions are left out.
+     *
+     * @param specialOffer The name of the special offer
+     * @param from The start of the range, inclusive
+     * @param to The end of the range, exclusive, at most 7 days after the start
+     * @return ResponseEntity containing the redemption count of each minute
+     */
+    @GetMapping("/redemptions")
+    public ResponseEntity<Map<String, Object>> getRedemptions(
+            @RequestParam String specialOffer,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (!from.isBefore(to) || Duration.between(from, to).compareTo(MAX_REDEMPTION_RANGE) > 0) {
+            return ResponseEntity.badRequest().body(Map.of(ERROR_KEY, "Invalid time range"));
+        }
+        ServiceResult<List<RedemptionCount>> result = redemptionRollupService.getRedemptionsPerMinute(specialOffer, from, to);
+        if (!result.isSuccess()) {
+            return errorResponse(result.getError());
+        }
+        return ResponseEntity.ok(Map.of("redemptions", result.getValue()));
+    }
+
+    /**
+     * Idempotency key conflicts are reported as 409 Conflict: the request itself was valid,
+     * it clashes with another request carrying the same key.
+     */
+    private static ResponseEntity<Map<String, Object>> errorResponse(ErrorCode errorCode) {
+        HttpStatus status = CONFLICTS.contains(errorCode) ? HttpStatus.CONFLICT : HttpStatus.BAD_REQUEST;
+        return ResponseEntity.status(status).body(ERROR_BODIES.get(errorCode));
     }
-    
 }
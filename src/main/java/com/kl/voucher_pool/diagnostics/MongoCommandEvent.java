@@ -0,0 +1,38 @@
+package com.kl.voucher_pool.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event covering one MongoDB command, from the moment the driver sends it until the reply or failure.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+@Name("com.kl.voucher_pool.MongoCommand")
+@Label("MongoDB Command")
+@Category({"Voucher Pool", "MongoDB"})
+@Description("A MongoDB command, tagged with the service operation that issued it")
+@StackTrace(false)
+class MongoCommandEvent extends Event {
+
+    @Label("Operation")
+    @Description("The service operation that issued the command, empty for background work")
+    String operation;
+
+    @Label("Command")
+    String commandName;
+
+    @Label("Database")
+    String database;
+
+    @Label("Collection")
+    String collection;
+
+    @Label("Succeeded")
+    boolean succeeded;
+}
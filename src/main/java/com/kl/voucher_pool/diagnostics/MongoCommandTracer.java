@@ -0,0 +1,110 @@
+package com.kl.voucher_pool.diagnostics;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import jdk.jfr.EventType;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Driver CommandListener that attributes every MongoDB command to the service operation that issued it.
+ *
+ * For each command it:
+ * - adds the elapsed time to the OperationScope of the issuing thread
+ * - logs a warning when the command took longer than the slow command threshold
+ * - records a MongoCommandEvent while Java Flight Recorder is recording
+ *
+ * The scope and collection are captured when the command starts, because the completion
+ * events of the driver carry neither.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public class MongoCommandTracer implements CommandListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoCommandTracer.class);
+
+    private static final EventType COMMAND_EVENT_TYPE = EventType.getEventType(MongoCommandEvent.class);
+
+    private final long slowCommandThresholdNanos;
+    private final Map<Integer, StartedCommand> inFlight = new ConcurrentHashMap<>();
+
+    public MongoCommandTracer(Duration slowCommandThreshold) {
+        this.slowCommandThresholdNanos = slowCommandThreshold.toNanos();
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        MongoCommandEvent commandEvent = null;
+        if (COMMAND_EVENT_TYPE.isEnabled()) {
+            commandEvent = new MongoCommandEvent();
+            commandEvent.begin();
+        }
+        inFlight.put(event.getRequestId(), new StartedCommand(OperationScope.current(),
+                collectionOf(event.getCommand(), event.getCommandName()), commandEvent));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        completed(event.getRequestId(), event.getCommandName(), event.getDatabaseName(),
+                event.getElapsedTime(TimeUnit.NANOSECONDS), null);
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        completed(event.getRequestId(), event.getCommandName(), event.getDatabaseName(),
+                event.getElapsedTime(TimeUnit.NANOSECONDS), event.getThrowable());
+    }
+
+    private void completed(int requestId, String commandName, String database, long elapsedNanos, Throwable failure) {
+        StartedCommand started = inFlight.remove(requestId);
+        if (started == null) {
+            return;
+        }
+        String operation = started.scope() == null ? "" : started.scope().getOperation().getLabel();
+        if (started.scope() != null) {
+            started.scope().recordMongoCommand(elapsedNanos);
+        }
+
+        if (elapsedNanos >= slowCommandThresholdNanos) {
+            if (failure == null) {
+                logger.warn("Slow MongoDB command {} on {}.{} took {} ms (operation: {})", commandName, database,
+                        started.collection(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos), operation);
+            } else {
+                logger.warn("Slow MongoDB command {} on {}.{} failed after {} ms (operation: {}): {}", commandName, database,
+                        started.collection(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos), operation, failure.toString());
+            }
+        }
+
+        MongoCommandEvent commandEvent = started.event();
+        if (commandEvent != null) {
+            commandEvent.end();
+            if (commandEvent.shouldCommit()) {
+                commandEvent.operation = operation;
+                commandEvent.commandName = commandName;
+                commandEvent.database = database;
+                commandEvent.collection = started.collection();
+                commandEvent.succeeded = failure == null;
+                commandEvent.commit();
+            }
+        }
+    }
+
+    // CRUD commands name their collection as the value of the command name field, e.g. {find: "voucher_codes"}.
+    private static String collectionOf(BsonDocument command, String commandName) {
+        BsonValue target = command.get(commandName);
+        return target != null && target.isString() ? target.asString().getValue() : "";
+    }
+
+    private record StartedCommand(OperationScope scope, String collection, MongoCommandEvent event) {
+    }
+}
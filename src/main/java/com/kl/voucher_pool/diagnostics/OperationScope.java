@@ -0,0 +1,96 @@
+package com.kl.voucher_pool.diagnostics;
+
+import jdk.jfr.EventType;
+
+/**
+ * Marks the current thread as running a service operation, so that the MongoDB commands it issues
+ * can be attributed to it. Opened with try-with-resources around the body of a service method:
+ *
+ *     try (OperationScope scope = OperationScope.open(ServiceOperation.VALIDATE)) {
+ *         ...
+ *         scope.setOutcome("OK");
+ *     }
+ *
+ * While Java Flight Recorder records ServiceCallEvents, each scope is recorded as one when it closes,
+ * with the MongoDB commands issued in it. An outcome that is never set is recorded as "EXCEPTION".
+ * Otherwise the scope only names the operation, for the slow command log of MongoCommandTracer.
+ * Scopes nest; the innermost one is the current one.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public final class OperationScope implements AutoCloseable {
+
+    private static final ThreadLocal<OperationScope> CURRENT = new ThreadLocal<>();
+    private static final EventType CALL_EVENT_TYPE = EventType.getEventType(ServiceCallEvent.class);
+
+    private final ServiceOperation operation;
+    private final OperationScope enclosing;
+    private final ServiceCallEvent event;
+    private String outcome = "EXCEPTION";
+    private int mongoCommands;
+    private long mongoTime;
+
+    private OperationScope(ServiceOperation operation, OperationScope enclosing, ServiceCallEvent event) {
+        this.operation = operation;
+        this.enclosing = enclosing;
+        this.event = event;
+    }
+
+    public static OperationScope open(ServiceOperation operation) {
+        ServiceCallEvent event = null;
+        if (CALL_EVENT_TYPE.isEnabled()) {
+            event = new ServiceCallEvent();
+            event.begin();
+        }
+        OperationScope scope = new OperationScope(operation, CURRENT.get(), event);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * @return The scope of the current thread, or null outside of any service operation
+     */
+    public static OperationScope current() {
+        return CURRENT.get();
+    }
+
+    public ServiceOperation getOperation() {
+        return operation;
+    }
+
+    public void setOutcome(String outcome) {
+        this.outcome = outcome;
+    }
+
+    /**
+     * Adds a completed MongoDB command to the totals of this scope. Called by MongoCommandTracer
+     * on the thread that issued the command.
+     */
+    void recordMongoCommand(long elapsedNanos) {
+        if (event != null) {
+            mongoCommands++;
+            mongoTime += elapsedNanos;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (enclosing == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(enclosing);
+        }
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation.getLabel();
+            event.outcome = outcome;
+            event.mongoCommands = mongoCommands;
+            event.mongoTime = mongoTime;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.kl.voucher_pool.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event covering one call of a VoucherPoolService operation, with the MongoDB commands it issued.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+@Name("com.kl.voucher_pool.ServiceCall")
+@Label("Voucher Service Call")
+@Category({"Voucher Pool"})
+@Description("A call of a voucher pool service operation")
+@StackTrace(false)
+class ServiceCallEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Outcome")
+    @Description("OK, the error code of an expected failure, or EXCEPTION")
+    String outcome;
+
+    @Label("MongoDB Commands")
+    int mongoCommands;
+
+    @Label("MongoDB Time")
+    @Description("Time spent in MongoDB commands, as measured by the driver")
+    @Timespan(Timespan.NANOSECONDS)
+    long mongoTime;
+}
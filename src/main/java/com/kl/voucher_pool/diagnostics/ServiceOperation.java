@@ -0,0 +1,23 @@
+package com.kl.voucher_pool.diagnostics;
+
+/**
+ * The operations of VoucherPoolService that MongoDB commands and JFR events are attributed to.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public enum ServiceOperation {
+    GENERATE("generate"),
+    VALIDATE("validate"),
+    LIST_VALID("list-valid");
+
+    private final String label;
+
+    ServiceOperation(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,85 @@
+package com.kl.voucher_pool.grpc;
+
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GrpcServer runs the gRPC endpoint of the application on "voucher.grpc.port" (0 picks a free port).
+ * It is started and stopped with the application context and can be turned off with "voucher.grpc.enabled".
+ *
+ * On shutdown, calls in progress get up to "voucher.grpc.shutdown-grace-period" to finish
+ * before they are cancelled.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+@Component
+@ConditionalOnProperty(name = "voucher.grpc.enabled", havingValue = "true", matchIfMissing = true)
+public class GrpcServer implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(GrpcServer.class);
+
+    private final VoucherPoolGrpcService voucherPoolGrpcService;
+    private final int port;
+    private final Duration shutdownGracePeriod;
+
+    private volatile Server server;
+
+    public GrpcServer(VoucherPoolGrpcService voucherPoolGrpcService,
+                      @Value("${voucher.grpc.port:9090}") int port,
+                      @Value("${voucher.grpc.shutdown-grace-period:10s}") Duration shutdownGracePeriod) {
+        this.voucherPoolGrpcService = voucherPoolGrpcService;
+        this.port = port;
+        this.shutdownGracePeriod = shutdownGracePeriod;
+    }
+
+    @Override
+    public void start() {
+        try {
+            server = ServerBuilder.forPort(port).addService(voucherPoolGrpcService).build().start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to start gRPC server on port " + port, e);
+        }
+        logger.info("gRPC server started on port {}", server.getPort());
+    }
+
+    @Override
+    public void stop() {
+        Server running = server;
+        server = null;
+        if (running == null) {
+            return;
+        }
+        running.shutdown();
+        try {
+            if (!running.awaitTermination(shutdownGracePeriod.toMillis(), TimeUnit.MILLISECONDS)) {
+                running.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            running.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * @return The port the server listens on, which differs from the configured one when that is 0
+     */
+    public int getPort() {
+        return server.getPort();
+    }
+}
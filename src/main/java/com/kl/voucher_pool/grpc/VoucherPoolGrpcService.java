@@ -0,0 +1,177 @@
+package com.kl.voucher_pool.grpc;
+
+import com.kl.voucher_pool.grpc.proto.Error;
+import com.kl.voucher_pool.grpc.proto.GenerateRequest;
+import com.kl.voucher_pool.grpc.proto.GenerateResponse;
+import com.kl.voucher_pool.grpc.proto.ListValidRequest;
+import com.kl.voucher_pool.grpc.proto.ListValidResponse;
+import com.kl.voucher_pool.grpc.proto.ValidVoucher;
+import com.kl.voucher_pool.grpc.proto.ValidateRequest;
+import com.kl.voucher_pool.grpc.proto.ValidateResponse;
+import com.kl.voucher_pool.grpc.proto.VoucherPoolGrpc;
+import com.kl.voucher_pool.model.VoucherCode;
+import com.kl.voucher_pool.service.ErrorCode;
+import com.kl.voucher_pool.service.ServiceResult;
+import com.kl.voucher_pool.service.VoucherPoolService;
+import com.kl.voucher_pool.service.WalletEntry;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * VoucherPoolGrpcService serves the voucher operations over gRPC, next to VoucherPoolController.
+ * Like the controller it only translates requests and results and delegates to VoucherPoolService.
+ *
+ * The streaming variants let a client, such as a POS terminal, keep one long-lived HTTP/2 connection
+ * and send its requests on it as they come. Requests of a stream are handled one at a time in order,
+ * and the next one is only read once the client keeps up with the responses.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+@Component
+public class VoucherPoolGrpcService extends VoucherPoolGrpc.VoucherPoolImplBase {
+
+    private final VoucherPoolService voucherPoolService;
+
+    public VoucherPoolGrpcService(VoucherPoolService voucherPoolService) {
+        this.voucherPoolService = voucherPoolService;
+    }
+
+    @Override
+    public void generate(GenerateRequest request, StreamObserver<GenerateResponse> responseObserver) {
+        responseObserver.onNext(generate(request));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void validate(ValidateRequest request, StreamObserver<ValidateResponse> responseObserver) {
+        responseObserver.onNext(validate(request));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void listValid(ListValidRequest request, StreamObserver<ListValidResponse> responseObserver) {
+        ServiceResult<List<WalletEntry>> result = voucherPoolService.getValidVoucherCodes(request.getEmail());
+        ListValidResponse.Builder response = ListValidResponse.newBuilder();
+        if (!result.isSuccess()) {
+            response.setError(toError(result.getError())).setErrorMessage(result.getError().getMessage());
+        } else {
+            result.getValue().forEach(entry -> response.addVouchers(toValidVoucher(entry)));
+        }
+        responseObserver.onNext(response.build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public StreamObserver<GenerateRequest> generateStream(StreamObserver<GenerateResponse> responseObserver) {
+        return respondingWith(responseObserver, this::generate);
+    }
+
+    @Override
+    public StreamObserver<ValidateRequest> validateStream(StreamObserver<ValidateResponse> responseObserver) {
+        return respondingWith(responseObserver, this::validate);
+    }
+
+    @Override
+    public void listValidStream(ListValidRequest request, StreamObserver<ValidVoucher> responseObserver) {
+        ServiceResult<List<WalletEntry>> result = voucherPoolService.getValidVoucherCodes(request.getEmail());
+        if (!result.isSuccess()) {
+            responseObserver.onError(Status.NOT_FOUND.withDescription(result.getError().getMessage()).asRuntimeException());
+            return;
+        }
+        result.getValue().forEach(entry -> responseObserver.onNext(toValidVoucher(entry)));
+        responseObserver.onCompleted();
+    }
+
+    private GenerateResponse generate(GenerateRequest request) {
+        GenerateResponse.Builder response = GenerateResponse.newBuilder().setRequestId(request.getRequestId());
+        LocalDate expirationDate;
+        try {
+            expirationDate = LocalDate.parse(request.getExpirationDate());
+        } catch (DateTimeParseException e) {
+            return response.setError(Error.INVALID_REQUEST).setErrorMessage("Invalid expiration date").build();
+        }
+        String idempotencyKey = request.getIdempotencyKey().isEmpty() ? null : request.getIdempotencyKey();
+
+        ServiceResult<VoucherCode> result = voucherPoolService.generateVoucherCode(
+                request.getEmail(), request.getSpecialOffer(), expirationDate, idempotencyKey);
+        if (!result.isSuccess()) {
+            return response.setError(toError(result.getError())).setErrorMessage(result.getError().getMessage()).build();
+        }
+        return response.setCode(result.getValue().getCode()).build();
+    }
+
+    private ValidateResponse validate(ValidateRequest request) {
+        ValidateResponse.Builder response = ValidateResponse.newBuilder().setRequestId(request.getRequestId());
+        ServiceResult<Map<String, Object>> result = voucherPoolService.validateVoucherCode(request.getCode(), request.getEmail());
+        if (!result.isSuccess()) {
+            return response.setError(toError(result.getError())).setErrorMessage(result.getError().getMessage()).build();
+        }
+        Map<String, Object> redemption = result.getValue();
+        return response.setDiscount((Double) redemption.get("discount"))
+                .setOfferName((String) redemption.get("offerName"))
+                .setExpirationDate(redemption.get("expirationDate").toString())
+                .setUsageDate(redemption.get("usageDate").toString())
+                .build();
+    }
+
+    /**
+     * Answers every request of a stream with one response, and completes when the client does.
+     *
+     * Inbound flow control is manual: the next request is only pulled once the response to the previous
+     * one could be sent. A client that sends faster than it reads its responses is held back by the HTTP/2
+     * window instead of having its requests and our unsent responses buffered in memory.
+     */
+    private static <Q, R> StreamObserver<Q> respondingWith(StreamObserver<R> responseObserver, Function<Q, R> handler) {
+        ServerCallStreamObserver<R> serverObserver = (ServerCallStreamObserver<R>) responseObserver;
+        serverObserver.disableAutoRequest();
+        AtomicBoolean awaitingReady = new AtomicBoolean(true);
+        serverObserver.setOnReadyHandler(() -> {
+            if (serverObserver.isReady() && awaitingReady.compareAndSet(true, false)) {
+                serverObserver.request(1);
+            }
+        });
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(Q request) {
+                serverObserver.onNext(handler.apply(request));
+                if (serverObserver.isReady()) {
+                    serverObserver.request(1);
+                } else {
+                    // The on-ready handler pulls the next request once the client has read enough responses.
+                    awaitingReady.set(true);
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                // The client cancelled or the connection broke; there is no one left to answer.
+            }
+
+            @Override
+            public void onCompleted() {
+                serverObserver.onCompleted();
+            }
+        };
+    }
+
+    private static ValidVoucher toValidVoucher(WalletEntry entry) {
+        return ValidVoucher.newBuilder()
+                .setCode(entry.getCode())
+                .setOfferName(entry.getOfferName())
+                .build();
+    }
+
+    private static Error toError(ErrorCode errorCode) {
+        return Error.valueOf(errorCode.name());
+    }
+}
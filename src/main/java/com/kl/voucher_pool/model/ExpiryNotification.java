@@ -0,0 +1,44 @@
+package com.kl.voucher_pool.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+
+/**
+ * Records that the recipient of a voucher code was notified of its upcoming expiration.
+ * This class is mapped to the "expiry_notifications" collection in the MongoDB database.
+ *
+ * The id is the voucher code, which is unique. The expiration date lets records of expired
+ * voucher codes be removed.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+@Document(collection = "expiry_notifications")
+public class ExpiryNotification {
+    @Id
+    private String id;
+    private LocalDate expirationDate;
+
+    public ExpiryNotification(String id, LocalDate expirationDate) {
+        this.id = id;
+        this.expirationDate = expirationDate;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public LocalDate getExpirationDate() {
+        return expirationDate;
+    }
+
+    public void setExpirationDate(LocalDate expirationDate) {
+        this.expirationDate = expirationDate;
+    }
+}
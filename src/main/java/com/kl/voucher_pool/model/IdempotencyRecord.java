@@ -0,0 +1,88 @@
+package com.kl.voucher_pool.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Represents a voucher generation request identified by an idempotency key.
+ * This class is mapped to the "idempotency_keys" collection in the MongoDB database,
+ * where records expire through a TTL index on their creation date.
+ *
+ * A record without a voucher code belongs to a request that is still being processed.
+ * Its claimedAt time works as a lease: once it is older than the lease duration, the request
+ * is presumed dead and a retry may take the key over. The claimToken identifies the request
+ * currently holding the claim, so a request that lost it can no longer complete or release the key.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+@Document(collection = "idempotency_keys")
+public class IdempotencyRecord {
+    @Id
+    private String id;
+    private String fingerprint;
+    private VoucherCode voucherCode;
+    private Instant createdAt;
+    private Instant claimedAt;
+    private String claimToken;
+
+    public IdempotencyRecord(String id, String fingerprint, Instant createdAt) {
+        this.id = id;
+        this.fingerprint = fingerprint;
+        this.createdAt = createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public VoucherCode getVoucherCode() {
+        return voucherCode;
+    }
+
+    public void setVoucherCode(VoucherCode voucherCode) {
+        this.voucherCode = voucherCode;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getClaimedAt() {
+        return claimedAt;
+    }
+
+    public void setClaimedAt(Instant claimedAt) {
+        this.claimedAt = claimedAt;
+    }
+
+    public String getClaimToken() {
+        return claimToken;
+    }
+
+    public void setClaimToken(String claimToken) {
+        this.claimToken = claimToken;
+    }
+
+    public boolean isCompleted() {
+        return voucherCode != null;
+    }
+}
@@ -0,0 +1,105 @@
+package com.kl.voucher_pool.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Represents the redemptions of one special offer during one hour, counted per minute.
+ * This class is mapped to the "redemption_rollups" collection in the MongoDB database.
+ *
+ * The id is the special offer id followed by the hour in ISO format, e.g. "6712...:2026-10-19T14:00",
+ * so the rollups of an offer for a range of hours are a range of the _id index.
+ * Minutes without redemptions are left out of the minutes map. The flushes map holds, for every node
+ * that added counts to the rollup, the sequence of its last flush, so a retried flush is not counted twice.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+@Document(collection = "redemption_rollups")
+public class RedemptionRollup {
+    @Id
+    private String id;
+    private String specialOfferId;
+    private LocalDateTime hour;
+    private long total;
+    private Map<String, Long> minutes = new HashMap<>();
+    private Map<String, Long> flushes = new HashMap<>();
+
+    public RedemptionRollup(String specialOfferId, LocalDateTime hour) {
+        this.id = idOf(specialOfferId, hour);
+        this.specialOfferId = specialOfferId;
+        this.hour = hour;
+    }
+
+    public static String idOf(String specialOfferId, LocalDateTime hour) {
+        return specialOfferId + ":" + hour;
+    }
+
+    /**
+     * @return The key of a node in the flushes map; dots and a leading $ cannot be part of a field name
+     */
+    public static String flushKeyOf(String nodeId) {
+        String key = nodeId.replace('.', '_');
+        return key.startsWith("$") ? "_" + key.substring(1) : key;
+    }
+
+    /**
+     * Adds redemptions to a minute of the hour.
+     */
+    public void add(int minute, long count) {
+        minutes.merge(String.valueOf(minute), count, Long::sum);
+        total += count;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getSpecialOfferId() {
+        return specialOfferId;
+    }
+
+    public void setSpecialOfferId(String specialOfferId) {
+        this.specialOfferId = specialOfferId;
+    }
+
+    public LocalDateTime getHour() {
+        return hour;
+    }
+
+    public void setHour(LocalDateTime hour) {
+        this.hour = hour;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public Map<String, Long> getMinutes() {
+        return minutes;
+    }
+
+    public void setMinutes(Map<String, Long> minutes) {
+        this.minutes = minutes;
+    }
+
+    public Map<String, Long> getFlushes() {
+        return flushes;
+    }
+
+    public void setFlushes(Map<String, Long> flushes) {
+        this.flushes = flushes;
+    }
+}
@@ -0,0 +1,82 @@
+package com.kl.voucher_pool.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+
+/**
+ * Represents the progress of a resumable scan over the voucher codes.
+ * This class is mapped to the "scan_checkpoints" collection in the MongoDB database.
+ *
+ * The checkpoint records the day the scan was started for, the last expiration date of its window,
+ * and the position (expiration date and last voucher code id) reached so far.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+@Document(collection = "scan_checkpoints")
+public class ScanCheckpoint {
+    @Id
+    private String id;
+    private LocalDate runDate;
+    private LocalDate windowEnd;
+    private LocalDate expirationDate;
+    private String lastId;
+    private boolean completed;
+
+    public ScanCheckpoint(String id, LocalDate runDate, LocalDate windowEnd, LocalDate expirationDate) {
+        this.id = id;
+        this.runDate = runDate;
+        this.windowEnd = windowEnd;
+        this.expirationDate = expirationDate;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public LocalDate getRunDate() {
+        return runDate;
+    }
+
+    public void setRunDate(LocalDate runDate) {
+        this.runDate = runDate;
+    }
+
+    public LocalDate getWindowEnd() {
+        return windowEnd;
+    }
+
+    public void setWindowEnd(LocalDate windowEnd) {
+        this.windowEnd = windowEnd;
+    }
+
+    public LocalDate getExpirationDate() {
+        return expirationDate;
+    }
+
+    public void setExpirationDate(LocalDate expirationDate) {
+        this.expirationDate = expirationDate;
+    }
+
+    public String getLastId() {
+        return lastId;
+    }
+
+    public void setLastId(String lastId) {
+        this.lastId = lastId;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(boolean completed) {
+        this.completed = completed;
+    }
+}
@@ -0,0 +1,48 @@
+package com.kl.voucher_pool.repository;
+
+import com.kl.voucher_pool.model.IdempotencyRecord;
+import com.kl.voucher_pool.model.VoucherCode;
+
+import java.time.Instant;
+
+/**
+ * Repository fragment with the conditional writes needed to hand an idempotency key from one request to another.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public interface ClaimingIdempotencyRecordRepository {
+
+    /**
+     * Renews the claim of an in-progress record, provided nobody renewed or completed it since it was read.
+     *
+     * @param id The idempotency key
+     * @param staleClaimedAt The claim time read from the record
+     * @param claimedAt The new claim time
+     * @param claimToken The token of the request taking the claim over
+     * @return true if the caller now holds the claim, false if another request got there first
+     */
+    boolean takeOver(String id, Instant staleClaimedAt, Instant claimedAt, String claimToken);
+
+    /**
+     * Stores the voucher code generated for a key, provided the key is still claimed with the given token.
+     * The record is created if it expired or was removed in the meantime.
+     *
+     * @param id The idempotency key
+     * @param claimToken The token the key was claimed with
+     * @param fingerprint Identifies the parameters of the request
+     * @param voucherCode The generated voucher code
+     * @param completedAt The time of completion
+     * @return The record stored under the key: completed by this claim, completed by another claim,
+     *         or still in progress under the claim that took the key over
+     */
+    IdempotencyRecord completeClaim(String id, String claimToken, String fingerprint, VoucherCode voucherCode, Instant completedAt);
+
+    /**
+     * Removes an in-progress record, provided it is still claimed with the given token.
+     *
+     * @param id The idempotency key
+     * @param claimToken The token the key was claimed with
+     */
+    void releaseClaim(String id, String claimToken);
+}
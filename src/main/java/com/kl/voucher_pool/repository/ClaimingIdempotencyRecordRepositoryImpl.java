@@ -0,0 +1,65 @@
+package com.kl.voucher_pool.repository;
+
+import com.kl.voucher_pool.model.IdempotencyRecord;
+import com.kl.voucher_pool.model.VoucherCode;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+
+/**
+ * MongoTemplate based implementation of ClaimingIdempotencyRecordRepository.
+ * All writes are single-document operations conditioned on the record still being in progress,
+ * and completing or releasing also on the record still holding the claim token of the caller.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public class ClaimingIdempotencyRecordRepositoryImpl implements ClaimingIdempotencyRecordRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    public ClaimingIdempotencyRecordRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public boolean takeOver(String id, Instant staleClaimedAt, Instant claimedAt, String claimToken) {
+        Query query = Query.query(Criteria.where("_id").is(id)
+                .and("voucherCode").is(null)
+                .and("claimedAt").is(staleClaimedAt));
+        Update update = Update.update("claimedAt", claimedAt).set("claimToken", claimToken);
+        return mongoTemplate.updateFirst(query, update, IdempotencyRecord.class).getModifiedCount() > 0;
+    }
+
+    /**
+     * Upserts on the in-progress record of the claim. If the key was completed or taken over already,
+     * the upsert collides with that record and it is returned instead.
+     */
+    @Override
+    public IdempotencyRecord completeClaim(String id, String claimToken, String fingerprint, VoucherCode voucherCode,
+                                           Instant completedAt) {
+        Query query = Query.query(Criteria.where("_id").is(id).and("voucherCode").is(null).and("claimToken").is(claimToken));
+        Update update = new Update()
+                .set("fingerprint", fingerprint)
+                .set("voucherCode", voucherCode)
+                .set("createdAt", completedAt)
+                .unset("claimedAt");
+        try {
+            return mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), IdempotencyRecord.class);
+        } catch (DuplicateKeyException e) {
+            return mongoTemplate.findById(id, IdempotencyRecord.class);
+        }
+    }
+
+    @Override
+    public void releaseClaim(String id, String claimToken) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(id).and("voucherCode").is(null).and("claimToken").is(claimToken)),
+                IdempotencyRecord.class);
+    }
+}
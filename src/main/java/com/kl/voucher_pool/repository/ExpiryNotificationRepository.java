@@ -0,0 +1,22 @@
+package com.kl.voucher_pool.repository;
+
+import com.kl.voucher_pool.model.ExpiryNotification;
+
+import java.time.LocalDate;
+
+/**
+ * Repository interface for managing ExpiryNotification entities.
+ * This interface extends StoreRepository to provide CRUD operations for ExpiryNotification objects.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public interface ExpiryNotificationRepository extends StoreRepository<ExpiryNotification> {
+
+    /**
+     * Removes the notifications of voucher codes that expired before the given date.
+     *
+     * @param date The first expiration date to keep
+     */
+    void deleteByExpirationDateBefore(LocalDate date);
+}
@@ -0,0 +1,13 @@
+package com.kl.voucher_pool.repository;
+
+import com.kl.voucher_pool.model.IdempotencyRecord;
+/**
+ * Repository interface for managing IdempotencyRecord entities.
+ * This interface extends StoreRepository to provide CRUD operations for IdempotencyRecord objects.
+ * Taking over and completing claims is done by ClaimingIdempotencyRecordRepository.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public interface IdempotencyRecordRepository extends StoreRepository<IdempotencyRecord>, ClaimingIdempotencyRecordRepository {
+}
@@ -0,0 +1,37 @@
+package com.kl.voucher_pool.repository;
+
+import com.kl.voucher_pool.model.RedemptionRollup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository fragment adding counts to redemption rollups in place and reading ranges of them.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public interface IncrementalRedemptionRollupRepository {
+
+    /**
+     * Adds the counts of each increment to the stored rollup of its offer and hour, creating the rollup if needed.
+     * The flush sequence of the node is stored with the counts, and an increment is skipped when its rollup
+     * already holds that sequence or a later one, so a flush whose outcome is unknown can be sent again.
+     * Errors other than failed writes of single increments are thrown, and then any of the increments may
+     * have been applied.
+     *
+     * @param increments Rollups holding the counts to add
+     * @param nodeId The node the counts were recorded by
+     * @param flushSequence The sequence of this flush, higher than the ones of the earlier flushes of the node
+     * @return The increments not known to be applied, to be sent again with the same flush sequence
+     */
+    List<RedemptionRollup> increment(List<RedemptionRollup> increments, String nodeId, long flushSequence);
+
+    /**
+     * @param specialOfferId The id of the special offer
+     * @param fromHour The first hour of the range
+     * @param toHour The hour after the last hour of the range
+     * @return The stored rollups of the offer in the range, ordered by hour
+     */
+    List<RedemptionRollup> findHourlyRollups(String specialOfferId, LocalDateTime fromHour, LocalDateTime toHour);
+}
@@ -0,0 +1,118 @@
+package com.kl.voucher_pool.repository;
+
+import com.kl.voucher_pool.model.RedemptionRollup;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * MongoTemplate based implementation of IncrementalRedemptionRollupRepository.
+ *
+ * Increments are sent as one unordered bulk write of $inc upserts, one per offer and hour, so flushing
+ * a minute of redemptions costs a single round trip however many codes were redeemed. Each upsert only
+ * matches a rollup without a later flush of the node. Against a rollup that already holds the flush, it
+ * tries to insert a new one and fails on the _id; such failures are told apart from lost races with other
+ * nodes by reading the flush sequences back. Ranges are read with the read preference configured for
+ * "RedemptionRollupRepository.findHourlyRollups".
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public class IncrementalRedemptionRollupRepositoryImpl implements IncrementalRedemptionRollupRepository {
+
+    private static final String FIND_HOURLY_ROLLUPS = "RedemptionRollupRepository.findHourlyRollups";
+
+    private final MongoTemplate mongoTemplate;
+    private final ReadPreferenceRouter readPreferenceRouter;
+
+    public IncrementalRedemptionRollupRepositoryImpl(MongoTemplate mongoTemplate, ReadPreferenceRouter readPreferenceRouter) {
+        this.mongoTemplate = mongoTemplate;
+        this.readPreferenceRouter = readPreferenceRouter;
+    }
+
+    @Override
+    public List<RedemptionRollup> increment(List<RedemptionRollup> increments, String nodeId, long flushSequence) {
+        if (increments.isEmpty()) {
+            return List.of();
+        }
+        String flushField = "flushes." + RedemptionRollup.flushKeyOf(nodeId);
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RedemptionRollup.class);
+        for (RedemptionRollup increment : increments) {
+            Update update = new Update()
+                    .setOnInsert("specialOfferId", increment.getSpecialOfferId())
+                    .setOnInsert("hour", increment.getHour())
+                    .set(flushField, flushSequence)
+                    .inc("total", increment.getTotal());
+            for (Map.Entry<String, Long> minute : increment.getMinutes().entrySet()) {
+                update.inc("minutes." + minute.getKey(), minute.getValue());
+            }
+            bulk.upsert(Query.query(Criteria.where("_id").is(increment.getId()).and(flushField).not().gte(flushSequence)), update);
+        }
+        try {
+            bulk.execute();
+            return List.of();
+        } catch (BulkOperationException e) {
+            if (e.getCause() instanceof MongoBulkWriteException bulkWrite && bulkWrite.getWriteConcernError() != null) {
+                // Not acknowledged as configured: any of the writes may have been applied or rolled back.
+                return increments;
+            }
+            List<RedemptionRollup> failed = new ArrayList<>();
+            List<String> duplicateIds = new ArrayList<>();
+            for (BulkWriteError error : e.getErrors()) {
+                RedemptionRollup increment = increments.get(error.getIndex());
+                if (ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY) {
+                    duplicateIds.add(increment.getId());
+                }
+                failed.add(increment);
+            }
+            return notYetApplied(failed, duplicateIds, flushField, flushSequence);
+        }
+    }
+
+    /**
+     * Drops the failed increments whose rollup turns out to hold the flush already.
+     */
+    private List<RedemptionRollup> notYetApplied(List<RedemptionRollup> failed, List<String> duplicateIds,
+                                                 String flushField, long flushSequence) {
+        if (duplicateIds.isEmpty()) {
+            return failed;
+        }
+        Query query = Query.query(Criteria.where("_id").in(duplicateIds).and(flushField).gte(flushSequence));
+        query.fields().include("_id");
+        Set<String> applied = new HashSet<>();
+        for (RedemptionRollup rollup : mongoTemplate.find(query, RedemptionRollup.class)) {
+            applied.add(rollup.getId());
+        }
+        List<RedemptionRollup> notApplied = new ArrayList<>(failed.size());
+        for (RedemptionRollup increment : failed) {
+            if (!applied.contains(increment.getId())) {
+                notApplied.add(increment);
+            }
+        }
+        return notApplied;
+    }
+
+    @Override
+    public List<RedemptionRollup> findHourlyRollups(String specialOfferId, LocalDateTime fromHour, LocalDateTime toHour) {
+        Query query = Query.query(Criteria.where("_id")
+                        .gte(RedemptionRollup.idOf(specialOfferId, fromHour))
+                        .lt(RedemptionRollup.idOf(specialOfferId, toHour)))
+                .with(Sort.by("_id"))
+                .withReadPreference(readPreferenceRouter.forMethod(FIND_HOURLY_ROLLUPS));
+        return mongoTemplate.find(query, RedemptionRollup.class);
+    }
+}
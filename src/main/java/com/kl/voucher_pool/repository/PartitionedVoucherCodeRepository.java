@@ -0,0 +1,70 @@
+package com.kl.voucher_pool.repository;
+
+import com.kl.voucher_pool.model.VoucherCode;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository fragment routing voucher code reads and writes to the partition collections
+ * chosen by the configured VoucherCodePartitionStrategy.
+ *
+ * The methods declared here take precedence over the derived queries and the default
+ * save of VoucherCodeRepository, so callers stay unaware of the partitioning.
+ * The id based CRUD methods are declared here as well, since the inherited ones would only
+ * look in the "voucher_codes" collection. An id carries no partition, so they search every partition.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public interface PartitionedVoucherCodeRepository {
+    Optional<VoucherCode> findByCode(String code);
+    List<VoucherCode> findByRecipientIdAndExpirationDateAfterAndUsageDateIsNull(String recipientId, LocalDate currentDate);
+    <S extends VoucherCode> S save(S voucherCode);
+    Optional<VoucherCode> findById(String id);
+    boolean existsById(String id);
+    List<VoucherCode> findAll();
+    long count();
+    void deleteById(String id);
+    void deleteAll();
+
+    /**
+     * Looks up a voucher code for redemption, fetching only the id, recipientId, specialOfferId,
+     * expirationDate and usageDate of the document. The code is set from the argument.
+     *
+     * @param code The voucher code
+     * @return The voucher code with the fields needed to validate it, or empty if there is none
+     */
+    Optional<VoucherCode> findRedemptionStateByCode(String code);
+
+    /**
+     * Lists the unused voucher codes of a recipient expiring after the given date,
+     * fetching only their code and specialOfferId.
+     *
+     * @param recipientId The id of the recipient
+     * @param currentDate The date the voucher codes must expire after
+     * @return The voucher codes with only their code and special offer id set
+     */
+    List<VoucherCode> findWalletEntriesByRecipientId(String recipientId, LocalDate currentDate);
+
+    /**
+     * Returns unused voucher codes expiring on the given date, in id order, starting after the given id.
+     *
+     * @param expirationDate The expiration date to look for
+     * @param afterId The id of the last voucher code already seen, or null to start from the beginning
+     * @param limit The maximum number of voucher codes to return
+     * @return The next voucher codes expiring on the date
+     */
+    List<VoucherCode> findUnusedByExpirationDate(LocalDate expirationDate, String afterId, int limit);
+
+    /**
+     * Marks a voucher code as used, provided it has not been used yet.
+     *
+     * @param voucherCode The voucher code to mark
+     * @param usageDate The date and time of the redemption
+     * @return true if the voucher code was marked, false if a concurrent redemption marked it first
+     */
+    boolean markUsed(VoucherCode voucherCode, LocalDateTime usageDate);
+}
@@ -0,0 +1,262 @@
+package com.kl.voucher_pool.repository;
+
+import com.kl.voucher_pool.model.VoucherCode;
+import com.kl.voucher_pool.repository.codec.ModelCodecs;
+import com.kl.voucher_pool.repository.partition.VoucherCodeCollectionPreparer;
+import com.kl.voucher_pool.repository.partition.VoucherCodePartitionStrategy;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * MongoTemplate based implementation of PartitionedVoucherCodeRepository.
+ *
+ * While existing documents are still being migrated out of the "voucher_codes" collection,
+ * the legacy fallback makes reads look in that collection as well.
+ *
+ * Reads go through the driver with the hand-written codecs of ModelCodecs instead of
+ * MappingMongoConverter; writes still use MongoTemplate.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public class PartitionedVoucherCodeRepositoryImpl implements PartitionedVoucherCodeRepository {
+
+    private static final String FIND_BY_CODE = "VoucherCodeRepository.findByCode";
+    private static final String FIND_VALID_BY_RECIPIENT = "VoucherCodeRepository.findByRecipientIdAndExpirationDateAfterAndUsageDateIsNull";
+    private static final String FIND_UNUSED_BY_EXPIRATION_DATE = "VoucherCodeRepository.findUnusedByExpirationDate";
+    private static final String FIND_BY_ID = "VoucherCodeRepository.findById";
+    private static final String FIND_ALL = "VoucherCodeRepository.findAll";
+
+    private static final Bson REDEMPTION_FIELDS = Projections.include("recipientId", "specialOfferId", "expirationDate", "usageDate");
+    private static final Bson WALLET_FIELDS = Projections.fields(Projections.include("code", "specialOfferId"), Projections.excludeId());
+
+    private final MongoTemplate mongoTemplate;
+    private final ReadPreferenceRouter readPreferenceRouter;
+    private final VoucherCodePartitionStrategy partitionStrategy;
+    private final VoucherCodeCollectionPreparer collectionPreparer;
+    private final boolean legacyFallback;
+
+    public PartitionedVoucherCodeRepositoryImpl(MongoTemplate mongoTemplate,
+                                                ReadPreferenceRouter readPreferenceRouter,
+                                                VoucherCodePartitionStrategy partitionStrategy,
+                                                VoucherCodeCollectionPreparer collectionPreparer,
+                                                @Value("${voucher.partitioning.legacy-fallback:false}") boolean legacyFallback) {
+        this.mongoTemplate = mongoTemplate;
+        this.readPreferenceRouter = readPreferenceRouter;
+        this.partitionStrategy = partitionStrategy;
+        this.collectionPreparer = collectionPreparer;
+        this.legacyFallback = legacyFallback;
+    }
+
+    @Override
+    public Optional<VoucherCode> findByCode(String code) {
+        return findOneByCode(code, null);
+    }
+
+    @Override
+    public Optional<VoucherCode> findRedemptionStateByCode(String code) {
+        Optional<VoucherCode> voucherCode = findOneByCode(code, REDEMPTION_FIELDS);
+        voucherCode.ifPresent(found -> found.setCode(code));
+        return voucherCode;
+    }
+
+    @Override
+    public List<VoucherCode> findByRecipientIdAndExpirationDateAfterAndUsageDateIsNull(String recipientId, LocalDate currentDate) {
+        return findValidByRecipient(recipientId, currentDate, null);
+    }
+
+    @Override
+    public List<VoucherCode> findWalletEntriesByRecipientId(String recipientId, LocalDate currentDate) {
+        return findValidByRecipient(recipientId, currentDate, WALLET_FIELDS);
+    }
+
+    /**
+     * Records the route of the code before writing the document, so that a code taken in another partition
+     * is rejected before anything is stored. While the legacy fallback is enabled, a document that has not
+     * been migrated yet is replaced in "voucher_codes" instead of being copied into its partition.
+     */
+    @Override
+    public <S extends VoucherCode> S save(S voucherCode) {
+        String collection = partitionStrategy.collectionFor(voucherCode);
+        if (voucherCode.getId() != null && legacyFallback && !collection.equals(VoucherCodePartitionStrategy.BASE_COLLECTION)
+                && mongoTemplate.findAndReplace(Query.query(Criteria.where("_id").is(voucherCode.getId())), voucherCode,
+                        VoucherCodePartitionStrategy.BASE_COLLECTION) != null) {
+            return voucherCode;
+        }
+        collectionPreparer.prepare(collection);
+        partitionStrategy.register(voucherCode);
+        return mongoTemplate.save(voucherCode, collection);
+    }
+
+    @Override
+    public Optional<VoucherCode> findById(String id) {
+        ReadPreference readPreference = readPreferenceRouter.forMethod(FIND_BY_ID);
+        for (String collection : withLegacyFallback(partitionStrategy.collections())) {
+            VoucherCode voucherCode = collection(collection, readPreference).find(idFilter(id)).first();
+            if (voucherCode != null) {
+                return Optional.of(voucherCode);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return findById(id).isPresent();
+    }
+
+    /**
+     * A document being migrated can briefly exist in both its source and target collection,
+     * so the result is deduplicated by id.
+     */
+    @Override
+    public List<VoucherCode> findAll() {
+        ReadPreference readPreference = readPreferenceRouter.forMethod(FIND_ALL);
+        Map<String, VoucherCode> byId = new LinkedHashMap<>();
+        for (String collection : withLegacyFallback(partitionStrategy.collections())) {
+            for (VoucherCode voucherCode : collection(collection, readPreference).find()) {
+                byId.putIfAbsent(voucherCode.getId(), voucherCode);
+            }
+        }
+        return new ArrayList<>(byId.values());
+    }
+
+    /**
+     * Sums the document counts of the partitions. A document caught mid-migration is counted twice.
+     */
+    @Override
+    public long count() {
+        long count = 0;
+        for (String collection : withLegacyFallback(partitionStrategy.collections())) {
+            count += mongoTemplate.getCollection(collection).countDocuments();
+        }
+        return count;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        for (String collection : withLegacyFallback(partitionStrategy.collections())) {
+            mongoTemplate.getCollection(collection).deleteOne(idFilter(id));
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        for (String collection : withLegacyFallback(partitionStrategy.collections())) {
+            mongoTemplate.getCollection(collection).deleteMany(Filters.empty());
+        }
+    }
+
+    /**
+     * Served by the (expirationDate, usageDate, _id) index of each partition. Every partition returns
+     * up to the limit in id order and the merged result is cut back to the limit, which keeps the
+     * id based paging correct across partitions.
+     */
+    @Override
+    public List<VoucherCode> findUnusedByExpirationDate(LocalDate expirationDate, String afterId, int limit) {
+        Bson filter = Filters.and(
+                Filters.eq("expirationDate", ModelCodecs.storedDate(expirationDate)),
+                Filters.eq("usageDate", null));
+        if (afterId != null) {
+            filter = Filters.and(filter, Filters.gt("_id", ModelCodecs.storedId(afterId)));
+        }
+        ReadPreference readPreference = readPreferenceRouter.forMethod(FIND_UNUSED_BY_EXPIRATION_DATE);
+        List<VoucherCode> voucherCodes = new ArrayList<>();
+        for (String collection : withLegacyFallback(partitionStrategy.collections())) {
+            collection(collection, readPreference).find(filter)
+                    .sort(Sorts.ascending("_id"))
+                    .limit(limit)
+                    .into(voucherCodes);
+        }
+        voucherCodes.sort(Comparator.comparing(VoucherCode::getId));
+        return voucherCodes.size() > limit ? new ArrayList<>(voucherCodes.subList(0, limit)) : voucherCodes;
+    }
+
+    /**
+     * The usageDate condition makes the update a compare-and-set, so of two concurrent redemptions
+     * of the same code only one modifies the document.
+     */
+    @Override
+    public boolean markUsed(VoucherCode voucherCode, LocalDateTime usageDate) {
+        Query query = Query.query(Criteria.where("_id").is(voucherCode.getId()).and("usageDate").is(null));
+        Update update = Update.update("usageDate", usageDate);
+        for (String collection : withLegacyFallback(List.of(partitionStrategy.collectionFor(voucherCode)))) {
+            if (mongoTemplate.updateFirst(query, update, VoucherCode.class, collection).getModifiedCount() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Optional<VoucherCode> findOneByCode(String code, Bson projection) {
+        ReadPreference readPreference = readPreferenceRouter.forMethod(FIND_BY_CODE);
+        for (String collection : collectionsForCode(code)) {
+            VoucherCode voucherCode = collection(collection, readPreference).find(Filters.eq("code", code))
+                    .projection(projection)
+                    .first();
+            if (voucherCode != null) {
+                return Optional.of(voucherCode);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private List<VoucherCode> findValidByRecipient(String recipientId, LocalDate currentDate, Bson projection) {
+        Bson filter = Filters.and(
+                Filters.eq("recipientId", recipientId),
+                Filters.gt("expirationDate", ModelCodecs.storedDate(currentDate)),
+                Filters.eq("usageDate", null));
+        ReadPreference readPreference = readPreferenceRouter.forMethod(FIND_VALID_BY_RECIPIENT);
+        List<VoucherCode> voucherCodes = new ArrayList<>();
+        for (String collection : withLegacyFallback(partitionStrategy.collections())) {
+            collection(collection, readPreference).find(filter).projection(projection).into(voucherCodes);
+        }
+        return voucherCodes;
+    }
+
+    private MongoCollection<VoucherCode> collection(String name, ReadPreference readPreference) {
+        return mongoTemplate.getCollection(name)
+                .withCodecRegistry(ModelCodecs.REGISTRY)
+                .withDocumentClass(VoucherCode.class)
+                .withReadPreference(readPreference);
+    }
+
+    /**
+     * Codes not migrated yet are still in "voucher_codes", so while the legacy fallback is enabled
+     * a miss in the partition of the code goes on to search that collection, and only that one.
+     */
+    private List<String> collectionsForCode(String code) {
+        return withLegacyFallback(partitionStrategy.collectionsForCode(code));
+    }
+
+    private static Bson idFilter(String id) {
+        return Filters.eq("_id", ModelCodecs.storedId(id));
+    }
+
+    private List<String> withLegacyFallback(List<String> collections) {
+        if (!legacyFallback || collections.contains(VoucherCodePartitionStrategy.BASE_COLLECTION)) {
+            return collections;
+        }
+        List<String> withBase = new ArrayList<>(collections);
+        withBase.add(VoucherCodePartitionStrategy.BASE_COLLECTION);
+        return withBase;
+    }
+}
@@ -0,0 +1,58 @@
+package com.kl.voucher_pool.repository;
+
+import com.mongodb.ReadPreference;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves the MongoDB read preference of individual repository methods.
+ *
+ * Each method is identified by "RepositoryName.methodName" and configured with
+ * "voucher.read-preference.{RepositoryName}.{methodName}", falling back to "voucher.read-preference.default".
+ * Non-primary modes are bounded by "voucher.read-preference.max-staleness", so a lagging secondary
+ * is never used to answer a query.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+@Component
+public class ReadPreferenceRouter {
+
+    private static final String PROPERTY_PREFIX = "voucher.read-preference.";
+
+    private final Environment environment;
+    private final String defaultMode;
+    private final Duration maxStaleness;
+    private final Map<String, ReadPreference> readPreferences = new ConcurrentHashMap<>();
+
+    public ReadPreferenceRouter(Environment environment) {
+        this.environment = environment;
+        this.defaultMode = environment.getProperty(PROPERTY_PREFIX + "default", "primary");
+        this.maxStaleness = DurationStyle.detectAndParse(environment.getProperty(PROPERTY_PREFIX + "max-staleness", "90s"));
+    }
+
+    /**
+     * Returns the read preference configured for a repository method.
+     *
+     * @param methodKey The method, as "RepositoryName.methodName"
+     * @return The read preference to use for the method
+     */
+    public ReadPreference forMethod(String methodKey) {
+        return readPreferences.computeIfAbsent(methodKey, key ->
+                toReadPreference(environment.getProperty(PROPERTY_PREFIX + key, defaultMode)));
+    }
+
+    private ReadPreference toReadPreference(String mode) {
+        if ("primary".equals(mode)) {
+            return ReadPreference.primary();
+        }
+        return ReadPreference.valueOf(mode, List.of(), maxStaleness.toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
@@ -2,17 +2,17 @@ package com.kl.voucher_pool.repository;
 
 import com.kl.voucher_pool.model.Recipient;
 
-import org.springframework.data.mongodb.repository.MongoRepository;
-
 import java.util.Optional;
 
 /**
  * Repository interface for managing Recipient entities.
- * This interface extends MongoRepository to provide CRUD operations for Recipient objects.
+ * This interface extends StoreRepository to provide CRUD operations for Recipient objects.
+ * Lookups by email and id are served by RoutedRecipientRepository with their configured read preference.
  *
  * @author [Kuok Lim Goh]
  * @since [2024-10-21]
  */
-public interface RecipientRepository extends MongoRepository<Recipient, String> {
-    Optional<Recipient> findByEmail(String email);
+public interface RecipientRepository extends StoreRepository<Recipient>, RoutedRecipientRepository {
+    @Override
+    Optional<Recipient> findById(String id);
 }
@@ -0,0 +1,12 @@
+package com.kl.voucher_pool.repository;
+
+import com.kl.voucher_pool.model.RedemptionRollup;
+/**
+ * Repository interface for managing RedemptionRollup entities.
+ * Counts are added with the $inc upserts of IncrementalRedemptionRollupRepository rather than by saving rollups.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public interface RedemptionRollupRepository extends StoreRepository<RedemptionRollup>, IncrementalRedemptionRollupRepository {
+}
@@ -0,0 +1,30 @@
+package com.kl.voucher_pool.repository;
+
+import com.kl.voucher_pool.model.Recipient;
+
+import java.util.Optional;
+
+/**
+ * Repository fragment running recipient lookups with the read preference
+ * configured for them in ReadPreferenceRouter.
+ *
+ * The read preference is configured per method, so lookups that serve different call sites
+ * get their own methods: findByEmail feeds voucher generation and findById feeds redemption,
+ * so both must see recipients created a moment ago, while the wallet listing can tolerate
+ * a lagging secondary.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public interface RoutedRecipientRepository {
+    Optional<Recipient> findByEmail(String email);
+    Optional<Recipient> findById(String id);
+
+    /**
+     * Looks up the recipient whose wallet is being listed.
+     *
+     * @param email The email of the recipient
+     * @return The recipient, or empty if there is none
+     */
+    Optional<Recipient> findWalletOwnerByEmail(String email);
+}
@@ -0,0 +1,56 @@
+package com.kl.voucher_pool.repository;
+
+import com.kl.voucher_pool.model.Recipient;
+import com.kl.voucher_pool.repository.codec.ModelCodecs;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.model.Filters;
+import org.bson.conversions.Bson;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Optional;
+
+/**
+ * MongoTemplate based implementation of RoutedRecipientRepository.
+ * Documents are decoded with the RecipientCodec instead of MappingMongoConverter.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public class RoutedRecipientRepositoryImpl implements RoutedRecipientRepository {
+
+    private static final String FIND_BY_EMAIL = "RecipientRepository.findByEmail";
+    private static final String FIND_BY_ID = "RecipientRepository.findById";
+    private static final String FIND_WALLET_OWNER_BY_EMAIL = "RecipientRepository.findWalletOwnerByEmail";
+
+    private final MongoTemplate mongoTemplate;
+    private final ReadPreferenceRouter readPreferenceRouter;
+
+    public RoutedRecipientRepositoryImpl(MongoTemplate mongoTemplate, ReadPreferenceRouter readPreferenceRouter) {
+        this.mongoTemplate = mongoTemplate;
+        this.readPreferenceRouter = readPreferenceRouter;
+    }
+
+    @Override
+    public Optional<Recipient> findByEmail(String email) {
+        return findOne(Filters.eq("email", email), readPreferenceRouter.forMethod(FIND_BY_EMAIL));
+    }
+
+    @Override
+    public Optional<Recipient> findById(String id) {
+        return findOne(Filters.eq("_id", ModelCodecs.storedId(id)), readPreferenceRouter.forMethod(FIND_BY_ID));
+    }
+
+    @Override
+    public Optional<Recipient> findWalletOwnerByEmail(String email) {
+        return findOne(Filters.eq("email", email), readPreferenceRouter.forMethod(FIND_WALLET_OWNER_BY_EMAIL));
+    }
+
+    private Optional<Recipient> findOne(Bson filter, ReadPreference readPreference) {
+        return Optional.ofNullable(mongoTemplate.getCollection(mongoTemplate.getCollectionName(Recipient.class))
+                .withCodecRegistry(ModelCodecs.REGISTRY)
+                .withDocumentClass(Recipient.class)
+                .withReadPreference(readPreference)
+                .find(filter)
+                .first());
+    }
+}
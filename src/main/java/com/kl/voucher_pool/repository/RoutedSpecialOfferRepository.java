@@ -0,0 +1,29 @@
+package com.kl.voucher_pool.repository;
+
+import com.kl.voucher_pool.model.SpecialOffer;
+
+import java.util.Optional;
+
+/**
+ * Repository fragment running special offer lookups with the read preference
+ * configured for them in ReadPreferenceRouter.
+ *
+ * findByName feeds voucher generation and findById feeds redemption and discount updates,
+ * so both must see offers created a moment ago. The redemption dashboard has its own lookup
+ * that may be served by a secondary.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public interface RoutedSpecialOfferRepository {
+    Optional<SpecialOffer> findByName(String name);
+    Optional<SpecialOffer> findById(String id);
+
+    /**
+     * Looks up the special offer shown on the redemption dashboard.
+     *
+     * @param name The name of the special offer
+     * @return The special offer, or empty if there is none
+     */
+    Optional<SpecialOffer> findDashboardOfferByName(String name);
+}
@@ -0,0 +1,70 @@
+package com.kl.voucher_pool.repository;
+
+import com.kl.voucher_pool.cache.SpecialOfferCache;
+import com.kl.voucher_pool.model.SpecialOffer;
+import com.kl.voucher_pool.repository.codec.ModelCodecs;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.model.Filters;
+import org.bson.conversions.Bson;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Optional;
+
+/**
+ * MongoTemplate based implementation of RoutedSpecialOfferRepository.
+ * Lookups by id go through the SpecialOfferCache.
+ * Documents are decoded with the SpecialOfferCodec instead of MappingMongoConverter.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public class RoutedSpecialOfferRepositoryImpl implements RoutedSpecialOfferRepository {
+
+    private static final String FIND_BY_NAME = "SpecialOfferRepository.findByName";
+    private static final String FIND_BY_ID = "SpecialOfferRepository.findById";
+    private static final String FIND_DASHBOARD_OFFER_BY_NAME = "SpecialOfferRepository.findDashboardOfferByName";
+
+    private final MongoTemplate mongoTemplate;
+    private final ReadPreferenceRouter readPreferenceRouter;
+    private final SpecialOfferCache specialOfferCache;
+
+    public RoutedSpecialOfferRepositoryImpl(MongoTemplate mongoTemplate,
+                                            ReadPreferenceRouter readPreferenceRouter,
+                                            SpecialOfferCache specialOfferCache) {
+        this.mongoTemplate = mongoTemplate;
+        this.readPreferenceRouter = readPreferenceRouter;
+        this.specialOfferCache = specialOfferCache;
+    }
+
+    @Override
+    public Optional<SpecialOffer> findByName(String name) {
+        return findOne(Filters.eq("name", name), readPreferenceRouter.forMethod(FIND_BY_NAME));
+    }
+
+    @Override
+    public Optional<SpecialOffer> findById(String id) {
+        // Cached offers are only evicted by change events, so a miss must not be answered by a lagging secondary.
+        ReadPreference readPreference = specialOfferCache.isEnabled()
+                ? ReadPreference.primary()
+                : readPreferenceRouter.forMethod(FIND_BY_ID);
+        return specialOfferCache.get(id, offerId -> loadById(offerId, readPreference));
+    }
+
+    @Override
+    public Optional<SpecialOffer> findDashboardOfferByName(String name) {
+        return findOne(Filters.eq("name", name), readPreferenceRouter.forMethod(FIND_DASHBOARD_OFFER_BY_NAME));
+    }
+
+    private Optional<SpecialOffer> loadById(String id, ReadPreference readPreference) {
+        return findOne(Filters.eq("_id", ModelCodecs.storedId(id)), readPreference);
+    }
+
+    private Optional<SpecialOffer> findOne(Bson filter, ReadPreference readPreference) {
+        return Optional.ofNullable(mongoTemplate.getCollection(mongoTemplate.getCollectionName(SpecialOffer.class))
+                .withCodecRegistry(ModelCodecs.REGISTRY)
+                .withDocumentClass(SpecialOffer.class)
+                .withReadPreference(readPreference)
+                .find(filter)
+                .first());
+    }
+}
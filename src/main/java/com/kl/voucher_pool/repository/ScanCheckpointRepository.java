@@ -0,0 +1,12 @@
+package com.kl.voucher_pool.repository;
+
+import com.kl.voucher_pool.model.ScanCheckpoint;
+/**
+ * Repository interface for managing ScanCheckpoint entities.
+ * This interface extends StoreRepository to provide CRUD operations for ScanCheckpoint objects.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public interface ScanCheckpointRepository extends StoreRepository<ScanCheckpoint> {
+}
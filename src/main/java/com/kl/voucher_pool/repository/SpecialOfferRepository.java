@@ -4,15 +4,15 @@ import com.kl.voucher_pool.model.SpecialOffer;
 
 import java.util.Optional;
 
-import org.springframework.data.mongodb.repository.MongoRepository;
-
 /**
  * Repository interface for managing SpecialOffer entities.
- * This interface extends MongoRepository to provide CRUD operations for SpecialOffer objects.
+ * This interface extends StoreRepository to provide CRUD operations for SpecialOffer objects.
+ * Lookups by name and id are served by RoutedSpecialOfferRepository with their configured read preference.
  *
  * @author [Kuok Lim Goh]
  * @since [2024-10-21]
  */
-public interface SpecialOfferRepository extends MongoRepository<SpecialOffer, String> {
-    Optional<SpecialOffer> findByName(String name);
+public interface SpecialOfferRepository extends StoreRepository<SpecialOffer>, RoutedSpecialOfferRepository {
+    @Override
+    Optional<SpecialOffer> findById(String id);
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.kl.voucher_pool.repository;
+
+import org.springframework.data.repository.ListCrudRepository;
+import org.springframework.data.repository.ListPagingAndSortingRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.util.List;
+
+/**
+ * Base interface of the repositories that both storage backends implement.
+ *
+ * Offers the CRUD, paging, sorting and insert operations of MongoRepository, which implements them
+ * for MongoDB, but leaves out query by example, which the embedded store cannot answer.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+@NoRepositoryBean
+public interface StoreRepository<T> extends ListCrudRepository<T, String>, ListPagingAndSortingRepository<T, String> {
+
+    /**
+     * Inserts an entity, failing with a DuplicateKeyException if its id is already stored.
+     */
+    <S extends T> S insert(S entity);
+
+    <S extends T> List<S> insert(Iterable<S> entities);
+}
@@ -0,0 +1,129 @@
+package com.kl.voucher_pool.repository.codec;
+
+import com.mongodb.MongoClientSettings;
+import org.bson.BsonInvalidOperationException;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.types.ObjectId;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Codec registry of the model classes, and the value conversions shared by their codecs.
+ *
+ * The codecs read and write the same documents as Spring Data's MappingMongoConverter:
+ * String ids that are valid ObjectIds are stored as ObjectIds, dates are stored as BSON dates
+ * in the system default time zone, null properties are left out and a "_class" field is written.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public final class ModelCodecs {
+
+    public static final CodecRegistry REGISTRY = CodecRegistries.fromRegistries(
+            CodecRegistries.fromCodecs(new VoucherCodeCodec(), new RecipientCodec(), new SpecialOfferCodec()),
+            MongoClientSettings.getDefaultCodecRegistry());
+
+    private ModelCodecs() {
+    }
+
+    /**
+     * @return The id as it is stored in the _id field, for use in filters
+     */
+    public static Object storedId(String id) {
+        return id != null && ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    /**
+     * @return The date as it is stored in a LocalDate field, for use in filters
+     */
+    public static Date storedDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    static String readId(BsonReader reader) {
+        switch (reader.getCurrentBsonType()) {
+            case OBJECT_ID:
+                return reader.readObjectId().toHexString();
+            case STRING:
+                return reader.readString();
+            default:
+                reader.skipValue();
+                return null;
+        }
+    }
+
+    static void writeId(BsonWriter writer, String id) {
+        if (id == null) {
+            return;
+        }
+        if (ObjectId.isValid(id)) {
+            writer.writeObjectId("_id", new ObjectId(id));
+        } else {
+            writer.writeString("_id", id);
+        }
+    }
+
+    static String readString(BsonReader reader) {
+        if (reader.getCurrentBsonType() != BsonType.STRING) {
+            reader.skipValue();
+            return null;
+        }
+        return reader.readString();
+    }
+
+    static void writeString(BsonWriter writer, String name, String value) {
+        if (value != null) {
+            writer.writeString(name, value);
+        }
+    }
+
+    static double readDouble(BsonReader reader) {
+        switch (reader.getCurrentBsonType()) {
+            case DOUBLE:
+                return reader.readDouble();
+            case INT32:
+                return reader.readInt32();
+            case INT64:
+                return reader.readInt64();
+            case DECIMAL128:
+                return reader.readDecimal128().doubleValue();
+            default:
+                // Decoding a value of another type as 0 would silently turn a discount off.
+                throw new BsonInvalidOperationException("Expected a number for " + reader.getCurrentName()
+                        + " but found " + reader.getCurrentBsonType());
+        }
+    }
+
+    static LocalDate readLocalDate(BsonReader reader) {
+        LocalDateTime dateTime = readLocalDateTime(reader);
+        return dateTime == null ? null : dateTime.toLocalDate();
+    }
+
+    static LocalDateTime readLocalDateTime(BsonReader reader) {
+        if (reader.getCurrentBsonType() != BsonType.DATE_TIME) {
+            reader.skipValue();
+            return null;
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(reader.readDateTime()), ZoneId.systemDefault());
+    }
+
+    static void writeLocalDate(BsonWriter writer, String name, LocalDate value) {
+        if (value != null) {
+            writer.writeDateTime(name, value.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+    }
+
+    static void writeLocalDateTime(BsonWriter writer, String name, LocalDateTime value) {
+        if (value != null) {
+            writer.writeDateTime(name, value.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+    }
+}
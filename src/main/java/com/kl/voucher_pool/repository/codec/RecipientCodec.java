@@ -0,0 +1,62 @@
+package com.kl.voucher_pool.repository.codec;
+
+import com.kl.voucher_pool.model.Recipient;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/**
+ * Hand-written codec of Recipient documents.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public class RecipientCodec implements Codec<Recipient> {
+
+    @Override
+    public Recipient decode(BsonReader reader, DecoderContext decoderContext) {
+        String id = null;
+        String name = null;
+        String email = null;
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "_id":
+                    id = ModelCodecs.readId(reader);
+                    break;
+                case "name":
+                    name = ModelCodecs.readString(reader);
+                    break;
+                case "email":
+                    email = ModelCodecs.readString(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+
+        Recipient recipient = new Recipient(email, name);
+        recipient.setId(id);
+        return recipient;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, Recipient recipient, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        ModelCodecs.writeId(writer, recipient.getId());
+        ModelCodecs.writeString(writer, "name", recipient.getName());
+        ModelCodecs.writeString(writer, "email", recipient.getEmail());
+        writer.writeString("_class", Recipient.class.getName());
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Class<Recipient> getEncoderClass() {
+        return Recipient.class;
+    }
+}
@@ -0,0 +1,62 @@
+package com.kl.voucher_pool.repository.codec;
+
+import com.kl.voucher_pool.model.SpecialOffer;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/**
+ * Hand-written codec of SpecialOffer documents.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public class SpecialOfferCodec implements Codec<SpecialOffer> {
+
+    @Override
+    public SpecialOffer decode(BsonReader reader, DecoderContext decoderContext) {
+        String id = null;
+        String name = null;
+        double discountPercentage = 0;
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "_id":
+                    id = ModelCodecs.readId(reader);
+                    break;
+                case "name":
+                    name = ModelCodecs.readString(reader);
+                    break;
+                case "discountPercentage":
+                    discountPercentage = ModelCodecs.readDouble(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+
+        SpecialOffer specialOffer = new SpecialOffer(name, discountPercentage);
+        specialOffer.setId(id);
+        return specialOffer;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, SpecialOffer specialOffer, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        ModelCodecs.writeId(writer, specialOffer.getId());
+        ModelCodecs.writeString(writer, "name", specialOffer.getName());
+        writer.writeDouble("discountPercentage", specialOffer.getDiscountPercentage());
+        writer.writeString("_class", SpecialOffer.class.getName());
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Class<SpecialOffer> getEncoderClass() {
+        return SpecialOffer.class;
+    }
+}
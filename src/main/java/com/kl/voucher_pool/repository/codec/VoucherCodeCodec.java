@@ -0,0 +1,81 @@
+package com.kl.voucher_pool.repository.codec;
+
+import com.kl.voucher_pool.model.VoucherCode;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Hand-written codec of VoucherCode documents. Fields missing from a projected document stay null.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public class VoucherCodeCodec implements Codec<VoucherCode> {
+
+    @Override
+    public VoucherCode decode(BsonReader reader, DecoderContext decoderContext) {
+        String id = null;
+        String code = null;
+        String recipientId = null;
+        String specialOfferId = null;
+        LocalDate expirationDate = null;
+        LocalDateTime usageDate = null;
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "_id":
+                    id = ModelCodecs.readId(reader);
+                    break;
+                case "code":
+                    code = ModelCodecs.readString(reader);
+                    break;
+                case "recipientId":
+                    recipientId = ModelCodecs.readString(reader);
+                    break;
+                case "specialOfferId":
+                    specialOfferId = ModelCodecs.readString(reader);
+                    break;
+                case "expirationDate":
+                    expirationDate = ModelCodecs.readLocalDate(reader);
+                    break;
+                case "usageDate":
+                    usageDate = ModelCodecs.readLocalDateTime(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+
+        VoucherCode voucherCode = new VoucherCode(code, recipientId, specialOfferId, expirationDate);
+        voucherCode.setId(id);
+        voucherCode.setUsageDate(usageDate);
+        return voucherCode;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, VoucherCode voucherCode, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        ModelCodecs.writeId(writer, voucherCode.getId());
+        ModelCodecs.writeString(writer, "code", voucherCode.getCode());
+        ModelCodecs.writeString(writer, "recipientId", voucherCode.getRecipientId());
+        ModelCodecs.writeString(writer, "specialOfferId", voucherCode.getSpecialOfferId());
+        ModelCodecs.writeLocalDate(writer, "expirationDate", voucherCode.getExpirationDate());
+        ModelCodecs.writeLocalDateTime(writer, "usageDate", voucherCode.getUsageDate());
+        writer.writeString("_class", VoucherCode.class.getName());
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Class<VoucherCode> getEncoderClass() {
+        return VoucherCode.class;
+    }
+}
@@ -0,0 +1,144 @@
+package com.kl.voucher_pool.repository.embedded;
+
+import com.kl.voucher_pool.repository.StoreRepository;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Base class of the embedded repositories.
+ *
+ * Implements the generic StoreRepository operations on top of the few primitives of each store,
+ * so that the service layer can use the same repository interfaces with either backend.
+ * Sorting is done in memory on the bean properties named by the sort, ordering nulls first
+ * when ascending as MongoDB does.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public abstract class AbstractEmbeddedRepository<T> implements StoreRepository<T> {
+
+    protected abstract String idOf(T entity);
+
+    @Override
+    public <S extends T> S insert(S entity) {
+        if (idOf(entity) != null && existsById(idOf(entity))) {
+            throw new DuplicateKeyException("Duplicate id: " + idOf(entity));
+        }
+        return save(entity);
+    }
+
+    @Override
+    public <S extends T> List<S> insert(Iterable<S> entities) {
+        List<S> inserted = new ArrayList<>();
+        for (S entity : entities) {
+            inserted.add(insert(entity));
+        }
+        return inserted;
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        for (S entity : entities) {
+            saved.add(save(entity));
+        }
+        return saved;
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return findById(id).isPresent();
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<String> ids) {
+        List<T> found = new ArrayList<>();
+        for (String id : ids) {
+            findById(id).ifPresent(found::add);
+        }
+        return found;
+    }
+
+    @Override
+    public List<T> findAll(Sort sort) {
+        List<T> all = findAll();
+        if (sort.isSorted()) {
+            all = new ArrayList<>(all);
+            all.sort(comparatorFor(sort));
+        }
+        return all;
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        List<T> all = findAll(pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(all);
+        }
+        int from = (int) Math.min(pageable.getOffset(), all.size());
+        int to = Math.min(from + pageable.getPageSize(), all.size());
+        return new PageImpl<>(new ArrayList<>(all.subList(from, to)), pageable, all.size());
+    }
+
+    @Override
+    public void delete(T entity) {
+        deleteById(idOf(entity));
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends String> ids) {
+        for (String id : ids) {
+            deleteById(id);
+        }
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        for (T entity : entities) {
+            delete(entity);
+        }
+    }
+
+    private Comparator<T> comparatorFor(Sort sort) {
+        Comparator<T> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<T> byProperty = (left, right) -> compareValues(propertyOf(left, order), propertyOf(right, order), order);
+            comparator = comparator == null ? byProperty : comparator.thenComparing(byProperty);
+        }
+        return comparator;
+    }
+
+    private static Object propertyOf(Object entity, Sort.Order order) {
+        Object value = new BeanWrapperImpl(entity).getPropertyValue(order.getProperty());
+        return order.isIgnoreCase() && value instanceof String text ? text.toLowerCase() : value;
+    }
+
+    // NATIVE sorts nulls as the smallest values, like MongoDB; the explicit handlings hold in either direction.
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareValues(Object left, Object right, Sort.Order order) {
+        if (left == null || right == null) {
+            if (left == right) {
+                return 0;
+            }
+            boolean nullsFirst = switch (order.getNullHandling()) {
+                case NULLS_FIRST -> true;
+                case NULLS_LAST -> false;
+                case NATIVE -> order.isAscending();
+            };
+            return (left == null) == nullsFirst ? -1 : 1;
+        }
+        if (!(left instanceof Comparable)) {
+            throw new IllegalArgumentException("Cannot sort by a property of type " + left.getClass().getName());
+        }
+        int compared = ((Comparable) left).compareTo(right);
+        return order.isAscending() ? compared : -compared;
+    }
+}
@@ -0,0 +1,125 @@
+package com.kl.voucher_pool.repository.embedded;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Off-heap hash index from voucher code keys to voucher table rows.
+ *
+ * Keys and rows are kept in two direct buffers with open addressing and linear probing.
+ * Lookups take no lock: a row is written before its key is published with release semantics,
+ * and a resize builds a new table and swaps it in, leaving the old one intact for readers
+ * still probing it. Writers are serialized by the owning VoucherTable.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+final class CodeIndex {
+
+    private static final VarHandle KEYS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final VarHandle ROWS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final int MIN_CAPACITY = 1 << 10;
+
+    private volatile Table table;
+    private int size;
+
+    CodeIndex(int expectedSize) {
+        this.table = new Table(capacityFor(expectedSize));
+    }
+
+    /**
+     * @return The row of the key, or -1 if the key is not indexed
+     */
+    int get(long key) {
+        Table current = table;
+        int slot = slotOf(key, current.mask);
+        while (true) {
+            long found = (long) KEYS.getAcquire(current.keys, slot * Long.BYTES);
+            if (found == VoucherCodeKeys.NO_KEY) {
+                return -1;
+            }
+            if (found == key) {
+                return (int) ROWS.getAcquire(current.rows, slot * Integer.BYTES);
+            }
+            slot = (slot + 1) & current.mask;
+        }
+    }
+
+    /**
+     * Indexes a key that is not indexed yet. Must only be called by one writer at a time.
+     *
+     * @return false if the key is already indexed
+     */
+    boolean putIfAbsent(long key, int row) {
+        if (get(key) >= 0) {
+            return false;
+        }
+        if (size + 1 > table.capacity * 3 / 4) {
+            table = resized(table);
+        }
+        insert(table, key, row);
+        size++;
+        return true;
+    }
+
+    /**
+     * Points an indexed key at a new row. Must only be called by one writer at a time.
+     */
+    void replace(long key, int row) {
+        Table current = table;
+        int slot = slotOf(key, current.mask);
+        while ((long) KEYS.getAcquire(current.keys, slot * Long.BYTES) != key) {
+            slot = (slot + 1) & current.mask;
+        }
+        ROWS.setRelease(current.rows, slot * Integer.BYTES, row);
+    }
+
+    private static Table resized(Table old) {
+        Table resized = new Table(old.capacity * 2);
+        for (int slot = 0; slot < old.capacity; slot++) {
+            long key = (long) KEYS.getAcquire(old.keys, slot * Long.BYTES);
+            if (key != VoucherCodeKeys.NO_KEY) {
+                insert(resized, key, (int) ROWS.getAcquire(old.rows, slot * Integer.BYTES));
+            }
+        }
+        return resized;
+    }
+
+    private static void insert(Table table, long key, int row) {
+        int slot = slotOf(key, table.mask);
+        while ((long) KEYS.getAcquire(table.keys, slot * Long.BYTES) != VoucherCodeKeys.NO_KEY) {
+            slot = (slot + 1) & table.mask;
+        }
+        ROWS.set(table.rows, slot * Integer.BYTES, row);
+        KEYS.setRelease(table.keys, slot * Long.BYTES, key);
+    }
+
+    private static int slotOf(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3 / 4 < expectedSize) {
+            capacity *= 2;
+        }
+        return capacity;
+    }
+
+    private static final class Table {
+        final int capacity;
+        final int mask;
+        final ByteBuffer keys;
+        final ByteBuffer rows;
+
+        Table(int capacity) {
+            this.capacity = capacity;
+            this.mask = capacity - 1;
+            this.keys = OffHeapBuffers.allocate(capacity * Long.BYTES);
+            this.rows = OffHeapBuffers.allocate(capacity * Integer.BYTES);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.kl.voucher_pool.repository.embedded;
+
+import com.kl.voucher_pool.model.ExpiryNotification;
+import com.kl.voucher_pool.repository.ExpiryNotificationRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ExpiryNotificationRepository keeping the notifications of the embedded profile in memory.
+ * Notifications are not part of the store snapshots, so after a restart the vouchers expiring
+ * within the window are notified again.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public class EmbeddedExpiryNotificationRepository extends AbstractEmbeddedRepository<ExpiryNotification>
+        implements ExpiryNotificationRepository {
+
+    private final Map<String, ExpiryNotification> notifications = new ConcurrentHashMap<>();
+
+    @Override
+    protected String idOf(ExpiryNotification notification) {
+        return notification.getId();
+    }
+
+    @Override
+    public void deleteByExpirationDateBefore(LocalDate date) {
+        notifications.values().removeIf(notification -> notification.getExpirationDate().isBefore(date));
+    }
+
+    @Override
+    public <S extends ExpiryNotification> S save(S notification) {
+        notifications.put(notification.getId(), notification);
+        return notification;
+    }
+
+    @Override
+    public Optional<ExpiryNotification> findById(String id) {
+        return Optional.ofNullable(notifications.get(id));
+    }
+
+    @Override
+    public List<ExpiryNotification> findAll() {
+        return new ArrayList<>(notifications.values());
+    }
+
+    @Override
+    public long count() {
+        return notifications.size();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        notifications.remove(id);
+    }
+
+    @Override
+    public void deleteAll() {
+        notifications.clear();
+    }
+}
@@ -0,0 +1,133 @@
+package com.kl.voucher_pool.repository.embedded;
+
+import com.kl.voucher_pool.model.IdempotencyRecord;
+import com.kl.voucher_pool.model.VoucherCode;
+import com.kl.voucher_pool.repository.IdempotencyRecordRepository;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * IdempotencyRecordRepository keeping the records of the embedded profile in memory.
+ *
+ * Records expire after the idempotency TTL like the documents of the TTL indexed collection:
+ * expired records are ignored on read and purged every few thousand inserts.
+ * They are not part of the store snapshots and are lost on restart.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public class EmbeddedIdempotencyRecordRepository extends AbstractEmbeddedRepository<IdempotencyRecord>
+        implements IdempotencyRecordRepository {
+
+    private static final int INSERTS_PER_PURGE = 4096;
+
+    private final Duration ttl;
+    private final Map<String, IdempotencyRecord> records = new ConcurrentHashMap<>();
+    private final AtomicInteger inserts = new AtomicInteger();
+
+    public EmbeddedIdempotencyRecordRepository(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    @Override
+    protected String idOf(IdempotencyRecord record) {
+        return record.getId();
+    }
+
+    /**
+     * Claims the id atomically, replacing an expired record with the same id.
+     */
+    @Override
+    public <S extends IdempotencyRecord> S insert(S record) {
+        if (inserts.incrementAndGet() % INSERTS_PER_PURGE == 0) {
+            Instant now = Instant.now();
+            records.values().removeIf(existing -> isExpired(existing, now));
+        }
+        IdempotencyRecord stored = records.compute(record.getId(),
+                (id, existing) -> existing == null || isExpired(existing, Instant.now()) ? record : existing);
+        if (stored != record) {
+            throw new DuplicateKeyException("Duplicate idempotency key: " + record.getId());
+        }
+        return record;
+    }
+
+    @Override
+    public <S extends IdempotencyRecord> S save(S record) {
+        records.put(record.getId(), record);
+        return record;
+    }
+
+    @Override
+    public boolean takeOver(String id, Instant staleClaimedAt, Instant claimedAt, String claimToken) {
+        IdempotencyRecord current = records.get(id);
+        if (current == null || current.isCompleted() || !Objects.equals(current.getClaimedAt(), staleClaimedAt)) {
+            return false;
+        }
+        IdempotencyRecord renewed = new IdempotencyRecord(id, current.getFingerprint(), current.getCreatedAt());
+        renewed.setClaimedAt(claimedAt);
+        renewed.setClaimToken(claimToken);
+        return records.replace(id, current, renewed);
+    }
+
+    @Override
+    public IdempotencyRecord completeClaim(String id, String claimToken, String fingerprint, VoucherCode voucherCode,
+                                           Instant completedAt) {
+        IdempotencyRecord completed = new IdempotencyRecord(id, fingerprint, completedAt);
+        completed.setVoucherCode(voucherCode);
+        completed.setClaimToken(claimToken);
+        return records.compute(id, (key, existing) -> existing == null || isExpired(existing, completedAt)
+                || !existing.isCompleted() && claimToken.equals(existing.getClaimToken()) ? completed : existing);
+    }
+
+    @Override
+    public void releaseClaim(String id, String claimToken) {
+        records.computeIfPresent(id, (key, existing) ->
+                !existing.isCompleted() && claimToken.equals(existing.getClaimToken()) ? null : existing);
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> findById(String id) {
+        IdempotencyRecord record = records.get(id);
+        return record == null || isExpired(record, Instant.now()) ? Optional.empty() : Optional.of(record);
+    }
+
+    @Override
+    public List<IdempotencyRecord> findAll() {
+        Instant now = Instant.now();
+        List<IdempotencyRecord> all = new ArrayList<>();
+        for (IdempotencyRecord record : records.values()) {
+            if (!isExpired(record, now)) {
+                all.add(record);
+            }
+        }
+        return all;
+    }
+
+    @Override
+    public long count() {
+        return findAll().size();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        records.remove(id);
+    }
+
+    @Override
+    public void deleteAll() {
+        records.clear();
+    }
+
+    private boolean isExpired(IdempotencyRecord record, Instant now) {
+        return record.getCreatedAt().plus(ttl).isBefore(now);
+    }
+}
@@ -0,0 +1,72 @@
+package com.kl.voucher_pool.repository.embedded;
+
+import com.kl.voucher_pool.model.Recipient;
+import com.kl.voucher_pool.repository.RecipientRepository;
+import org.bson.types.ObjectId;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * RecipientRepository backed by the recipient table of the EmbeddedStore.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public class EmbeddedRecipientRepository extends AbstractEmbeddedRepository<Recipient> implements RecipientRepository {
+
+    private final EmbeddedStore store;
+
+    public EmbeddedRecipientRepository(EmbeddedStore store) {
+        this.store = store;
+    }
+
+    @Override
+    protected String idOf(Recipient recipient) {
+        return recipient.getId();
+    }
+
+    @Override
+    public Optional<Recipient> findByEmail(String email) {
+        return store.recipients.findByLookupKey(email);
+    }
+
+    @Override
+    public Optional<Recipient> findWalletOwnerByEmail(String email) {
+        return findByEmail(email);
+    }
+
+    @Override
+    public Optional<Recipient> findById(String id) {
+        return store.recipients.findById(id);
+    }
+
+    @Override
+    public <S extends Recipient> S save(S recipient) {
+        if (recipient.getId() == null) {
+            recipient.setId(new ObjectId().toHexString());
+        }
+        store.recipients.put(recipient);
+        return recipient;
+    }
+
+    @Override
+    public List<Recipient> findAll() {
+        return store.recipients.findAll();
+    }
+
+    @Override
+    public long count() {
+        return store.recipients.entityCount();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        store.recipients.remove(id);
+    }
+
+    @Override
+    public void deleteAll() {
+        store.recipients.removeAll();
+    }
+}
@@ -0,0 +1,91 @@
+package com.kl.voucher_pool.repository.embedded;
+
+import com.kl.voucher_pool.model.RedemptionRollup;
+import com.kl.voucher_pool.repository.RedemptionRollupRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * RedemptionRollupRepository keeping the rollups of the embedded profile in memory, sorted by id
+ * like the _id index of the collection. Increments replace a rollup with an updated copy, so
+ * readers never see one half updated, and skip rollups already holding the flush as MongoDB does.
+ * Rollups are not part of the store snapshots.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public class EmbeddedRedemptionRollupRepository extends AbstractEmbeddedRepository<RedemptionRollup>
+        implements RedemptionRollupRepository {
+
+    private final ConcurrentNavigableMap<String, RedemptionRollup> rollups = new ConcurrentSkipListMap<>();
+
+    @Override
+    protected String idOf(RedemptionRollup rollup) {
+        return rollup.getId();
+    }
+
+    @Override
+    public List<RedemptionRollup> increment(List<RedemptionRollup> increments, String nodeId, long flushSequence) {
+        String flushKey = RedemptionRollup.flushKeyOf(nodeId);
+        for (RedemptionRollup increment : increments) {
+            rollups.compute(increment.getId(), (id, existing) -> {
+                if (existing != null && existing.getFlushes().getOrDefault(flushKey, Long.MIN_VALUE) >= flushSequence) {
+                    return existing;
+                }
+                RedemptionRollup updated = new RedemptionRollup(increment.getSpecialOfferId(), increment.getHour());
+                if (existing != null) {
+                    updated.setTotal(existing.getTotal());
+                    updated.setMinutes(new HashMap<>(existing.getMinutes()));
+                    updated.setFlushes(new HashMap<>(existing.getFlushes()));
+                }
+                increment.getMinutes().forEach((minute, count) -> updated.add(Integer.parseInt(minute), count));
+                updated.getFlushes().put(flushKey, flushSequence);
+                return updated;
+            });
+        }
+        return List.of();
+    }
+
+    @Override
+    public List<RedemptionRollup> findHourlyRollups(String specialOfferId, LocalDateTime fromHour, LocalDateTime toHour) {
+        return new ArrayList<>(rollups.subMap(RedemptionRollup.idOf(specialOfferId, fromHour),
+                RedemptionRollup.idOf(specialOfferId, toHour)).values());
+    }
+
+    @Override
+    public <S extends RedemptionRollup> S save(S rollup) {
+        rollups.put(rollup.getId(), rollup);
+        return rollup;
+    }
+
+    @Override
+    public Optional<RedemptionRollup> findById(String id) {
+        return Optional.ofNullable(rollups.get(id));
+    }
+
+    @Override
+    public List<RedemptionRollup> findAll() {
+        return new ArrayList<>(rollups.values());
+    }
+
+    @Override
+    public long count() {
+        return rollups.size();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        rollups.remove(id);
+    }
+
+    @Override
+    public void deleteAll() {
+        rollups.clear();
+    }
+}
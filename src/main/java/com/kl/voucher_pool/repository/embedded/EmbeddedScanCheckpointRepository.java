@@ -0,0 +1,59 @@
+package com.kl.voucher_pool.repository.embedded;
+
+import com.kl.voucher_pool.model.ScanCheckpoint;
+import com.kl.voucher_pool.repository.ScanCheckpointRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ScanCheckpointRepository keeping the checkpoints of the embedded profile in memory.
+ * Checkpoints are not part of the store snapshots, so an interrupted scan starts over after a restart.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public class EmbeddedScanCheckpointRepository extends AbstractEmbeddedRepository<ScanCheckpoint>
+        implements ScanCheckpointRepository {
+
+    private final Map<String, ScanCheckpoint> checkpoints = new ConcurrentHashMap<>();
+
+    @Override
+    protected String idOf(ScanCheckpoint checkpoint) {
+        return checkpoint.getId();
+    }
+
+    @Override
+    public <S extends ScanCheckpoint> S save(S checkpoint) {
+        checkpoints.put(checkpoint.getId(), checkpoint);
+        return checkpoint;
+    }
+
+    @Override
+    public Optional<ScanCheckpoint> findById(String id) {
+        return Optional.ofNullable(checkpoints.get(id));
+    }
+
+    @Override
+    public List<ScanCheckpoint> findAll() {
+        return new ArrayList<>(checkpoints.values());
+    }
+
+    @Override
+    public long count() {
+        return checkpoints.size();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        checkpoints.remove(id);
+    }
+
+    @Override
+    public void deleteAll() {
+        checkpoints.clear();
+    }
+}
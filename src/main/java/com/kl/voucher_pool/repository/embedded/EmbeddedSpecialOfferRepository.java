@@ -0,0 +1,72 @@
+package com.kl.voucher_pool.repository.embedded;
+
+import com.kl.voucher_pool.model.SpecialOffer;
+import com.kl.voucher_pool.repository.SpecialOfferRepository;
+import org.bson.types.ObjectId;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * SpecialOfferRepository backed by the special offer table of the EmbeddedStore.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public class EmbeddedSpecialOfferRepository extends AbstractEmbeddedRepository<SpecialOffer> implements SpecialOfferRepository {
+
+    private final EmbeddedStore store;
+
+    public EmbeddedSpecialOfferRepository(EmbeddedStore store) {
+        this.store = store;
+    }
+
+    @Override
+    protected String idOf(SpecialOffer specialOffer) {
+        return specialOffer.getId();
+    }
+
+    @Override
+    public Optional<SpecialOffer> findByName(String name) {
+        return store.specialOffers.findByLookupKey(name);
+    }
+
+    @Override
+    public Optional<SpecialOffer> findDashboardOfferByName(String name) {
+        return findByName(name);
+    }
+
+    @Override
+    public Optional<SpecialOffer> findById(String id) {
+        return store.specialOffers.findById(id);
+    }
+
+    @Override
+    public <S extends SpecialOffer> S save(S specialOffer) {
+        if (specialOffer.getId() == null) {
+            specialOffer.setId(new ObjectId().toHexString());
+        }
+        store.specialOffers.put(specialOffer);
+        return specialOffer;
+    }
+
+    @Override
+    public List<SpecialOffer> findAll() {
+        return store.specialOffers.findAll();
+    }
+
+    @Override
+    public long count() {
+        return store.specialOffers.entityCount();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        store.specialOffers.remove(id);
+    }
+
+    @Override
+    public void deleteAll() {
+        store.specialOffers.removeAll();
+    }
+}
@@ -0,0 +1,193 @@
+package com.kl.voucher_pool.repository.embedded;
+
+import com.kl.voucher_pool.model.Recipient;
+import com.kl.voucher_pool.model.SpecialOffer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * In-memory storage engine used instead of MongoDB by the "embedded" profile.
+ *
+ * The store holds the recipient and special offer tables and the voucher code table shared by the
+ * embedded repositories. Its content is written to, and restored from, a snapshot file through
+ * memory-mapped buffers. A snapshot is taken while the store is in use: it contains every voucher
+ * code appended before it started, with the usage dates seen while it was copied.
+ *
+ * Snapshot layout: a header (magic, length of the entity section, voucher code count), the entity
+ * section with the recipients and special offers in ordinal order, then one fixed size record per
+ * voucher code (code key, recipient ordinal, offer ordinal, expiration epoch day, usage epoch millis).
+ * Deleted voucher codes keep their record, with the DELETED usage, so restored rows keep their ids.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public class EmbeddedStore {
+
+    private static final int MAGIC = 0x56505331;
+    private static final int HEADER_BYTES = 3 * Integer.BYTES;
+    private static final int ROW_BYTES = 2 * Long.BYTES + 3 * Integer.BYTES;
+    private static final int ROWS_PER_MAPPING = 1 << 20;
+
+    final EntityTable<Recipient> recipients = new EntityTable<>(Recipient::getId, Recipient::getEmail, EmbeddedStore::copyOf);
+    final EntityTable<SpecialOffer> specialOffers = new EntityTable<>(SpecialOffer::getId, SpecialOffer::getName, EmbeddedStore::copyOf);
+    final VoucherTable voucherCodes = new VoucherTable();
+
+    /**
+     * Writes a snapshot of the store to a temporary file and moves it over the given path.
+     *
+     * @param path The snapshot file
+     * @return The number of voucher codes in the snapshot
+     */
+    public synchronized int writeSnapshot(Path path) throws IOException {
+        // Read first: every ordinal referenced by these rows was assigned before them.
+        int voucherCount = voucherCodes.size();
+        byte[] entities = encodeEntities();
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer head = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + entities.length);
+            head.putInt(MAGIC).putInt(entities.length).putInt(voucherCount).put(entities);
+            head.force();
+
+            long position = HEADER_BYTES + entities.length;
+            for (int first = 0; first < voucherCount; first += ROWS_PER_MAPPING) {
+                int count = Math.min(ROWS_PER_MAPPING, voucherCount - first);
+                MappedByteBuffer rows = channel.map(FileChannel.MapMode.READ_WRITE, position, (long) count * ROW_BYTES);
+                for (int row = first; row < first + count; row++) {
+                    rows.putLong(voucherCodes.code(row))
+                            .putInt(voucherCodes.recipient(row))
+                            .putInt(voucherCodes.offer(row))
+                            .putInt(voucherCodes.expirationDay(row))
+                            .putLong(voucherCodes.usage(row));
+                }
+                rows.force();
+                position += (long) count * ROW_BYTES;
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return voucherCount;
+    }
+
+    /**
+     * Loads a snapshot into the store, which must still be empty.
+     *
+     * @param path The snapshot file
+     * @return The number of voucher codes restored
+     */
+    public synchronized int restoreSnapshot(Path path) throws IOException {
+        if (voucherCodes.size() > 0 || recipients.ordinalCount() > 0 || specialOffers.ordinalCount() > 0) {
+            throw new IllegalStateException("A snapshot can only be restored into an empty store");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a voucher pool snapshot: " + path);
+            }
+            int entitiesLength = header.getInt();
+            int voucherCount = header.getInt();
+
+            byte[] entities = new byte[entitiesLength];
+            channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, entitiesLength).get(entities);
+            decodeEntities(entities);
+
+            long position = HEADER_BYTES + entitiesLength;
+            for (int first = 0; first < voucherCount; first += ROWS_PER_MAPPING) {
+                int count = Math.min(ROWS_PER_MAPPING, voucherCount - first);
+                ByteBuffer rows = channel.map(FileChannel.MapMode.READ_ONLY, position, (long) count * ROW_BYTES);
+                for (int row = 0; row < count; row++) {
+                    voucherCodes.append(rows.getLong(), rows.getInt(), rows.getInt(), rows.getInt(), rows.getLong());
+                }
+                position += (long) count * ROW_BYTES;
+            }
+            return voucherCount;
+        }
+    }
+
+    private byte[] encodeEntities() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        int recipientCount = recipients.ordinalCount();
+        out.writeInt(recipientCount);
+        for (int ordinal = 0; ordinal < recipientCount; ordinal++) {
+            out.writeUTF(recipients.idAt(ordinal));
+            Recipient recipient = recipients.entityAt(ordinal).orElse(null);
+            out.writeBoolean(recipient != null);
+            if (recipient != null) {
+                writeNullable(out, recipient.getEmail());
+                writeNullable(out, recipient.getName());
+            }
+        }
+        int offerCount = specialOffers.ordinalCount();
+        out.writeInt(offerCount);
+        for (int ordinal = 0; ordinal < offerCount; ordinal++) {
+            out.writeUTF(specialOffers.idAt(ordinal));
+            SpecialOffer specialOffer = specialOffers.entityAt(ordinal).orElse(null);
+            out.writeBoolean(specialOffer != null);
+            if (specialOffer != null) {
+                writeNullable(out, specialOffer.getName());
+                out.writeDouble(specialOffer.getDiscountPercentage());
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private void decodeEntities(byte[] entities) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(entities));
+        int recipientCount = in.readInt();
+        for (int ordinal = 0; ordinal < recipientCount; ordinal++) {
+            String id = in.readUTF();
+            recipients.intern(id);
+            if (in.readBoolean()) {
+                Recipient recipient = new Recipient(readNullable(in), readNullable(in));
+                recipient.setId(id);
+                recipients.put(recipient);
+            }
+        }
+        int offerCount = in.readInt();
+        for (int ordinal = 0; ordinal < offerCount; ordinal++) {
+            String id = in.readUTF();
+            specialOffers.intern(id);
+            if (in.readBoolean()) {
+                SpecialOffer specialOffer = new SpecialOffer(readNullable(in), in.readDouble());
+                specialOffer.setId(id);
+                specialOffers.put(specialOffer);
+            }
+        }
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static Recipient copyOf(Recipient recipient) {
+        Recipient copy = new Recipient(recipient.getEmail(), recipient.getName());
+        copy.setId(recipient.getId());
+        return copy;
+    }
+
+    private static SpecialOffer copyOf(SpecialOffer specialOffer) {
+        SpecialOffer copy = new SpecialOffer(specialOffer.getName(), specialOffer.getDiscountPercentage());
+        copy.setId(specialOffer.getId());
+        return copy;
+    }
+}
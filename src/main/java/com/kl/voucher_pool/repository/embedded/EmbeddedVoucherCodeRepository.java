@@ -0,0 +1,234 @@
+package com.kl.voucher_pool.repository.embedded;
+
+import com.kl.voucher_pool.model.VoucherCode;
+import com.kl.voucher_pool.repository.VoucherCodeRepository;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * VoucherCodeRepository backed by the voucher table of the EmbeddedStore.
+ *
+ * The id of a voucher code is its row number as 8 hex digits, so ids sort in insertion order.
+ * Codes are looked up by their long key and redeemed with a compare-and-set of the usage column.
+ * The code and recipient of a stored voucher code cannot change. Deleting a voucher code tombstones
+ * its row, so the ids of the other voucher codes stay the same and its code can be generated again.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public class EmbeddedVoucherCodeRepository extends AbstractEmbeddedRepository<VoucherCode> implements VoucherCodeRepository {
+
+    private final EmbeddedStore store;
+    private final VoucherTable voucherCodes;
+
+    public EmbeddedVoucherCodeRepository(EmbeddedStore store) {
+        this.store = store;
+        this.voucherCodes = store.voucherCodes;
+    }
+
+    @Override
+    protected String idOf(VoucherCode voucherCode) {
+        return voucherCode.getId();
+    }
+
+    @Override
+    public Optional<VoucherCode> findByCode(String code) {
+        long codeKey = VoucherCodeKeys.encode(code);
+        int row = codeKey == VoucherCodeKeys.NO_KEY ? -1 : voucherCodes.rowOf(codeKey);
+        return row < 0 ? Optional.empty() : Optional.of(toVoucherCode(row));
+    }
+
+    // The columns are read straight from memory, so there is nothing to gain by leaving fields out.
+    @Override
+    public Optional<VoucherCode> findRedemptionStateByCode(String code) {
+        return findByCode(code);
+    }
+
+    @Override
+    public Optional<VoucherCode> findById(String id) {
+        int row = liveRowOf(id);
+        return row < 0 ? Optional.empty() : Optional.of(toVoucherCode(row));
+    }
+
+    @Override
+    public List<VoucherCode> findByRecipientIdAndExpirationDateAfterAndUsageDateIsNull(String recipientId, LocalDate currentDate) {
+        List<VoucherCode> found = new ArrayList<>();
+        long currentDay = currentDate.toEpochDay();
+        voucherCodes.forEachRowOf(store.recipients.ordinalOf(recipientId), row -> {
+            if (voucherCodes.expirationDay(row) > currentDay && voucherCodes.usage(row) == VoucherTable.NOT_USED) {
+                found.add(toVoucherCode(row));
+            }
+        });
+        return found;
+    }
+
+    /**
+     * Builds only the code and special offer id, like the projected MongoDB query.
+     */
+    @Override
+    public List<VoucherCode> findWalletEntriesByRecipientId(String recipientId, LocalDate currentDate) {
+        List<VoucherCode> found = new ArrayList<>();
+        long currentDay = currentDate.toEpochDay();
+        voucherCodes.forEachRowOf(store.recipients.ordinalOf(recipientId), row -> {
+            if (voucherCodes.expirationDay(row) > currentDay && voucherCodes.usage(row) == VoucherTable.NOT_USED) {
+                found.add(new VoucherCode(VoucherCodeKeys.decode(voucherCodes.code(row)), null,
+                        store.specialOffers.idAt(voucherCodes.offer(row)), null));
+            }
+        });
+        return found;
+    }
+
+    /**
+     * Scans the rows after the given id. There is no index by expiration date, which is fine
+     * for the daily batch job but makes every page cost a pass over the remaining rows.
+     * An afterId that is not a row of this store is rejected rather than restarting the scan from the first row.
+     */
+    @Override
+    public List<VoucherCode> findUnusedByExpirationDate(LocalDate expirationDate, String afterId, int limit) {
+        List<VoucherCode> found = new ArrayList<>();
+        long expirationDay = expirationDate.toEpochDay();
+        int start = 0;
+        if (afterId != null) {
+            int afterRow = rowOf(afterId);
+            if (afterRow < 0) {
+                throw new IllegalArgumentException("Unknown voucher code id: " + afterId);
+            }
+            start = afterRow + 1;
+        }
+        int size = voucherCodes.size();
+        for (int row = start; row < size && found.size() < limit; row++) {
+            if (voucherCodes.expirationDay(row) == expirationDay && voucherCodes.usage(row) == VoucherTable.NOT_USED) {
+                found.add(toVoucherCode(row));
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public boolean markUsed(VoucherCode voucherCode, LocalDateTime usageDate) {
+        int row = liveRowOf(voucherCode.getId());
+        return row >= 0 && voucherCodes.markUsed(row, toEpochMillis(usageDate));
+    }
+
+    @Override
+    public <S extends VoucherCode> S save(S voucherCode) {
+        if (voucherCode.getExpirationDate() == null) {
+            throw new IllegalArgumentException("A voucher code needs an expiration date");
+        }
+        int offer = store.specialOffers.intern(voucherCode.getSpecialOfferId());
+        int expirationDay = (int) voucherCode.getExpirationDate().toEpochDay();
+        long usage = toEpochMillis(voucherCode.getUsageDate());
+        long codeKey = VoucherCodeKeys.encode(voucherCode.getCode());
+        if (codeKey == VoucherCodeKeys.NO_KEY) {
+            throw new IllegalArgumentException("Voucher code cannot be stored in the embedded store: " + voucherCode.getCode());
+        }
+
+        if (voucherCode.getId() == null) {
+            int recipient = store.recipients.intern(voucherCode.getRecipientId());
+            if (recipient < 0) {
+                throw new IllegalArgumentException("A voucher code needs a recipient");
+            }
+            int row = voucherCodes.append(codeKey, recipient, offer, expirationDay, usage);
+            if (row < 0) {
+                throw new DuplicateKeyException("Duplicate voucher code: " + voucherCode.getCode());
+            }
+            voucherCode.setId(idOf(row));
+            return voucherCode;
+        }
+
+        int row = liveRowOf(voucherCode.getId());
+        if (row < 0) {
+            throw new IllegalArgumentException("Unknown voucher code id: " + voucherCode.getId());
+        }
+        if (voucherCodes.code(row) != codeKey
+                || voucherCodes.recipient(row) != store.recipients.ordinalOf(voucherCode.getRecipientId())) {
+            throw new IllegalArgumentException("The code and recipient of a stored voucher code cannot be changed");
+        }
+        if (!voucherCodes.update(row, offer, expirationDay, usage)) {
+            throw new IllegalArgumentException("Unknown voucher code id: " + voucherCode.getId());
+        }
+        return voucherCode;
+    }
+
+    @Override
+    public List<VoucherCode> findAll() {
+        int size = voucherCodes.size();
+        List<VoucherCode> all = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            if (!voucherCodes.isDeleted(row)) {
+                all.add(toVoucherCode(row));
+            }
+        }
+        return all;
+    }
+
+    @Override
+    public long count() {
+        return voucherCodes.liveCount();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        int row = rowOf(id);
+        if (row >= 0) {
+            voucherCodes.delete(row);
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        int size = voucherCodes.size();
+        for (int row = 0; row < size; row++) {
+            voucherCodes.delete(row);
+        }
+    }
+
+    private VoucherCode toVoucherCode(int row) {
+        VoucherCode voucherCode = new VoucherCode(
+                VoucherCodeKeys.decode(voucherCodes.code(row)),
+                store.recipients.idAt(voucherCodes.recipient(row)),
+                store.specialOffers.idAt(voucherCodes.offer(row)),
+                LocalDate.ofEpochDay(voucherCodes.expirationDay(row)));
+        voucherCode.setId(idOf(row));
+        long usage = voucherCodes.usage(row);
+        if (usage != VoucherTable.NOT_USED) {
+            voucherCode.setUsageDate(LocalDateTime.ofEpochSecond(Math.floorDiv(usage, 1000L),
+                    (int) Math.floorMod(usage, 1000L) * 1_000_000, ZoneOffset.UTC));
+        }
+        return voucherCode;
+    }
+
+    private int liveRowOf(String id) {
+        int row = rowOf(id);
+        return row >= 0 && voucherCodes.isDeleted(row) ? -1 : row;
+    }
+
+    // Also finds deleted rows, so a page can continue after a voucher code deleted since.
+    private int rowOf(String id) {
+        if (id == null || id.length() != 8) {
+            return -1;
+        }
+        try {
+            int row = Integer.parseUnsignedInt(id, 16);
+            return row >= 0 && row < voucherCodes.size() ? row : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String idOf(int row) {
+        String hex = Integer.toHexString(row);
+        return "00000000".substring(hex.length()) + hex;
+    }
+
+    // Stored with millisecond precision, as MongoDB would.
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime == null ? VoucherTable.NOT_USED : dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
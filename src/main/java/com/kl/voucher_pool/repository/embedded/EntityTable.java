@@ -0,0 +1,178 @@
+package com.kl.voucher_pool.repository.embedded;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Int-indexed table of the recipients or special offers of the embedded store.
+ *
+ * Every id gets an ordinal the first time it is seen, either when its entity is saved or when
+ * a voucher code refers to it, and the voucher table stores that ordinal instead of the id.
+ * Ordinals are never reused, so an entity may be absent for an ordinal after a delete.
+ * Entities are copied in and out, as documents loaded from MongoDB would be, and are also
+ * indexed by a lookup key (the email of a recipient, the name of a special offer).
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+final class EntityTable<T> {
+
+    private final Function<T, String> idOf;
+    private final Function<T, String> lookupKeyOf;
+    private final UnaryOperator<T> copyOf;
+
+    private final Object writeLock = new Object();
+    private final Map<String, Integer> ordinalsById = new ConcurrentHashMap<>();
+    private final Map<String, Integer> ordinalsByLookupKey = new ConcurrentHashMap<>();
+    private volatile AtomicReferenceArray<String> ids = new AtomicReferenceArray<>(16);
+    private volatile AtomicReferenceArray<T> entities = new AtomicReferenceArray<>(16);
+    private volatile int ordinalCount;
+    private volatile int entityCount;
+
+    EntityTable(Function<T, String> idOf, Function<T, String> lookupKeyOf, UnaryOperator<T> copyOf) {
+        this.idOf = idOf;
+        this.lookupKeyOf = lookupKeyOf;
+        this.copyOf = copyOf;
+    }
+
+    /**
+     * @return The ordinal of the id, or -1 if the id has never been seen
+     */
+    int ordinalOf(String id) {
+        Integer ordinal = id == null ? null : ordinalsById.get(id);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * @return The ordinal of the id, assigning the next one if the id has never been seen
+     */
+    int intern(String id) {
+        int ordinal = ordinalOf(id);
+        if (ordinal >= 0 || id == null) {
+            return ordinal;
+        }
+        synchronized (writeLock) {
+            return internLocked(id);
+        }
+    }
+
+    String idAt(int ordinal) {
+        return ordinal < 0 ? null : ids.get(ordinal);
+    }
+
+    int ordinalCount() {
+        return ordinalCount;
+    }
+
+    int entityCount() {
+        return entityCount;
+    }
+
+    Optional<T> findById(String id) {
+        return entityAt(ordinalOf(id));
+    }
+
+    Optional<T> findByLookupKey(String lookupKey) {
+        Integer ordinal = lookupKey == null ? null : ordinalsByLookupKey.get(lookupKey);
+        return ordinal == null ? Optional.empty() : entityAt(ordinal);
+    }
+
+    /**
+     * @return A copy of the entity stored for the ordinal, or empty if there is none
+     */
+    Optional<T> entityAt(int ordinal) {
+        if (ordinal < 0 || ordinal >= ordinalCount) {
+            return Optional.empty();
+        }
+        T entity = entities.get(ordinal);
+        return entity == null ? Optional.empty() : Optional.of(copyOf.apply(entity));
+    }
+
+    List<T> findAll() {
+        List<T> all = new ArrayList<>(entityCount);
+        int count = ordinalCount;
+        for (int ordinal = 0; ordinal < count; ordinal++) {
+            entityAt(ordinal).ifPresent(all::add);
+        }
+        return all;
+    }
+
+    /**
+     * Stores a copy of the entity under its id, which must have been assigned by the caller.
+     */
+    void put(T entity) {
+        T stored = copyOf.apply(entity);
+        synchronized (writeLock) {
+            int ordinal = internLocked(idOf.apply(stored));
+            T previous = entities.get(ordinal);
+            if (previous == null) {
+                entityCount++;
+            } else {
+                removeLookupKey(previous, ordinal);
+            }
+            entities.set(ordinal, stored);
+            String lookupKey = lookupKeyOf.apply(stored);
+            if (lookupKey != null) {
+                ordinalsByLookupKey.put(lookupKey, ordinal);
+            }
+        }
+    }
+
+    void remove(String id) {
+        synchronized (writeLock) {
+            int ordinal = ordinalOf(id);
+            T previous = ordinal < 0 ? null : entities.getAndSet(ordinal, null);
+            if (previous != null) {
+                entityCount--;
+                removeLookupKey(previous, ordinal);
+            }
+        }
+    }
+
+    void removeAll() {
+        synchronized (writeLock) {
+            for (int ordinal = 0; ordinal < ordinalCount; ordinal++) {
+                entities.set(ordinal, null);
+            }
+            ordinalsByLookupKey.clear();
+            entityCount = 0;
+        }
+    }
+
+    private void removeLookupKey(T entity, int ordinal) {
+        String lookupKey = lookupKeyOf.apply(entity);
+        if (lookupKey != null) {
+            ordinalsByLookupKey.remove(lookupKey, ordinal);
+        }
+    }
+
+    private int internLocked(String id) {
+        Integer existing = ordinalsById.get(id);
+        if (existing != null) {
+            return existing;
+        }
+        int ordinal = ordinalCount;
+        if (ordinal == ids.length()) {
+            ids = grown(ids);
+            entities = grown(entities);
+        }
+        ids.set(ordinal, id);
+        ordinalCount = ordinal + 1;
+        ordinalsById.put(id, ordinal);
+        return ordinal;
+    }
+
+    private static <E> AtomicReferenceArray<E> grown(AtomicReferenceArray<E> current) {
+        AtomicReferenceArray<E> grown = new AtomicReferenceArray<>(current.length() * 2);
+        for (int i = 0; i < current.length(); i++) {
+            grown.set(i, current.get(i));
+        }
+        return grown;
+    }
+}
@@ -0,0 +1,23 @@
+package com.kl.voucher_pool.repository.embedded;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Allocates the direct buffers backing the embedded store.
+ *
+ * The buffers are aligned to 8 bytes and use the native byte order, which the VarHandle
+ * views need for atomic access to their long values.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+final class OffHeapBuffers {
+
+    private OffHeapBuffers() {
+    }
+
+    static ByteBuffer allocate(int bytes) {
+        return ByteBuffer.allocateDirect(bytes + Long.BYTES).alignedSlice(Long.BYTES).order(ByteOrder.nativeOrder());
+    }
+}
@@ -0,0 +1,59 @@
+package com.kl.voucher_pool.repository.embedded;
+
+/**
+ * Converts voucher codes to and from the long keys of the embedded store.
+ *
+ * A code is read as a number in base 37 whose digits are the positions of its characters in
+ * "A-Z0-9" plus one, so that no digit is zero and codes of different lengths get different keys.
+ * Codes of up to 12 characters fit in a long. Key 0 is never produced and marks codes that
+ * contain other characters or are too long; such codes cannot exist in the store.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+final class VoucherCodeKeys {
+
+    static final long NO_KEY = 0L;
+
+    private static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    private static final int RADIX = CHARACTERS.length() + 1;
+    private static final int MAX_LENGTH = 12;
+
+    private VoucherCodeKeys() {
+    }
+
+    static long encode(String code) {
+        if (code == null || code.isEmpty() || code.length() > MAX_LENGTH) {
+            return NO_KEY;
+        }
+        long key = 0;
+        for (int i = 0; i < code.length(); i++) {
+            int digit = digitOf(code.charAt(i));
+            if (digit < 0) {
+                return NO_KEY;
+            }
+            key = key * RADIX + digit + 1;
+        }
+        return key;
+    }
+
+    static String decode(long key) {
+        char[] characters = new char[MAX_LENGTH];
+        int position = MAX_LENGTH;
+        while (key > 0) {
+            characters[--position] = CHARACTERS.charAt((int) (key % RADIX) - 1);
+            key /= RADIX;
+        }
+        return new String(characters, position, MAX_LENGTH - position);
+    }
+
+    private static int digitOf(char character) {
+        if (character >= 'A' && character <= 'Z') {
+            return character - 'A';
+        }
+        if (character >= '0' && character <= '9') {
+            return 26 + character - '0';
+        }
+        return -1;
+    }
+}
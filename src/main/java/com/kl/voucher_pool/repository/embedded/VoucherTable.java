@@ -0,0 +1,249 @@
+package com.kl.voucher_pool.repository.embedded;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntConsumer;
+
+/**
+ * Column store of the voucher codes of the embedded store.
+ *
+ * Every voucher code is a row with a code key, recipient and special offer ordinals, an expiration
+ * epoch day and a usage date in epoch milliseconds. The columns live in fixed size off-heap chunks
+ * that are never moved, so rows can be read and redeemed without locks while new chunks are added.
+ * Redemption is a compare-and-set of the usage column from NOT_USED to the usage date.
+ * Deleting a row sets its usage to DELETED: the row keeps its number, so ids stay stable, but it is
+ * no longer live, cannot be redeemed, and its code can be appended again as a new row.
+ *
+ * Appends are serialized by a single lock. A row is fully written before the row count is raised
+ * and before its code is indexed, so a row reached through the index or below the count is complete.
+ * The rows of every recipient are kept in a wallet list to answer wallet queries without a scan.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+final class VoucherTable {
+
+    static final long NOT_USED = Long.MIN_VALUE;
+    static final long DELETED = Long.MIN_VALUE + 1;
+
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_ROWS = 1 << CHUNK_BITS;
+    private static final int ROW_MASK = CHUNK_ROWS - 1;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private final Object writeLock = new Object();
+    private final CodeIndex codeIndex = new CodeIndex(CHUNK_ROWS);
+    private volatile Chunk[] chunks = new Chunk[0];
+    private volatile AtomicReferenceArray<Wallet> wallets = new AtomicReferenceArray<>(0);
+    private volatile int size;
+    private final AtomicInteger deletedCount = new AtomicInteger();
+
+    /**
+     * @return The number of rows, including deleted ones
+     */
+    int size() {
+        return size;
+    }
+
+    int liveCount() {
+        return size - deletedCount.get();
+    }
+
+    /**
+     * @return The live row of the code key, or -1 if there is no such voucher code
+     */
+    int rowOf(long codeKey) {
+        int row = codeIndex.get(codeKey);
+        return row >= 0 && isDeleted(row) ? -1 : row;
+    }
+
+    /**
+     * Appends a voucher code. A row appended with the DELETED usage, as restored from a snapshot,
+     * is neither indexed nor added to a wallet.
+     *
+     * @return The new row, or -1 if the code is already stored in a live row
+     */
+    int append(long codeKey, int recipient, int offer, int expirationDay, long usage) {
+        synchronized (writeLock) {
+            int previous = codeIndex.get(codeKey);
+            if (previous >= 0 && !isDeleted(previous)) {
+                return -1;
+            }
+            int row = size;
+            Chunk chunk = chunkForAppend(row);
+            int offset = row & ROW_MASK;
+            chunk.codes.putLong(offset * Long.BYTES, codeKey);
+            chunk.recipients.putInt(offset * Integer.BYTES, recipient);
+            chunk.offers.putInt(offset * Integer.BYTES, offer);
+            chunk.expirations.putInt(offset * Integer.BYTES, expirationDay);
+            chunk.usages.putLong(offset * Long.BYTES, usage);
+            size = row + 1;
+            if (usage == DELETED) {
+                deletedCount.incrementAndGet();
+                return row;
+            }
+            if (previous >= 0) {
+                codeIndex.replace(codeKey, row);
+            } else {
+                codeIndex.putIfAbsent(codeKey, row);
+            }
+            walletForAppend(recipient).add(row);
+            return row;
+        }
+    }
+
+    long code(int row) {
+        return chunk(row).codes.getLong((row & ROW_MASK) * Long.BYTES);
+    }
+
+    int recipient(int row) {
+        return chunk(row).recipients.getInt((row & ROW_MASK) * Integer.BYTES);
+    }
+
+    int offer(int row) {
+        return (int) INTS.getVolatile(chunk(row).offers, (row & ROW_MASK) * Integer.BYTES);
+    }
+
+    int expirationDay(int row) {
+        return (int) INTS.getVolatile(chunk(row).expirations, (row & ROW_MASK) * Integer.BYTES);
+    }
+
+    long usage(int row) {
+        return (long) LONGS.getVolatile(chunk(row).usages, (row & ROW_MASK) * Long.BYTES);
+    }
+
+    boolean isDeleted(int row) {
+        return usage(row) == DELETED;
+    }
+
+    /**
+     * Updates the mutable columns of a live row. The code and recipient of a row never change.
+     *
+     * @return false if the row was deleted, in which case it is left as it is
+     */
+    boolean update(int row, int offer, int expirationDay, long usage) {
+        Chunk chunk = chunk(row);
+        int offset = row & ROW_MASK;
+        long current;
+        do {
+            current = (long) LONGS.getVolatile(chunk.usages, offset * Long.BYTES);
+            if (current == DELETED) {
+                return false;
+            }
+        } while (!LONGS.compareAndSet(chunk.usages, offset * Long.BYTES, current, usage));
+        INTS.setVolatile(chunk.offers, offset * Integer.BYTES, offer);
+        INTS.setVolatile(chunk.expirations, offset * Integer.BYTES, expirationDay);
+        return true;
+    }
+
+    /**
+     * Tombstones a row. Its code stays indexed until it is appended again, so lookups of
+     * the code find the deleted row and treat it as missing.
+     *
+     * @return false if the row was already deleted
+     */
+    boolean delete(int row) {
+        long previous = (long) LONGS.getAndSet(chunk(row).usages, (row & ROW_MASK) * Long.BYTES, DELETED);
+        if (previous == DELETED) {
+            return false;
+        }
+        deletedCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Marks an unused row as used.
+     *
+     * @return false if the row was already used
+     */
+    boolean markUsed(int row, long usage) {
+        return LONGS.compareAndSet(chunk(row).usages, (row & ROW_MASK) * Long.BYTES, NOT_USED, usage);
+    }
+
+    /**
+     * Passes the rows of a recipient to the consumer, in the order they were appended.
+     */
+    void forEachRowOf(int recipient, IntConsumer consumer) {
+        AtomicReferenceArray<Wallet> current = wallets;
+        Wallet wallet = recipient < current.length() ? current.get(recipient) : null;
+        if (wallet != null) {
+            wallet.forEach(consumer);
+        }
+    }
+
+    private Chunk chunk(int row) {
+        return chunks[row >>> CHUNK_BITS];
+    }
+
+    private Chunk chunkForAppend(int row) {
+        int index = row >>> CHUNK_BITS;
+        Chunk[] current = chunks;
+        if (index == current.length) {
+            Chunk[] grown = Arrays.copyOf(current, index + 1);
+            grown[index] = new Chunk();
+            chunks = grown;
+            return grown[index];
+        }
+        return current[index];
+    }
+
+    private Wallet walletForAppend(int recipient) {
+        AtomicReferenceArray<Wallet> current = wallets;
+        if (recipient >= current.length()) {
+            AtomicReferenceArray<Wallet> grown = new AtomicReferenceArray<>(Math.max(recipient + 1, current.length() * 2));
+            for (int i = 0; i < current.length(); i++) {
+                grown.set(i, current.get(i));
+            }
+            wallets = grown;
+            current = grown;
+        }
+        Wallet wallet = current.get(recipient);
+        if (wallet == null) {
+            wallet = new Wallet();
+            current.set(recipient, wallet);
+        }
+        return wallet;
+    }
+
+    private static final class Chunk {
+        final ByteBuffer codes = OffHeapBuffers.allocate(CHUNK_ROWS * Long.BYTES);
+        final ByteBuffer recipients = OffHeapBuffers.allocate(CHUNK_ROWS * Integer.BYTES);
+        final ByteBuffer offers = OffHeapBuffers.allocate(CHUNK_ROWS * Integer.BYTES);
+        final ByteBuffer expirations = OffHeapBuffers.allocate(CHUNK_ROWS * Integer.BYTES);
+        final ByteBuffer usages = OffHeapBuffers.allocate(CHUNK_ROWS * Long.BYTES);
+    }
+
+    /**
+     * Append-only list of rows. The rows array is replaced before the size is raised,
+     * so a reader reading the size first always gets an array holding that many rows.
+     */
+    private static final class Wallet {
+        private volatile int[] rows = new int[4];
+        private volatile int size;
+
+        void add(int row) {
+            int[] current = rows;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, size * 2);
+                rows = current;
+            }
+            current[size] = row;
+            size = size + 1;
+        }
+
+        void forEach(IntConsumer consumer) {
+            int count = size;
+            int[] current = rows;
+            for (int i = 0; i < count; i++) {
+                consumer.accept(current[i]);
+            }
+        }
+    }
+}
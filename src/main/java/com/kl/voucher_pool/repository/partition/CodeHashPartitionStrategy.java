@@ -0,0 +1,61 @@
+package com.kl.voucher_pool.repository.partition;
+
+import com.kl.voucher_pool.model.VoucherCode;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Partition strategy spreading voucher codes over a fixed number of buckets by the hash of the code.
+ * Buckets are stored in collections named "voucher_codes_0" to "voucher_codes_{n-1}".
+ *
+ * Since the bucket is derived from the code itself, a lookup by code always hits exactly one collection.
+ * The bucket count must not change once data has been written: the migration runner only moves codes
+ * out of the "voucher_codes" collection and never rebalances codes between buckets.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public class CodeHashPartitionStrategy implements VoucherCodePartitionStrategy {
+
+    private final int buckets;
+    private final List<String> collections;
+
+    public CodeHashPartitionStrategy(int buckets) {
+        if (buckets < 1) {
+            throw new IllegalArgumentException("Partition bucket count must be positive");
+        }
+        this.buckets = buckets;
+        this.collections = IntStream.range(0, buckets)
+                .mapToObj(this::bucketCollection)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    @Override
+    public String collectionFor(VoucherCode voucherCode) {
+        return collections.get(bucketOf(voucherCode.getCode()));
+    }
+
+    @Override
+    public List<String> collectionsForCode(String code) {
+        return List.of(collections.get(bucketOf(code)));
+    }
+
+    @Override
+    public List<String> collections() {
+        return collections;
+    }
+
+    /**
+     * Maps a code to its bucket. String.hashCode is specified by the language,
+     * so every node in the cluster agrees on the bucket of a code.
+     */
+    int bucketOf(String code) {
+        return Math.floorMod(code.hashCode(), buckets);
+    }
+
+    private String bucketCollection(int bucket) {
+        return BASE_COLLECTION + "_" + bucket;
+    }
+}
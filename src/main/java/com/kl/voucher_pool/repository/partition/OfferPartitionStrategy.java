@@ -0,0 +1,80 @@
+package com.kl.voucher_pool.repository.partition;
+
+import com.kl.voucher_pool.model.VoucherCode;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Partition strategy giving every special offer its own collection, named "voucher_codes_offer_{offerId}".
+ *
+ * A viral campaign then only grows its own collection and index. A random code carries no offer,
+ * so the collection of every code is recorded in the "voucher_code_routes" collection, keyed by the code.
+ * A lookup by code reads its route and then searches exactly one collection, and since the route key
+ * is unique across all offers, inserting the route also rejects a code already taken by another offer.
+ * Wallet listings still fan out over every offer collection.
+ * The set of known collections is refreshed from the database periodically so that collections
+ * created by other nodes are picked up.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public class OfferPartitionStrategy implements VoucherCodePartitionStrategy {
+
+    static final String COLLECTION_PREFIX = BASE_COLLECTION + "_offer_";
+    static final String ROUTES_COLLECTION = "voucher_code_routes";
+
+    private final MongoTemplate mongoTemplate;
+    private final long refreshIntervalNanos;
+    private final ConcurrentSkipListSet<String> knownCollections = new ConcurrentSkipListSet<>();
+    private volatile long lastRefresh;
+    private volatile boolean refreshed;
+
+    public OfferPartitionStrategy(MongoTemplate mongoTemplate, Duration refreshInterval) {
+        this.mongoTemplate = mongoTemplate;
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+    }
+
+    @Override
+    public String collectionFor(VoucherCode voucherCode) {
+        String collection = COLLECTION_PREFIX + voucherCode.getSpecialOfferId();
+        knownCollections.add(collection);
+        return collection;
+    }
+
+    @Override
+    public List<String> collectionsForCode(String code) {
+        Document route = mongoTemplate.findById(code, Document.class, ROUTES_COLLECTION);
+        return route == null ? List.of() : List.of(route.getString("collection"));
+    }
+
+    /**
+     * Upserts the route of the code, matching on both the code and the collection, so recording the same
+     * route again changes nothing while a route to another collection fails on the unique _id.
+     */
+    @Override
+    public void register(VoucherCode voucherCode) {
+        String collection = collectionFor(voucherCode);
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(voucherCode.getCode()).and("collection").is(collection)),
+                new Update().setOnInsert("collection", collection), ROUTES_COLLECTION);
+    }
+
+    @Override
+    public List<String> collections() {
+        long now = System.nanoTime();
+        if (!refreshed || now - lastRefresh > refreshIntervalNanos) {
+            mongoTemplate.getCollectionNames().stream()
+                    .filter(name -> name.startsWith(COLLECTION_PREFIX))
+                    .forEach(knownCollections::add);
+            lastRefresh = now;
+            refreshed = true;
+        }
+        return List.copyOf(knownCollections);
+    }
+}
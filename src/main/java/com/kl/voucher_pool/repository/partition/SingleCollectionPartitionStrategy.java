@@ -0,0 +1,30 @@
+package com.kl.voucher_pool.repository.partition;
+
+import com.kl.voucher_pool.model.VoucherCode;
+
+import java.util.List;
+
+/**
+ * Default partition strategy keeping every voucher code in the "voucher_codes" collection.
+ * Scaling out is left to MongoDB sharding of that single collection.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public class SingleCollectionPartitionStrategy implements VoucherCodePartitionStrategy {
+
+    @Override
+    public String collectionFor(VoucherCode voucherCode) {
+        return BASE_COLLECTION;
+    }
+
+    @Override
+    public List<String> collectionsForCode(String code) {
+        return List.of(BASE_COLLECTION);
+    }
+
+    @Override
+    public List<String> collections() {
+        return List.of(BASE_COLLECTION);
+    }
+}
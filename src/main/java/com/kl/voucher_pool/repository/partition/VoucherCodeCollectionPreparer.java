@@ -0,0 +1,84 @@
+package com.kl.voucher_pool.repository.partition;
+
+import com.mongodb.MongoCommandException;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Prepares voucher code partition collections before they are first written to.
+ *
+ * Partition collections are created on demand, so the indexes normally declared on the entity
+ * are created here instead. The code index is unique, so a generated code that is already taken
+ * fails with a DuplicateKeyException instead of being stored twice. When sharding is enabled,
+ * each collection is also sharded on the shard key of the active partition strategy.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public class VoucherCodeCollectionPreparer {
+
+    private static final Logger logger = LoggerFactory.getLogger(VoucherCodeCollectionPreparer.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final VoucherCodePartitionStrategy partitionStrategy;
+    private final boolean shardingEnabled;
+    private final Set<String> preparedCollections = ConcurrentHashMap.newKeySet();
+
+    public VoucherCodeCollectionPreparer(MongoTemplate mongoTemplate,
+                                         VoucherCodePartitionStrategy partitionStrategy,
+                                         boolean shardingEnabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.partitionStrategy = partitionStrategy;
+        this.shardingEnabled = shardingEnabled;
+    }
+
+    /**
+     * Ensures the indexes (and, if enabled, the shard key) of a partition collection exist.
+     * The work is done at most once per collection and node.
+     * A non-unique code index left by an earlier version is replaced by the unique one, which fails
+     * if the collection still holds duplicate codes.
+     *
+     * @param collectionName The partition collection to prepare
+     */
+    public void prepare(String collectionName) {
+        if (preparedCollections.contains(collectionName)) {
+            return;
+        }
+        IndexOperations indexOps = mongoTemplate.indexOps(collectionName);
+        indexOps.getIndexInfo().stream()
+                .filter(index -> index.isIndexForFields(List.of("code")) && !index.isUnique())
+                .forEach(index -> indexOps.dropIndex(index.getName()));
+        indexOps.ensureIndex(new Index().on("code", Sort.Direction.ASC).unique());
+        indexOps.ensureIndex(new Index()
+                .on("recipientId", Sort.Direction.ASC)
+                .on("expirationDate", Sort.Direction.ASC));
+        indexOps.ensureIndex(new Index()
+                .on("expirationDate", Sort.Direction.ASC)
+                .on("usageDate", Sort.Direction.ASC)
+                .on("_id", Sort.Direction.ASC));
+        if (shardingEnabled) {
+            shardCollection(collectionName);
+        }
+        preparedCollections.add(collectionName);
+    }
+
+    private void shardCollection(String collectionName) {
+        String namespace = mongoTemplate.getDb().getName() + "." + collectionName;
+        try {
+            mongoTemplate.getMongoDatabaseFactory().getMongoDatabase("admin")
+                    .runCommand(new Document("shardCollection", namespace).append("key", partitionStrategy.shardKey()).append("unique", true));
+            logger.info("Sharded collection {} on {}", namespace, partitionStrategy.shardKey().toJson());
+        } catch (MongoCommandException e) {
+            logger.warn("Could not shard collection {}: {}", namespace, e.getErrorMessage());
+        }
+    }
+}
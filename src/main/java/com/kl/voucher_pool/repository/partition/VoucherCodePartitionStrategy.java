@@ -0,0 +1,67 @@
+package com.kl.voucher_pool.repository.partition;
+
+import com.kl.voucher_pool.model.VoucherCode;
+import org.bson.Document;
+
+import java.util.List;
+
+/**
+ * Strategy deciding which MongoDB collection a voucher code document lives in.
+ *
+ * The partitioned repository routes every write through {@link #collectionFor(VoucherCode)}.
+ * Lookups by code only search the collections returned by {@link #collectionsForCode(String)},
+ * which is why strategies that cannot derive the partition from a random code keep a record of it,
+ * written through {@link #register(VoucherCode)} before the document itself.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public interface VoucherCodePartitionStrategy {
+
+    String BASE_COLLECTION = "voucher_codes";
+
+    /**
+     * Returns the collection a voucher code document must be written to.
+     *
+     * @param voucherCode The voucher code being stored
+     * @return The name of the target collection
+     */
+    String collectionFor(VoucherCode voucherCode);
+
+    /**
+     * Returns the collections that may hold the given code.
+     *
+     * @param code The voucher code
+     * @return The names of the collections to search, most likely first
+     */
+    List<String> collectionsForCode(String code);
+
+    /**
+     * Records the collection of a voucher code about to be written, for strategies that cannot
+     * derive it from the code. Recording the same collection again has no effect.
+     *
+     * @param voucherCode The voucher code being stored
+     * @throws org.springframework.dao.DuplicateKeyException If the code is already stored in another collection
+     */
+    default void register(VoucherCode voucherCode) {
+    }
+
+    /**
+     * Returns all partition collections currently in use.
+     *
+     * @return The names of the partition collections
+     */
+    List<String> collections();
+
+    /**
+     * Returns the shard key used when the partition collections are sharded.
+     * Lookups are always by code, so a code key sends each lookup to a single shard. Codes are random,
+     * so a ranged key already spreads the inserts of a popular campaign across the whole cluster,
+     * and unlike a hashed key it lets the shards enforce the unique code index.
+     *
+     * @return The shard key specification
+     */
+    default Document shardKey() {
+        return new Document("code", 1);
+    }
+}
@@ -0,0 +1,29 @@
+package com.kl.voucher_pool.service;
+
+/**
+ * Expected business failures of the voucher pool operations, with the message reported to clients.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public enum ErrorCode {
+    RECIPIENT_NOT_FOUND("Recipient not found"),
+    SPECIAL_OFFER_NOT_FOUND("Special offer not found"),
+    INVALID_VOUCHER_CODE("Invalid voucher code"),
+    INVALID_RECIPIENT_EMAIL("Invalid recipient email"),
+    VOUCHER_ALREADY_USED("Voucher code has already been used"),
+    VOUCHER_EXPIRED("Voucher code has expired"),
+    INVALID_IDEMPOTENCY_KEY("Invalid idempotency key"),
+    IDEMPOTENCY_KEY_REUSED("Idempotency key was already used for a different request"),
+    IDEMPOTENCY_KEY_IN_PROGRESS("A request with this idempotency key is still in progress");
+
+    private final String message;
+
+    ErrorCode(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
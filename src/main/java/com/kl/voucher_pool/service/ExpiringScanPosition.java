@@ -0,0 +1,28 @@
+package com.kl.voucher_pool.service;
+
+import java.time.LocalDate;
+
+/**
+ * Position of the expiring voucher scan: the expiration date being scanned
+ * and the id of the last voucher code returned for that date.
+ * *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public class ExpiringScanPosition {
+    private final LocalDate expirationDate;
+    private final String lastId;
+
+    public ExpiringScanPosition(LocalDate expirationDate, String lastId) {
+        this.expirationDate = expirationDate;
+        this.lastId = lastId;
+    }
+
+    public LocalDate getExpirationDate() {
+        return expirationDate;
+    }
+
+    public String getLastId() {
+        return lastId;
+    }
+}
@@ -0,0 +1,52 @@
+package com.kl.voucher_pool.service;
+
+import java.time.LocalDate;
+
+/**
+ * An unused voucher code that is about to expire, joined with its recipient and special offer.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public class ExpiringVoucher {
+    private final String code;
+    private final String recipientEmail;
+    private final String recipientName;
+    private final String offerName;
+    private final double discountPercentage;
+    private final LocalDate expirationDate;
+
+    public ExpiringVoucher(String code, String recipientEmail, String recipientName,
+                           String offerName, double discountPercentage, LocalDate expirationDate) {
+        this.code = code;
+        this.recipientEmail = recipientEmail;
+        this.recipientName = recipientName;
+        this.offerName = offerName;
+        this.discountPercentage = discountPercentage;
+        this.expirationDate = expirationDate;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getRecipientEmail() {
+        return recipientEmail;
+    }
+
+    public String getRecipientName() {
+        return recipientName;
+    }
+
+    public String getOfferName() {
+        return offerName;
+    }
+
+    public double getDiscountPercentage() {
+        return discountPercentage;
+    }
+
+    public LocalDate getExpirationDate() {
+        return expirationDate;
+    }
+}
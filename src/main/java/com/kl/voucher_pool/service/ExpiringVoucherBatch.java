@@ -0,0 +1,30 @@
+package com.kl.voucher_pool.service;
+
+import java.util.List;
+
+/**
+ * A batch of expiring vouchers and the position to continue the scan from.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public class ExpiringVoucherBatch {
+    private final List<ExpiringVoucher> vouchers;
+    private final ExpiringScanPosition nextPosition;
+
+    public ExpiringVoucherBatch(List<ExpiringVoucher> vouchers, ExpiringScanPosition nextPosition) {
+        this.vouchers = vouchers;
+        this.nextPosition = nextPosition;
+    }
+
+    public List<ExpiringVoucher> getVouchers() {
+        return vouchers;
+    }
+
+    /**
+     * Returns the position of the next batch, or null once the whole window has been scanned.
+     */
+    public ExpiringScanPosition getNextPosition() {
+        return nextPosition;
+    }
+}
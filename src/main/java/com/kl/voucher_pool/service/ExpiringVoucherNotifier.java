@@ -0,0 +1,20 @@
+package com.kl.voucher_pool.service;
+
+import java.util.List;
+
+/**
+ * Receives the batches of the nightly expiring voucher job, e.g. to email the recipients.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public interface ExpiringVoucherNotifier {
+
+    /**
+     * Notifies the recipients of a batch of expiring vouchers.
+     * Batches may be delivered again if the job is interrupted before its checkpoint is saved.
+     *
+     * @param vouchers The expiring vouchers
+     */
+    void notify(List<ExpiringVoucher> vouchers);
+}
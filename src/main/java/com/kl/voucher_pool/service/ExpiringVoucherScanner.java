@@ -0,0 +1,103 @@
+package com.kl.voucher_pool.service;
+
+import com.kl.voucher_pool.model.Recipient;
+import com.kl.voucher_pool.model.SpecialOffer;
+import com.kl.voucher_pool.model.VoucherCode;
+import com.kl.voucher_pool.repository.RecipientRepository;
+import com.kl.voucher_pool.repository.SpecialOfferRepository;
+import com.kl.voucher_pool.repository.VoucherCodeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service scanning unused voucher codes that expire within a window of days.
+ *
+ * The scan walks the window one expiration date at a time and pages through each date by voucher code id,
+ * so every batch is a single range over the (expirationDate, usageDate, _id) index and only the
+ * expiring slice of the collection is read. Recipients are joined with one query per batch,
+ * special offers through the special offer cache.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+@Service
+public class ExpiringVoucherScanner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpiringVoucherScanner.class);
+
+    private final VoucherCodeRepository voucherCodeRepository;
+    private final RecipientRepository recipientRepository;
+    private final SpecialOfferRepository specialOfferRepository;
+
+    public ExpiringVoucherScanner(VoucherCodeRepository voucherCodeRepository,
+                                  RecipientRepository recipientRepository,
+                                  SpecialOfferRepository specialOfferRepository) {
+        this.voucherCodeRepository = voucherCodeRepository;
+        this.recipientRepository = recipientRepository;
+        this.specialOfferRepository = specialOfferRepository;
+    }
+
+    /**
+     * Reads the next batch of expiring vouchers.
+     *
+     * @param position The position to continue from
+     * @param windowEnd The last expiration date of the window, inclusive
+     * @param batchSize The maximum number of vouchers to return
+     * @return The vouchers found and the position of the next batch
+     */
+    public ExpiringVoucherBatch nextBatch(ExpiringScanPosition position, LocalDate windowEnd, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        LocalDate expirationDate = position.getExpirationDate();
+        String lastId = position.getLastId();
+        List<VoucherCode> voucherCodes = new ArrayList<>();
+
+        while (voucherCodes.size() < batchSize && !expirationDate.isAfter(windowEnd)) {
+            int remaining = batchSize - voucherCodes.size();
+            List<VoucherCode> page = voucherCodeRepository.findUnusedByExpirationDate(expirationDate, lastId, remaining);
+            voucherCodes.addAll(page);
+            if (page.size() < remaining) {
+                expirationDate = expirationDate.plusDays(1);
+                lastId = null;
+            } else {
+                lastId = page.get(page.size() - 1).getId();
+            }
+        }
+
+        ExpiringScanPosition nextPosition = expirationDate.isAfter(windowEnd) ? null : new ExpiringScanPosition(expirationDate, lastId);
+        return new ExpiringVoucherBatch(join(voucherCodes), nextPosition);
+    }
+
+    private List<ExpiringVoucher> join(List<VoucherCode> voucherCodes) {
+        Set<String> recipientIds = voucherCodes.stream().map(VoucherCode::getRecipientId).collect(Collectors.toSet());
+        Map<String, Recipient> recipients = recipientRepository.findAllById(recipientIds).stream()
+                .collect(Collectors.toMap(Recipient::getId, Function.identity()));
+        Map<String, Optional<SpecialOffer>> specialOffers = new HashMap<>();
+
+        List<ExpiringVoucher> expiringVouchers = new ArrayList<>(voucherCodes.size());
+        for (VoucherCode voucherCode : voucherCodes) {
+            Recipient recipient = recipients.get(voucherCode.getRecipientId());
+            Optional<SpecialOffer> specialOffer = specialOffers.computeIfAbsent(
+                    voucherCode.getSpecialOfferId(), specialOfferRepository::findById);
+            if (recipient == null || specialOffer.isEmpty()) {
+                logger.warn("Skipping expiring voucher code {} with unknown recipient or special offer", voucherCode.getCode());
+                continue;
+            }
+            expiringVouchers.add(new ExpiringVoucher(voucherCode.getCode(), recipient.getEmail(), recipient.getName(),
+                    specialOffer.get().getName(), specialOffer.get().getDiscountPercentage(), voucherCode.getExpirationDate()));
+        }
+        return expiringVouchers;
+    }
+}
@@ -0,0 +1,194 @@
+package com.kl.voucher_pool.service;
+
+import com.kl.voucher_pool.model.IdempotencyRecord;
+import com.kl.voucher_pool.model.VoucherCode;
+import com.kl.voucher_pool.repository.IdempotencyRecordRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Store remembering which voucher code was generated for an idempotency key.
+ *
+ * Completed requests are kept in a bounded in-memory LRU map in front of the "idempotency_keys" collection,
+ * so most retries are answered without a database round trip. The collection is shared by all nodes and
+ * its records expire after "voucher.idempotency.ttl", in the map as well. A key is claimed by inserting
+ * its record first, which makes the unique _id decide between concurrent retries of the same request.
+ *
+ * A claim is a lease of "voucher.idempotency.lease": if the request holding it neither completes nor
+ * releases the key in time, e.g. because its node died, a retry takes the key over instead of being
+ * told the request is still in progress until the record expires. Every claim carries the token of its
+ * request, so a slow request whose claim was taken over can no longer complete or release the key,
+ * and learns that it has to take back the voucher code it generated.
+ *
+ * Under the "embedded" profile there is no MongoDB, and the records are kept by an in-memory
+ * repository applying the same TTL instead.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    private static final int COMPLETE_ATTEMPTS = 3;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectProvider<MongoTemplate> mongoTemplate;
+    private final Duration ttl;
+    private final Duration lease;
+    private final Map<String, IdempotencyRecord> completedRecords;
+
+    public IdempotencyStore(IdempotencyRecordRepository idempotencyRecordRepository,
+                            ObjectProvider<MongoTemplate> mongoTemplate,
+                            @Value("${voucher.idempotency.ttl:24h}") Duration ttl,
+                            @Value("${voucher.idempotency.lease:30s}") Duration lease,
+                            @Value("${voucher.idempotency.max-cached-keys:10000}") int maxCachedKeys) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.ttl = ttl;
+        this.lease = lease;
+        this.completedRecords = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyRecord> eldest) {
+                return size() > maxCachedKeys;
+            }
+        });
+    }
+
+    @PostConstruct
+    void ensureTtlIndex() {
+        mongoTemplate.ifAvailable(template -> template.indexOps(IdempotencyRecord.class)
+                .ensureIndex(new Index().on("createdAt", Sort.Direction.ASC).expire(ttl)));
+    }
+
+    /**
+     * Claims an idempotency key for a new request, taking it over if the request holding it let its lease run out.
+     *
+     * @param key The idempotency key sent by the client
+     * @param fingerprint Identifies the parameters of the request
+     * @param claimToken Identifies the calling request, unique per request
+     * @return The existing record if the key was already claimed, or empty if the caller now owns the key
+     */
+    public Optional<IdempotencyRecord> claim(String key, String fingerprint, String claimToken) {
+        Instant now = Instant.now();
+        IdempotencyRecord completed = completedRecords.get(key);
+        if (completed != null) {
+            if (!isExpired(completed, now)) {
+                return Optional.of(completed);
+            }
+            completedRecords.remove(key);
+        }
+        if (insertClaim(key, fingerprint, claimToken, now)) {
+            return Optional.empty();
+        }
+        Optional<IdempotencyRecord> existing = idempotencyRecordRepository.findById(key);
+        if (existing.isEmpty()) {
+            // Released or expired since the insert collided, so the key can be claimed again.
+            if (insertClaim(key, fingerprint, claimToken, now)) {
+                return Optional.empty();
+            }
+            existing = idempotencyRecordRepository.findById(key);
+            if (existing.isEmpty()) {
+                return Optional.of(inProgress(key, fingerprint, null, now));
+            }
+        }
+        IdempotencyRecord record = existing.get();
+        if (record.isCompleted()) {
+            completedRecords.put(key, record);
+            return existing;
+        }
+        if (record.getFingerprint().equals(fingerprint) && isLeaseExpired(record, now)
+                && idempotencyRecordRepository.takeOver(key, record.getClaimedAt(), now, claimToken)) {
+            logger.info("Took over idempotency key {} after its lease expired", key);
+            return Optional.empty();
+        }
+        return existing;
+    }
+
+    /**
+     * Records the voucher code generated under a claim.
+     *
+     * If another request took the key over, the claim is lost: the voucher code of that request is returned
+     * if it completed first, and nothing otherwise. Either way the caller must take back the voucher code
+     * it generated, so that only one voucher code exists per key.
+     *
+     * @param key The idempotency key
+     * @param fingerprint Identifies the parameters of the request
+     * @param claimToken The token the key was claimed with
+     * @param voucherCode The generated voucher code
+     * @return The voucher code every response for the key answers with, or empty if the key is still in progress
+     *         under the request that took it over
+     * @throws DataAccessException If the record could not be written after a few attempts
+     */
+    public Optional<VoucherCode> complete(String key, String fingerprint, String claimToken, VoucherCode voucherCode) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                IdempotencyRecord record = idempotencyRecordRepository.completeClaim(key, claimToken, fingerprint, voucherCode, Instant.now());
+                if (record == null || !record.isCompleted()) {
+                    return Optional.empty();
+                }
+                completedRecords.put(key, record);
+                return Optional.of(record.getVoucherCode());
+            } catch (DataAccessException e) {
+                if (attempt == COMPLETE_ATTEMPTS) {
+                    throw e;
+                }
+                logger.warn("Could not complete idempotency key {}, retrying", key, e);
+            }
+        }
+    }
+
+    /**
+     * Releases a claimed key after its request failed, so that a retry can run it again.
+     * A claim that was taken over in the meantime is left to the request holding it.
+     *
+     * @param key The idempotency key
+     * @param claimToken The token the key was claimed with
+     */
+    public void release(String key, String claimToken) {
+        idempotencyRecordRepository.releaseClaim(key, claimToken);
+    }
+
+    private boolean insertClaim(String key, String fingerprint, String claimToken, Instant now) {
+        try {
+            idempotencyRecordRepository.insert(inProgress(key, fingerprint, claimToken, now));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private static IdempotencyRecord inProgress(String key, String fingerprint, String claimToken, Instant now) {
+        IdempotencyRecord record = new IdempotencyRecord(key, fingerprint, now);
+        record.setClaimedAt(now);
+        record.setClaimToken(claimToken);
+        return record;
+    }
+
+    private boolean isExpired(IdempotencyRecord record, Instant now) {
+        return record.getCreatedAt().plus(ttl).isBefore(now);
+    }
+
+    // Records claimed before leases were introduced have no claim time and are leased from their creation.
+    private boolean isLeaseExpired(IdempotencyRecord record, Instant now) {
+        Instant claimedAt = record.getClaimedAt() != null ? record.getClaimedAt() : record.getCreatedAt();
+        return claimedAt.plus(lease).isBefore(now);
+    }
+}
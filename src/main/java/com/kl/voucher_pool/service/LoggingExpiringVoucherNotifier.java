@@ -0,0 +1,27 @@
+package com.kl.voucher_pool.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Default ExpiringVoucherNotifier, logging the expiring vouchers until an email integration is plugged in.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+@Component
+public class LoggingExpiringVoucherNotifier implements ExpiringVoucherNotifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingExpiringVoucherNotifier.class);
+
+    @Override
+    public void notify(List<ExpiringVoucher> vouchers) {
+        for (ExpiringVoucher voucher : vouchers) {
+            logger.info("Voucher {} of {} for {} expires on {}",
+                    voucher.getCode(), voucher.getRecipientEmail(), voucher.getOfferName(), voucher.getExpirationDate());
+        }
+    }
+}
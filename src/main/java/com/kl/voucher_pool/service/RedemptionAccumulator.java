@@ -0,0 +1,82 @@
+package com.kl.voucher_pool.service;
+
+import com.kl.voucher_pool.model.RedemptionRollup;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the redemptions of this node per special offer and minute until they are flushed to the rollups.
+ *
+ * Recording a redemption is a lock-free increment, so validation does not wait on the rollups.
+ * Draining resets every counter and hands the counts over grouped by offer and hour, the shape
+ * in which they are stored. Counters of minutes that ended more than RETIRE_AFTER ago are dropped
+ * once drained; a redemption of such a minute arriving later simply starts a new counter.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+@Component
+public class RedemptionAccumulator {
+
+    private static final Duration RETIRE_AFTER = Duration.ofMinutes(2);
+
+    private final Map<MinuteKey, LongAdder> counts = new ConcurrentHashMap<>();
+
+    /**
+     * Counts one redemption of a special offer.
+     *
+     * @param specialOfferId The id of the redeemed special offer
+     * @param usageDate When the voucher code was redeemed
+     */
+    public void record(String specialOfferId, LocalDateTime usageDate) {
+        add(new MinuteKey(specialOfferId, usageDate.truncatedTo(ChronoUnit.MINUTES)), 1);
+    }
+
+    /**
+     * Takes the counts recorded since the previous drain.
+     *
+     * @return One increment per special offer and hour with redemptions
+     */
+    public List<RedemptionRollup> drain() {
+        LocalDateTime retireBefore = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).minus(RETIRE_AFTER);
+        Map<String, RedemptionRollup> increments = new HashMap<>();
+        for (Iterator<Map.Entry<MinuteKey, LongAdder>> entries = counts.entrySet().iterator(); entries.hasNext(); ) {
+            Map.Entry<MinuteKey, LongAdder> entry = entries.next();
+            long count = entry.getValue().sumThenReset();
+            if (entry.getKey().minute().isBefore(retireBefore)) {
+                entries.remove();
+                count += entry.getValue().sumThenReset();
+            }
+            if (count > 0) {
+                String specialOfferId = entry.getKey().specialOfferId();
+                LocalDateTime minute = entry.getKey().minute();
+                LocalDateTime hour = minute.truncatedTo(ChronoUnit.HOURS);
+                increments.computeIfAbsent(RedemptionRollup.idOf(specialOfferId, hour),
+                                id -> new RedemptionRollup(specialOfferId, hour))
+                        .add(minute.getMinute(), count);
+            }
+        }
+        return new ArrayList<>(increments.values());
+    }
+
+    private void add(MinuteKey key, long count) {
+        LongAdder counter = counts.get(key);
+        if (counter == null) {
+            counter = counts.computeIfAbsent(key, k -> new LongAdder());
+        }
+        counter.add(count);
+    }
+
+    private record MinuteKey(String specialOfferId, LocalDateTime minute) {
+    }
+}
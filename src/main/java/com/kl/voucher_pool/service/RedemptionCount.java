@@ -0,0 +1,27 @@
+package com.kl.voucher_pool.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * The number of redemptions of a special offer during one minute.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public class RedemptionCount {
+    private final LocalDateTime minute;
+    private final long count;
+
+    public RedemptionCount(LocalDateTime minute, long count) {
+        this.minute = minute;
+        this.count = count;
+    }
+
+    public LocalDateTime getMinute() {
+        return minute;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
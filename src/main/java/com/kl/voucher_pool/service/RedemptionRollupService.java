@@ -0,0 +1,123 @@
+package com.kl.voucher_pool.service;
+
+import com.kl.voucher_pool.model.RedemptionRollup;
+import com.kl.voucher_pool.model.SpecialOffer;
+import com.kl.voucher_pool.repository.RedemptionRollupRepository;
+import com.kl.voucher_pool.repository.SpecialOfferRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Service maintaining the per-minute redemption counts of the special offers for campaign dashboards.
+ *
+ * Redemptions are counted in memory by the RedemptionAccumulator and flushed to the "redemption_rollups"
+ * collection, so the counts are served without touching the voucher codes. They lag behind the
+ * redemptions by up to the flush interval.
+ *
+ * Every flush of a batch of counts is numbered. A batch that is not fully stored, whether some writes
+ * failed or the outcome is unknown, is kept with its number and sent again before new counts are
+ * drained; the rollups skip the increments that already hold that number, so nothing is counted twice.
+ * The node id is random by default, so a restarted node, which starts numbering again, is a new node.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+@Service
+public class RedemptionRollupService {
+
+    private final RedemptionAccumulator redemptionAccumulator;
+    private final RedemptionRollupRepository redemptionRollupRepository;
+    private final SpecialOfferRepository specialOfferRepository;
+    private final String nodeId;
+
+    private List<RedemptionRollup> pending = List.of();
+    private long pendingSequence;
+
+    public RedemptionRollupService(RedemptionAccumulator redemptionAccumulator,
+                                   RedemptionRollupRepository redemptionRollupRepository,
+                                   SpecialOfferRepository specialOfferRepository,
+                                   @Value("${voucher.rollups.node-id:${random.uuid}}") String nodeId) {
+        this.redemptionAccumulator = redemptionAccumulator;
+        this.redemptionRollupRepository = redemptionRollupRepository;
+        this.specialOfferRepository = specialOfferRepository;
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * Adds the redemptions counted since the last flush to the stored rollups.
+     * Counts that could not be stored are sent again by the next flush.
+     *
+     * @return The number of redemptions stored
+     */
+    public synchronized long flush() {
+        long stored = storePending();
+        if (pending.isEmpty()) {
+            pending = redemptionAccumulator.drain();
+            pendingSequence++;
+            stored += storePending();
+        }
+        return stored;
+    }
+
+    // On an exception the batch stays pending as it is, since any part of it may have been stored.
+    private long storePending() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        List<RedemptionRollup> notApplied = redemptionRollupRepository.increment(pending, nodeId, pendingSequence);
+        long stored = totalOf(pending) - totalOf(notApplied);
+        pending = notApplied;
+        return stored;
+    }
+
+    private static long totalOf(List<RedemptionRollup> increments) {
+        long total = 0;
+        for (RedemptionRollup increment : increments) {
+            total += increment.getTotal();
+        }
+        return total;
+    }
+
+    /**
+     * Retrieves the redemptions of a special offer per minute.
+     *
+     * @param specialOfferName The name of the special offer
+     * @param from The start of the range, inclusive
+     * @param to The end of the range, exclusive
+     * @return The minutes of the range with redemptions, in order, or SPECIAL_OFFER_NOT_FOUND
+     */
+    public ServiceResult<List<RedemptionCount>> getRedemptionsPerMinute(String specialOfferName, LocalDateTime from, LocalDateTime to) {
+        Optional<SpecialOffer> specialOffer = specialOfferRepository.findDashboardOfferByName(specialOfferName);
+        if (specialOffer.isEmpty()) {
+            return ServiceResult.failure(ErrorCode.SPECIAL_OFFER_NOT_FOUND);
+        }
+
+        LocalDateTime fromMinute = from.truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime toHour = to.truncatedTo(ChronoUnit.HOURS);
+        if (toHour.isBefore(to)) {
+            toHour = toHour.plusHours(1);
+        }
+        List<RedemptionRollup> rollups = redemptionRollupRepository.findHourlyRollups(
+                specialOffer.get().getId(), from.truncatedTo(ChronoUnit.HOURS), toHour);
+
+        List<RedemptionCount> counts = new ArrayList<>();
+        for (RedemptionRollup rollup : rollups) {
+            for (Map.Entry<String, Long> minute : rollup.getMinutes().entrySet()) {
+                LocalDateTime at = rollup.getHour().plusMinutes(Integer.parseInt(minute.getKey()));
+                if (!at.isBefore(fromMinute) && at.isBefore(to)) {
+                    counts.add(new RedemptionCount(at, minute.getValue()));
+                }
+            }
+        }
+        counts.sort(Comparator.comparing(RedemptionCount::getMinute));
+        return ServiceResult.success(counts);
+    }
+}
@@ -0,0 +1,74 @@
+package com.kl.voucher_pool.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Outcome of a voucher pool operation: either a value or the ErrorCode of an expected failure.
+ *
+ * Invalid, used and expired codes are the common case under brute-force traffic, so failures are
+ * returned instead of thrown, and every failure of a given ErrorCode is the same shared instance.
+ * Signalling a failure therefore neither captures a stack trace nor allocates.
+ *
+ * @param <T> The type of the value of a successful operation
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public final class ServiceResult<T> {
+
+    private static final Map<ErrorCode, ServiceResult<?>> FAILURES = new EnumMap<>(ErrorCode.class);
+
+    static {
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            FAILURES.put(errorCode, new ServiceResult<>(null, errorCode));
+        }
+    }
+
+    private final T value;
+    private final ErrorCode error;
+
+    private ServiceResult(T value, ErrorCode error) {
+        this.value = value;
+        this.error = error;
+    }
+
+    public static <T> ServiceResult<T> success(T value) {
+        return new ServiceResult<>(value, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> ServiceResult<T> failure(ErrorCode error) {
+        return (ServiceResult<T>) FAILURES.get(error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * Returns the value of a successful operation, or null for a failure.
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the reason of a failure, or null for a successful operation.
+     */
+    public ErrorCode getError() {
+        return error;
+    }
+
+    /**
+     * Returns the value, for callers that treat a failure as exceptional.
+     *
+     * @return The value of a successful operation
+     * @throws IllegalArgumentException carrying the error message if the operation failed
+     */
+    public T orElseThrow() {
+        if (error != null) {
+            throw new IllegalArgumentException(error.getMessage());
+        }
+        return value;
+    }
+}
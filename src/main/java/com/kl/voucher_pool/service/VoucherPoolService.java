@@ -1,5 +1,8 @@
 package com.kl.voucher_pool.service;
 
+import com.kl.voucher_pool.diagnostics.OperationScope;
+import com.kl.voucher_pool.diagnostics.ServiceOperation;
+import com.kl.voucher_pool.model.IdempotencyRecord;
 import com.kl.voucher_pool.model.Recipient;
 import com.kl.voucher_pool.model.SpecialOffer;
 import com.kl.voucher_pool.model.VoucherCode;
@@ -7,14 +10,18 @@ import com.kl.voucher_pool.repository.RecipientRepository;
 import com.kl.voucher_pool.repository.SpecialOfferRepository;
 import com.kl.voucher_pool.repository.VoucherCodeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Random;
-import java.util.stream.Collectors;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * Service class for managing voucher pool operations.
@@ -29,78 +36,197 @@ public class VoucherPoolService {
     private final RecipientRepository recipientRepository;
     private final SpecialOfferRepository specialOfferRepository;
     private final VoucherCodeRepository voucherCodeRepository;
+    private final IdempotencyStore idempotencyStore;
+    private final RedemptionAccumulator redemptionAccumulator;
 
     @Autowired
     public VoucherPoolService(RecipientRepository recipientRepository,
                               SpecialOfferRepository specialOfferRepository,
-                              VoucherCodeRepository voucherCodeRepository) {
+                              VoucherCodeRepository voucherCodeRepository,
+                              IdempotencyStore idempotencyStore,
+                              RedemptionAccumulator redemptionAccumulator) {
         this.recipientRepository = recipientRepository;
         this.specialOfferRepository = specialOfferRepository;
         this.voucherCodeRepository = voucherCodeRepository;
+        this.idempotencyStore = idempotencyStore;
+        this.redemptionAccumulator = redemptionAccumulator;
     }
 
     private final Random random = new Random();
-    private static final String RECIPIENT_NOT_FOUND = "Recipient not found";
-    private static final String SPECIAL_OFFER_NOT_FOUND = "Special offer not found";
     private static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
     private static final int CODE_LENGTH = 8;
+    private static final int MAX_CODE_ATTEMPTS = 5;
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
 
     /**
      * Generates a unique 8-character alphanumeric voucher code.
-     * Ensures uniqueness by checking against existing codes in the repository.
+     * Ensures uniqueness through the unique code index of the repository, drawing a new code when the
+     * random one is already taken.
      *
-     * @return A unique voucher code.
+     * @return A unique voucher code, or RECIPIENT_NOT_FOUND / SPECIAL_OFFER_NOT_FOUND.
      */
-    public VoucherCode generateVoucherCode(String recipientEmail, String specialOfferName, LocalDate expirationDate) {
-        Recipient recipient = recipientRepository.findByEmail(recipientEmail)
-                .orElseThrow(() -> new IllegalArgumentException(RECIPIENT_NOT_FOUND));
+    public ServiceResult<VoucherCode> generateVoucherCode(String recipientEmail, String specialOfferName, LocalDate expirationDate) {
+        try (OperationScope scope = OperationScope.open(ServiceOperation.GENERATE)) {
+            return completed(scope, generateNewVoucherCode(recipientEmail, specialOfferName, expirationDate));
+        }
+    }
+
+    private ServiceResult<VoucherCode> generateNewVoucherCode(String recipientEmail, String specialOfferName, LocalDate expirationDate) {
+        Optional<Recipient> recipient = recipientRepository.findByEmail(recipientEmail);
+        if (recipient.isEmpty()) {
+            return ServiceResult.failure(ErrorCode.RECIPIENT_NOT_FOUND);
+        }
 
-        SpecialOffer specialOffer = specialOfferRepository.findByName(specialOfferName)
-                .orElseThrow(() -> new IllegalArgumentException(SPECIAL_OFFER_NOT_FOUND));
+        Optional<SpecialOffer> specialOffer = specialOfferRepository.findByName(specialOfferName);
+        if (specialOffer.isEmpty()) {
+            return ServiceResult.failure(ErrorCode.SPECIAL_OFFER_NOT_FOUND);
+        }
 
-        String code = generateUniqueCode();
-        VoucherCode voucherCode = new VoucherCode(code, recipient.getId(), specialOffer.getId(), expirationDate);
-        return voucherCodeRepository.save(voucherCode);
+        for (int attempt = 1; ; attempt++) {
+            VoucherCode voucherCode = new VoucherCode(generateUniqueCode(), recipient.get().getId(),
+                    specialOffer.get().getId(), expirationDate);
+            try {
+                return ServiceResult.success(voucherCodeRepository.save(voucherCode));
+            } catch (DuplicateKeyException e) {
+                if (attempt == MAX_CODE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
     }
 
     /**
-     * Generates a unique 8-character alphanumeric voucher code.
-     * Ensures uniqueness by checking against existing codes in the repository.
+     * Generates a voucher code at most once per idempotency key.
+     *
+     * A retry carrying the key of an earlier successful request gets the voucher code of that request back,
+     * without generating or storing a new one. Reusing a key with different parameters is rejected.
+     * A request whose claim on the key was taken over deletes the voucher code it generated, so that
+     * only the voucher code of the request completing the key is kept.
      *
-     * @return A unique 8-character alphanumeric code.
+     * @param recipientEmail The email of the recipient
+     * @param specialOfferName The name of the special offer
+     * @param expirationDate The expiration date of the voucher
+     * @param idempotencyKey The key identifying the request, or null to always generate a new code
+     * @return The generated, or previously generated, voucher code, or the reason the request was rejected
      */
-    public Map<String, Object> validateVoucherCode(String code, String email) {
-        VoucherCode voucherCode = voucherCodeRepository.findByCode(code)
-                .orElseThrow(() -> new IllegalArgumentException("Invalid voucher code"));
+    public ServiceResult<VoucherCode> generateVoucherCode(String recipientEmail, String specialOfferName, LocalDate expirationDate,
+                                                          String idempotencyKey) {
+        try (OperationScope scope = OperationScope.open(ServiceOperation.GENERATE)) {
+            return completed(scope, generateVoucherCodeOnce(recipientEmail, specialOfferName, expirationDate, idempotencyKey));
+        }
+    }
+
+    private ServiceResult<VoucherCode> generateVoucherCodeOnce(String recipientEmail, String specialOfferName, LocalDate expirationDate,
+                                                               String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return generateNewVoucherCode(recipientEmail, specialOfferName, expirationDate);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            return ServiceResult.failure(ErrorCode.INVALID_IDEMPOTENCY_KEY);
+        }
 
-        Recipient recipient = recipientRepository.findById(voucherCode.getRecipientId())
-                .orElseThrow(() -> new IllegalArgumentException(RECIPIENT_NOT_FOUND));
+        String fingerprint = recipientEmail + "|" + specialOfferName + "|" + expirationDate;
+        String claimToken = UUID.randomUUID().toString();
+        Optional<IdempotencyRecord> existing = idempotencyStore.claim(idempotencyKey, fingerprint, claimToken);
+        if (existing.isPresent()) {
+            IdempotencyRecord record = existing.get();
+            if (!record.getFingerprint().equals(fingerprint)) {
+                return ServiceResult.failure(ErrorCode.IDEMPOTENCY_KEY_REUSED);
+            }
+            if (!record.isCompleted()) {
+                return ServiceResult.failure(ErrorCode.IDEMPOTENCY_KEY_IN_PROGRESS);
+            }
+            return ServiceResult.success(record.getVoucherCode());
+        }
 
-        if (!recipient.getEmail().equals(email)) {
-            throw new IllegalArgumentException("Invalid recipient email");
+        ServiceResult<VoucherCode> result;
+        try {
+            result = generateNewVoucherCode(recipientEmail, specialOfferName, expirationDate);
+        } catch (RuntimeException e) {
+            idempotencyStore.release(idempotencyKey, claimToken);
+            throw e;
+        }
+        if (!result.isSuccess()) {
+            idempotencyStore.release(idempotencyKey, claimToken);
+            return result;
+        }
+
+        VoucherCode generated = result.getValue();
+        Optional<VoucherCode> answer;
+        try {
+            answer = idempotencyStore.complete(idempotencyKey, fingerprint, claimToken, generated);
+        } catch (DataAccessException e) {
+            // Without a record a retry would generate a second voucher code, so this one is taken back first.
+            // Should that fail too, the key stays claimed until its lease runs out.
+            voucherCodeRepository.deleteById(generated.getId());
+            idempotencyStore.release(idempotencyKey, claimToken);
+            throw e;
+        }
+        if (answer.isPresent() && answer.get().getCode().equals(generated.getCode())) {
+            return ServiceResult.success(answer.get());
+        }
+        voucherCodeRepository.deleteById(generated.getId());
+        return answer.map(ServiceResult::success)
+                .orElseGet(() -> ServiceResult.failure(ErrorCode.IDEMPOTENCY_KEY_IN_PROGRESS));
+    }
+
+    /**
+     * Validates a voucher code for a recipient and marks it as used.
+     *
+     * @param code The voucher code to redeem
+     * @param email The email of the recipient redeeming the code
+     * @return The discount, offer name, expiration date and usage date of the redeemed voucher,
+     *         or the reason the voucher cannot be redeemed
+     */
+    public ServiceResult<Map<String, Object>> validateVoucherCode(String code, String email) {
+        try (OperationScope scope = OperationScope.open(ServiceOperation.VALIDATE)) {
+            return completed(scope, redeemVoucherCode(code, email));
+        }
+    }
+
+    private ServiceResult<Map<String, Object>> redeemVoucherCode(String code, String email) {
+        Optional<VoucherCode> found = voucherCodeRepository.findRedemptionStateByCode(code);
+        if (found.isEmpty()) {
+            return ServiceResult.failure(ErrorCode.INVALID_VOUCHER_CODE);
+        }
+        VoucherCode voucherCode = found.get();
+
+        Optional<Recipient> recipient = recipientRepository.findById(voucherCode.getRecipientId());
+        if (recipient.isEmpty()) {
+            return ServiceResult.failure(ErrorCode.RECIPIENT_NOT_FOUND);
+        }
+
+        if (!recipient.get().getEmail().equals(email)) {
+            return ServiceResult.failure(ErrorCode.INVALID_RECIPIENT_EMAIL);
         }
 
         if (voucherCode.getUsageDate() != null) {
-            throw new IllegalArgumentException("Voucher code has already been used");
+            return ServiceResult.failure(ErrorCode.VOUCHER_ALREADY_USED);
         }
 
         if (voucherCode.getExpirationDate().isBefore(LocalDate.now())) {
-            throw new IllegalArgumentException("Voucher code has expired");
+            return ServiceResult.failure(ErrorCode.VOUCHER_EXPIRED);
         }
 
-        SpecialOffer specialOffer = specialOfferRepository.findById(voucherCode.getSpecialOfferId())
-                .orElseThrow(() -> new IllegalArgumentException(SPECIAL_OFFER_NOT_FOUND));
+        Optional<SpecialOffer> specialOffer = specialOfferRepository.findById(voucherCode.getSpecialOfferId());
+        if (specialOffer.isEmpty()) {
+            return ServiceResult.failure(ErrorCode.SPECIAL_OFFER_NOT_FOUND);
+        }
 
         LocalDateTime usageDate = LocalDateTime.now();
+        if (!voucherCodeRepository.markUsed(voucherCode, usageDate)) {
+            // Another redemption of the same code completed since it was read.
+            return ServiceResult.failure(ErrorCode.VOUCHER_ALREADY_USED);
+        }
         voucherCode.setUsageDate(usageDate);
-        voucherCodeRepository.save(voucherCode);
+        redemptionAccumulator.record(voucherCode.getSpecialOfferId(), usageDate);
 
-        return Map.of(
-            "discount", specialOffer.getDiscountPercentage(),
-            "offerName", specialOffer.getName(),
+        return ServiceResult.success(Map.of(
+            "discount", specialOffer.get().getDiscountPercentage(),
+            "offerName", specialOffer.get().getName(),
             "expirationDate", voucherCode.getExpirationDate(),
             "usageDate", usageDate
-        );
+        ));
     }
 
     /**
@@ -111,18 +237,40 @@ public class VoucherPoolService {
      * corresponding special offer name.
      *
      * @param email The email address of the recipient
-     * @return A List of Strings, each containing a voucher code and its special offer name
-     * @throws IllegalArgumentException if the recipient is not found
+     * @return The wallet entries, each holding a voucher code and its special offer name,
+     *         or RECIPIENT_NOT_FOUND / SPECIAL_OFFER_NOT_FOUND
+     */
+    public ServiceResult<List<WalletEntry>> getValidVoucherCodes(String email) {
+        try (OperationScope scope = OperationScope.open(ServiceOperation.LIST_VALID)) {
+            return completed(scope, findValidVoucherCodes(email));
+        }
+    }
+
+    private ServiceResult<List<WalletEntry>> findValidVoucherCodes(String email) {
+        Optional<Recipient> recipient = recipientRepository.findWalletOwnerByEmail(email);
+        if (recipient.isEmpty()) {
+            return ServiceResult.failure(ErrorCode.RECIPIENT_NOT_FOUND);
+        }
+
+        List<VoucherCode> voucherCodes = voucherCodeRepository
+                .findWalletEntriesByRecipientId(recipient.get().getId(), LocalDate.now());
+        List<WalletEntry> validVouchers = new ArrayList<>(voucherCodes.size());
+        for (VoucherCode voucherCode : voucherCodes) {
+            Optional<SpecialOffer> specialOffer = specialOfferRepository.findById(voucherCode.getSpecialOfferId());
+            if (specialOffer.isEmpty()) {
+                return ServiceResult.failure(ErrorCode.SPECIAL_OFFER_NOT_FOUND);
+            }
+            validVouchers.add(new WalletEntry(voucherCode.getCode(), specialOffer.get().getName()));
+        }
+        return ServiceResult.success(validVouchers);
+    }
+
+    /**
+     * Records the outcome of a service call on its diagnostics scope.
      */
-    public List<String> getValidVoucherCodes(String email) {
-        return recipientRepository.findByEmail(email)
-                .map(recipient -> voucherCodeRepository.findByRecipientIdAndExpirationDateAfterAndUsageDateIsNull(recipient.getId(), LocalDate.now()))
-                .orElseThrow(() -> new IllegalArgumentException(RECIPIENT_NOT_FOUND))
-                .stream()
-                .map(vc -> specialOfferRepository.findById(vc.getSpecialOfferId())
-                        .map(offer -> vc.getCode() + " - " + offer.getName())
-                        .orElseThrow(() -> new IllegalArgumentException(SPECIAL_OFFER_NOT_FOUND)))
-                .collect(Collectors.toList());
+    private static <T> ServiceResult<T> completed(OperationScope scope, ServiceResult<T> result) {
+        scope.setOutcome(result.isSuccess() ? "OK" : result.getError().name());
+        return result;
     }
 
     /**
@@ -160,7 +308,7 @@ public class VoucherPoolService {
      */
     public SpecialOffer updateSpecialOfferDiscount(String specialOfferId, double newDiscountPercentage) {
         SpecialOffer specialOffer = specialOfferRepository.findById(specialOfferId)
-                .orElseThrow(() -> new IllegalArgumentException(SPECIAL_OFFER_NOT_FOUND));
+                .orElseThrow(() -> new IllegalArgumentException(ErrorCode.SPECIAL_OFFER_NOT_FOUND.getMessage()));
         specialOffer.setDiscountPercentage(newDiscountPercentage);
         return specialOfferRepository.save(specialOffer);
     }
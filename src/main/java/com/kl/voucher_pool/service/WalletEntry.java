@@ -0,0 +1,25 @@
+package com.kl.voucher_pool.service;
+
+/**
+ * A valid voucher code in the wallet of a recipient, with the name of its special offer.
+ *
+ * @author [Kuok Lim Goh]
+ * @since [2026-10-19]
+ */
+public class WalletEntry {
+    private final String code;
+    private final String offerName;
+
+    public WalletEntry(String code, String offerName) {
+        this.code = code;
+        this.offerName = offerName;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getOfferName() {
+        return offerName;
+    }
+}
@@ -0,0 +1,41 @@
+package com.kl.voucher_pool;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+/**
+ * Allocation and CPU time per operation, measured on the calling thread after a warmup.
+ * Shared by the benchmark tests, which are run with: mvn test -Pbenchmark
+ */
+final class BenchmarkMeasurement {
+
+    private static final int WARMUP_ITERATIONS = 200_000;
+    private static final int MEASURED_ITERATIONS = 1_000_000;
+
+    // Keeps the results reachable so the JIT cannot drop the measured work.
+    private static Object sink;
+
+    final double bytesPerOp;
+    final double cpuNanosPerOp;
+
+    private BenchmarkMeasurement(double bytesPerOp, double cpuNanosPerOp) {
+        this.bytesPerOp = bytesPerOp;
+        this.cpuNanosPerOp = cpuNanosPerOp;
+    }
+
+    static BenchmarkMeasurement measure(Supplier<?> operation) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink = operation.get();
+        }
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long cpuBefore = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink = operation.get();
+        }
+        long cpu = threads.getCurrentThreadCpuTime() - cpuBefore;
+        long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+        return new BenchmarkMeasurement((double) bytes / MEASURED_ITERATIONS, (double) cpu / MEASURED_ITERATIONS);
+    }
+}
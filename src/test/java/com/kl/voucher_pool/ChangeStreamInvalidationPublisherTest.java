@@ -0,0 +1,219 @@
+package com.kl.voucher_pool;
+
+import com.kl.voucher_pool.cache.CacheInvalidationEvent;
+import com.kl.voucher_pool.cache.CacheInvalidationListener;
+import com.kl.voucher_pool.cache.ChangeStreamInvalidationPublisher;
+import com.kl.voucher_pool.model.SpecialOffer;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeStreamInvalidationPublisherTest {
+
+    private static final String NODE_ID = "node-1";
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private ChangeStreamInvalidationPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        client = MongoTestServer.newClient();
+        mongoTemplate = new MongoTemplate(client, "change_stream_publisher_test");
+        mongoTemplate.getDb().drop();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (publisher != null && publisher.isRunning()) {
+            publisher.stop();
+        }
+        mongoTemplate.getDb().drop();
+        client.close();
+    }
+
+    @Test
+    void testRestart_ResumesFromStoredToken() throws InterruptedException {
+        RecordingListener listener = new RecordingListener();
+        startPublisher(listener);
+        SpecialOffer first = mongoTemplate.insert(new SpecialOffer("First Offer", 10.0));
+        assertEquals(first.getId(), listener.nextEvent().getDocumentId());
+        publisher.stop();
+
+        SpecialOffer missed = mongoTemplate.insert(new SpecialOffer("Missed Offer", 15.0));
+        publisher = new ChangeStreamInvalidationPublisher(mongoTemplate, List.of(listener), NODE_ID, Duration.ZERO);
+        publisher.start();
+
+        assertEquals(missed.getId(), listener.nextEvent().getDocumentId());
+        assertEquals(0, listener.invalidateAllCalls.get());
+    }
+
+    @Test
+    void testHistoryLost_ClearsCachesAndStartsNewStream() throws InterruptedException {
+        RecordingListener listener = new RecordingListener();
+        startPublisher(listener);
+        publisher.stop();
+        storeResumeToken(withClusterTimeBeforeOplog(storedResumeToken()));
+
+        publisher = new ChangeStreamInvalidationPublisher(mongoTemplate, List.of(listener), NODE_ID, Duration.ZERO);
+        publisher.start();
+        awaitTrue(() -> listener.invalidateAllCalls.get() == 1);
+        awaitTrue(() -> {
+            BsonDocument token = storedResumeToken();
+            return token != null && !token.equals(withClusterTimeBeforeOplog(token));
+        });
+        SpecialOffer specialOffer = mongoTemplate.insert(new SpecialOffer("Fresh Offer", 10.0));
+
+        assertEquals(specialOffer.getId(), listener.nextEvent().getDocumentId());
+    }
+
+    @Test
+    void testListenerFailure_ClearsItsCacheAndOthersStillReceiveEvent() throws InterruptedException {
+        RecordingListener failing = new RecordingListener();
+        failing.failing = true;
+        RecordingListener healthy = new RecordingListener();
+        startPublisher(failing, healthy);
+
+        SpecialOffer specialOffer = mongoTemplate.insert(new SpecialOffer("Test Offer", 10.0));
+
+        assertEquals(specialOffer.getId(), healthy.nextEvent().getDocumentId());
+        awaitTrue(() -> failing.invalidateAllCalls.get() == 1);
+        assertTrue(publisher.isRunning());
+    }
+
+    @Test
+    void testWatch_SkipsUnwatchedCollectionsAndDocumentLookups() throws InterruptedException {
+        RecordingListener listener = new RecordingListener();
+        startPublisher(listener);
+
+        mongoTemplate.getCollection("voucher_codes").insertOne(new Document("code", "TESTCODE"));
+        SpecialOffer specialOffer = mongoTemplate.insert(new SpecialOffer("Test Offer", 10.0));
+        updateDiscount(specialOffer, 20.0);
+
+        CacheInvalidationEvent inserted = listener.nextEvent();
+        CacheInvalidationEvent updated = listener.nextEvent();
+        assertEquals("special_offers", inserted.getCollection());
+        assertEquals(specialOffer.getId(), updated.getDocumentId());
+        assertNull(updated.getDocument());
+    }
+
+    @Test
+    void testWatch_LooksUpDocumentWhenListenerNeedsIt() throws InterruptedException {
+        RecordingListener listener = new RecordingListener();
+        listener.needsDocument = true;
+        startPublisher(listener);
+
+        SpecialOffer specialOffer = mongoTemplate.insert(new SpecialOffer("Test Offer", 10.0));
+        updateDiscount(specialOffer, 20.0);
+        listener.nextEvent();
+
+        assertEquals(20.0, listener.nextEvent().getDocument().getDouble("discountPercentage"));
+    }
+
+    /**
+     * Starts the publisher and waits until its stream is open, which is when it first stores a resume token.
+     */
+    private void startPublisher(CacheInvalidationListener... listeners) {
+        publisher = new ChangeStreamInvalidationPublisher(mongoTemplate, List.of(listeners), NODE_ID, Duration.ZERO);
+        publisher.start();
+        awaitTrue(() -> storedResumeToken() != null);
+    }
+
+    private MongoCollection<BsonDocument> resumeTokens() {
+        return mongoTemplate.getCollection("change_stream_resume_tokens").withDocumentClass(BsonDocument.class);
+    }
+
+    private BsonDocument storedResumeToken() {
+        BsonDocument stored = resumeTokens().find(Filters.eq("_id", NODE_ID)).first();
+        return stored == null ? null : stored.getDocument("token");
+    }
+
+    private void storeResumeToken(BsonDocument token) {
+        resumeTokens().replaceOne(Filters.eq("_id", NODE_ID), new BsonDocument("_id", new BsonString(NODE_ID)).append("token", token));
+    }
+
+    /**
+     * Resume tokens start with the cluster time of the event, encoded as the type byte 0x82 followed by
+     * the seconds and increment of the timestamp. Moving it to 1970 makes the token point before the oplog.
+     */
+    private static BsonDocument withClusterTimeBeforeOplog(BsonDocument token) {
+        String data = token.getString("_data").getValue();
+        return new BsonDocument("_data", new BsonString("82" + "00000001" + "00000001" + data.substring(18)));
+    }
+
+    private void updateDiscount(SpecialOffer specialOffer, double discountPercentage) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(specialOffer.getId())),
+                Update.update("discountPercentage", discountPercentage), SpecialOffer.class);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not met in time");
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+    }
+
+    private static final class RecordingListener implements CacheInvalidationListener {
+        private final BlockingQueue<CacheInvalidationEvent> events = new LinkedBlockingQueue<>();
+        private final AtomicInteger invalidateAllCalls = new AtomicInteger();
+        private volatile boolean failing;
+        private volatile boolean needsDocument;
+
+        @Override
+        public Set<String> collections() {
+            return Set.of("special_offers");
+        }
+
+        @Override
+        public boolean needsDocument() {
+            return needsDocument;
+        }
+
+        @Override
+        public void invalidate(CacheInvalidationEvent event) {
+            if (failing) {
+                throw new IllegalStateException("Cache unavailable");
+            }
+            events.add(event);
+        }
+
+        @Override
+        public void invalidateAll() {
+            invalidateAllCalls.incrementAndGet();
+        }
+
+        CacheInvalidationEvent nextEvent() throws InterruptedException {
+            CacheInvalidationEvent event = events.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            assertNotNull(event, "No change event received");
+            return event;
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.kl.voucher_pool;
+
+import com.kl.voucher_pool.cache.CacheInvalidationEvent;
+import com.kl.voucher_pool.cache.CacheInvalidationListener;
+import com.kl.voucher_pool.cache.ChangeStreamInvalidationPublisher;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoNamespace;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the watch loop of ChangeStreamInvalidationPublisher against a scripted change stream, next to
+ * ChangeStreamInvalidationPublisherTest which runs it against a real replica set.
+ */
+class ChangeStreamWatchLoopTest {
+
+    private static final String NODE_ID = "node-1";
+    private static final long TIMEOUT_MILLIS = 10_000;
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    private final BlockingQueue<ChangeStreamDocument<Document>> changes = new LinkedBlockingQueue<>();
+    private final BlockingQueue<RuntimeException> openFailures = new LinkedBlockingQueue<>();
+    private final AtomicInteger cursorsOpened = new AtomicInteger();
+    private final AtomicReference<BsonDocument> storedToken = new AtomicReference<>();
+
+    private MongoTemplate mongoTemplate;
+    private ChangeStreamIterable<Document> changeStream;
+    private ChangeStreamInvalidationPublisher publisher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        MongoDatabase database = mock(MongoDatabase.class);
+        changeStream = mock(ChangeStreamIterable.class);
+        when(mongoTemplate.getDb()).thenReturn(database);
+        when(database.watch(anyList())).thenReturn(changeStream);
+        when(changeStream.fullDocument(any())).thenReturn(changeStream);
+        when(changeStream.maxAwaitTime(anyLong(), any())).thenReturn(changeStream);
+        when(changeStream.resumeAfter(any())).thenReturn(changeStream);
+        when(changeStream.cursor()).thenAnswer(invocation -> openCursor());
+
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        MongoCollection<BsonDocument> resumeTokens = mock(MongoCollection.class);
+        FindIterable<BsonDocument> found = mock(FindIterable.class);
+        when(mongoTemplate.getCollection("change_stream_resume_tokens")).thenReturn(collection);
+        when(collection.withDocumentClass(BsonDocument.class)).thenReturn(resumeTokens);
+        when(resumeTokens.find(any(Bson.class))).thenReturn(found);
+        when(found.first()).thenAnswer(invocation -> storedToken.get() == null
+                ? null
+                : new BsonDocument("_id", new BsonString(NODE_ID)).append("token", storedToken.get()));
+        when(resumeTokens.replaceOne(any(Bson.class), any(BsonDocument.class), any(ReplaceOptions.class))).thenAnswer(invocation -> {
+            storedToken.set(invocation.<BsonDocument>getArgument(1).getDocument("token"));
+            return null;
+        });
+        when(resumeTokens.deleteOne(any(Bson.class))).thenAnswer(invocation -> {
+            storedToken.set(null);
+            return null;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (publisher != null && publisher.isRunning()) {
+            publisher.stop();
+        }
+    }
+
+    @Test
+    void testWatch_DispatchesChangeToListenersOfItsCollectionAndStoresToken() throws InterruptedException {
+        RecordingListener offers = new RecordingListener("special_offers");
+        RecordingListener voucherCodes = new RecordingListener("voucher_codes");
+        start(offers, voucherCodes);
+        ObjectId id = new ObjectId();
+
+        changes.add(change("special_offers", new BsonObjectId(id), "change-1"));
+
+        CacheInvalidationEvent event = offers.nextEvent();
+        assertEquals("special_offers", event.getCollection());
+        assertEquals(id.toHexString(), event.getDocumentId());
+        assertNull(event.getDocument());
+        awaitTrue(() -> token("change-1").equals(storedToken.get()));
+        assertTrue(voucherCodes.events.isEmpty());
+        verify(changeStream).fullDocument(FullDocument.DEFAULT);
+    }
+
+    @Test
+    void testWatch_LooksUpDocumentsWhenAnyListenerNeedsThem() {
+        RecordingListener offers = new RecordingListener("special_offers");
+        offers.needsDocument = true;
+
+        start(offers, new RecordingListener("voucher_codes"));
+
+        verify(changeStream).fullDocument(FullDocument.UPDATE_LOOKUP);
+    }
+
+    @Test
+    void testStart_ResumesAfterStoredToken() {
+        storedToken.set(token("stored"));
+
+        start(new RecordingListener("special_offers"));
+
+        verify(changeStream).resumeAfter(token("stored"));
+    }
+
+    @Test
+    void testStop_StoresTokenOfLastChange() throws InterruptedException {
+        RecordingListener offers = new RecordingListener("special_offers");
+        start(offers);
+        changes.add(change("special_offers", new BsonString("offer-1"), "change-1"));
+        offers.nextEvent();
+
+        publisher.stop();
+
+        assertEquals(token("change-1"), storedToken.get());
+    }
+
+    @Test
+    void testHistoryLost_ClearsCachesAndStartsNewStreamWithoutToken() {
+        storedToken.set(token("stored"));
+        openFailures.add(new MongoCommandException(new BsonDocument("ok", new BsonInt32(0))
+                .append("code", new BsonInt32(CHANGE_STREAM_HISTORY_LOST))
+                .append("errmsg", new BsonString("Resume point may no longer be in the oplog")), new ServerAddress()));
+        RecordingListener offers = new RecordingListener("special_offers");
+
+        start(offers);
+
+        assertEquals(1, offers.invalidateAllCalls.get());
+        awaitTrue(() -> token("opened-1").equals(storedToken.get()));
+        verify(changeStream, times(1)).resumeAfter(any());
+    }
+
+    @Test
+    void testOtherFailure_RetriesWithStoredToken() {
+        storedToken.set(token("stored"));
+        openFailures.add(new MongoCommandException(new BsonDocument("ok", new BsonInt32(0))
+                .append("code", new BsonInt32(91))
+                .append("errmsg", new BsonString("Server shutting down")), new ServerAddress()));
+        RecordingListener offers = new RecordingListener("special_offers");
+
+        start(offers);
+
+        assertEquals(0, offers.invalidateAllCalls.get());
+        verify(changeStream, times(2)).resumeAfter(token("stored"));
+    }
+
+    @Test
+    void testListenerFailure_ClearsItsCacheAndOthersStillReceiveEvent() throws InterruptedException {
+        RecordingListener failing = new RecordingListener("special_offers");
+        failing.failing = true;
+        RecordingListener healthy = new RecordingListener("special_offers");
+        start(failing, healthy);
+
+        changes.add(change("special_offers", new BsonString("offer-1"), "change-1"));
+
+        assertEquals("offer-1", healthy.nextEvent().getDocumentId());
+        awaitTrue(() -> failing.invalidateAllCalls.get() == 1);
+        assertTrue(publisher.isRunning());
+    }
+
+    @Test
+    void testCollectionEvent_ClearsAllCaches() {
+        RecordingListener offers = new RecordingListener("special_offers");
+        RecordingListener voucherCodes = new RecordingListener("voucher_codes");
+        start(offers, voucherCodes);
+
+        changes.add(change(null, null, "dropped"));
+
+        awaitTrue(() -> offers.invalidateAllCalls.get() == 1 && voucherCodes.invalidateAllCalls.get() == 1);
+    }
+
+    /**
+     * Starts the publisher and waits until its stream is open.
+     */
+    private void start(CacheInvalidationListener... listeners) {
+        publisher = new ChangeStreamInvalidationPublisher(mongoTemplate, List.of(listeners), NODE_ID, Duration.ZERO);
+        publisher.start();
+        awaitTrue(() -> cursorsOpened.get() > 0);
+    }
+
+    /**
+     * Opens a cursor over the scripted changes. Like a real change stream it reports a resume token
+     * as soon as it is open, and the token of the last change afterwards.
+     */
+    @SuppressWarnings("unchecked")
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> openCursor() {
+        RuntimeException failure = openFailures.poll();
+        if (failure != null) {
+            throw failure;
+        }
+        AtomicReference<BsonDocument> resumeToken = new AtomicReference<>(token("opened-" + (cursorsOpened.get() + 1)));
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = mock(MongoChangeStreamCursor.class);
+        when(cursor.tryNext()).thenAnswer(invocation -> {
+            ChangeStreamDocument<Document> change = changes.poll(50, TimeUnit.MILLISECONDS);
+            if (change != null) {
+                resumeToken.set(change.getResumeToken());
+            }
+            return change;
+        });
+        when(cursor.getResumeToken()).thenAnswer(invocation -> resumeToken.get());
+        cursorsOpened.incrementAndGet();
+        return cursor;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ChangeStreamDocument<Document> change(String collection, BsonValue id, String resumeToken) {
+        ChangeStreamDocument<Document> change = mock(ChangeStreamDocument.class);
+        when(change.getNamespace()).thenReturn(collection == null ? null : new MongoNamespace("voucher_pool", collection));
+        when(change.getDocumentKey()).thenReturn(id == null ? null : new BsonDocument("_id", id));
+        when(change.getResumeToken()).thenReturn(token(resumeToken));
+        return change;
+    }
+
+    private static BsonDocument token(String data) {
+        return new BsonDocument("_data", new BsonString(data));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not met in time");
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+    }
+
+    private static final class RecordingListener implements CacheInvalidationListener {
+        private final Set<String> collections;
+        private final BlockingQueue<CacheInvalidationEvent> events = new LinkedBlockingQueue<>();
+        private final AtomicInteger invalidateAllCalls = new AtomicInteger();
+        private volatile boolean failing;
+        private volatile boolean needsDocument;
+
+        private RecordingListener(String collection) {
+            this.collections = Set.of(collection);
+        }
+
+        @Override
+        public Set<String> collections() {
+            return collections;
+        }
+
+        @Override
+        public boolean needsDocument() {
+            return needsDocument;
+        }
+
+        @Override
+        public void invalidate(CacheInvalidationEvent event) {
+            if (failing) {
+                throw new IllegalStateException("Cache unavailable");
+            }
+            events.add(event);
+        }
+
+        @Override
+        public void invalidateAll() {
+            invalidateAllCalls.incrementAndGet();
+        }
+
+        CacheInvalidationEvent nextEvent() throws InterruptedException {
+            CacheInvalidationEvent event = events.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            assertNotNull(event, "No change event received");
+            return event;
+        }
+    }
+}
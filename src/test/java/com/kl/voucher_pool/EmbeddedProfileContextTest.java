@@ -0,0 +1,62 @@
+package com.kl.voucher_pool;
+
+import com.kl.voucher_pool.model.VoucherCode;
+import com.kl.voucher_pool.repository.VoucherCodeRepository;
+import com.kl.voucher_pool.repository.embedded.EmbeddedVoucherCodeRepository;
+import com.kl.voucher_pool.service.ErrorCode;
+import com.kl.voucher_pool.service.VoucherPoolService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Boots the application with the "embedded" profile, which must start and serve requests without MongoDB.
+ */
+@SpringBootTest(properties = {
+        "voucher.grpc.enabled=false",
+        "voucher.embedded.snapshot.path="
+})
+@ActiveProfiles("embedded")
+class EmbeddedProfileContextTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private VoucherPoolService voucherPoolService;
+
+    @Autowired
+    private VoucherCodeRepository voucherCodeRepository;
+
+    @Test
+    void testContext_StartsWithoutMongo() {
+        assertTrue(context.getBeansOfType(MongoTemplate.class).isEmpty());
+        assertInstanceOf(EmbeddedVoucherCodeRepository.class, voucherCodeRepository);
+    }
+
+    @Test
+    void testVoucherLifecycle_ServedByEmbeddedStore() {
+        VoucherCode voucherCode = voucherPoolService.generateVoucherCode("john@example.com", "Summer Sale",
+                LocalDate.now().plusDays(30)).orElseThrow();
+
+        assertTrue(voucherPoolService.getValidVoucherCodes("john@example.com").orElseThrow().stream()
+                .anyMatch(entry -> entry.getCode().equals(voucherCode.getCode()) && entry.getOfferName().equals("Summer Sale")));
+        assertEquals(20.0, voucherPoolService.validateVoucherCode(voucherCode.getCode(), "john@example.com")
+                .orElseThrow().get("discount"));
+        assertEquals(ErrorCode.VOUCHER_ALREADY_USED,
+                voucherPoolService.validateVoucherCode(voucherCode.getCode(), "john@example.com").getError());
+
+        voucherCodeRepository.deleteById(voucherCode.getId());
+
+        assertEquals(List.of(), voucherCodeRepository.findAll().stream()
+                .filter(found -> found.getId().equals(voucherCode.getId())).toList());
+    }
+}
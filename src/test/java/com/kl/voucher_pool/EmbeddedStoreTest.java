@@ -0,0 +1,214 @@
+package com.kl.voucher_pool;
+
+import com.kl.voucher_pool.model.Recipient;
+import com.kl.voucher_pool.model.SpecialOffer;
+import com.kl.voucher_pool.model.VoucherCode;
+import com.kl.voucher_pool.repository.embedded.EmbeddedRecipientRepository;
+import com.kl.voucher_pool.repository.embedded.EmbeddedSpecialOfferRepository;
+import com.kl.voucher_pool.repository.embedded.EmbeddedStore;
+import com.kl.voucher_pool.repository.embedded.EmbeddedVoucherCodeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Sort;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmbeddedStoreTest {
+
+    private EmbeddedStore store;
+    private EmbeddedRecipientRepository recipientRepository;
+    private EmbeddedSpecialOfferRepository specialOfferRepository;
+    private EmbeddedVoucherCodeRepository voucherCodeRepository;
+    private Recipient recipient;
+    private SpecialOffer specialOffer;
+
+    @BeforeEach
+    void setUp() {
+        store = new EmbeddedStore();
+        recipientRepository = new EmbeddedRecipientRepository(store);
+        specialOfferRepository = new EmbeddedSpecialOfferRepository(store);
+        voucherCodeRepository = new EmbeddedVoucherCodeRepository(store);
+        recipient = recipientRepository.save(new Recipient("test@example.com", "Test User"));
+        specialOffer = specialOfferRepository.save(new SpecialOffer("Test Offer", 10.0));
+    }
+
+    @Test
+    void testFindByCode_ReturnsSavedVoucher() {
+        LocalDate expirationDate = LocalDate.now().plusDays(30);
+        voucherCodeRepository.save(new VoucherCode("TESTCODE", recipient.getId(), specialOffer.getId(), expirationDate));
+
+        Optional<VoucherCode> result = voucherCodeRepository.findByCode("TESTCODE");
+
+        assertTrue(result.isPresent());
+        assertEquals(recipient.getId(), result.get().getRecipientId());
+        assertEquals(specialOffer.getId(), result.get().getSpecialOfferId());
+        assertEquals(expirationDate, result.get().getExpirationDate());
+        assertNull(result.get().getUsageDate());
+        assertTrue(voucherCodeRepository.findByCode("OTHERCDE").isEmpty());
+        assertTrue(voucherCodeRepository.findByCode("not-a-code").isEmpty());
+    }
+
+    @Test
+    void testMarkUsed_OnlyOneConcurrentRedemptionWins() throws Exception {
+        VoucherCode voucherCode = voucherCodeRepository.save(
+                new VoucherCode("TESTCODE", recipient.getId(), specialOffer.getId(), LocalDate.now().plusDays(30)));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> redemptions = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                redemptions.add(executor.submit(() -> voucherCodeRepository.markUsed(voucherCode, LocalDateTime.now())));
+            }
+            int wins = 0;
+            for (Future<Boolean> redemption : redemptions) {
+                wins += redemption.get() ? 1 : 0;
+            }
+            assertEquals(1, wins);
+        } finally {
+            executor.shutdown();
+        }
+        assertNotNull(voucherCodeRepository.findByCode("TESTCODE").get().getUsageDate());
+    }
+
+    @Test
+    void testFindValidByRecipient_SkipsUsedAndExpired() {
+        LocalDate today = LocalDate.now();
+        voucherCodeRepository.save(new VoucherCode("VALID001", recipient.getId(), specialOffer.getId(), today.plusDays(5)));
+        VoucherCode used = voucherCodeRepository.save(
+                new VoucherCode("USED0001", recipient.getId(), specialOffer.getId(), today.plusDays(5)));
+        voucherCodeRepository.markUsed(used, LocalDateTime.now());
+        voucherCodeRepository.save(new VoucherCode("EXPIRED1", recipient.getId(), specialOffer.getId(), today.minusDays(1)));
+
+        List<VoucherCode> result = voucherCodeRepository.findByRecipientIdAndExpirationDateAfterAndUsageDateIsNull(recipient.getId(), today);
+
+        assertEquals(1, result.size());
+        assertEquals("VALID001", result.get(0).getCode());
+    }
+
+    @Test
+    void testFindUnusedByExpirationDate_PagesById() {
+        LocalDate expirationDate = LocalDate.now().plusDays(3);
+        for (int i = 0; i < 5; i++) {
+            voucherCodeRepository.save(new VoucherCode("PAGE000" + i, recipient.getId(), specialOffer.getId(), expirationDate));
+        }
+
+        List<VoucherCode> first = voucherCodeRepository.findUnusedByExpirationDate(expirationDate, null, 3);
+        List<VoucherCode> second = voucherCodeRepository.findUnusedByExpirationDate(expirationDate, first.get(2).getId(), 3);
+
+        assertEquals(List.of("PAGE0000", "PAGE0001", "PAGE0002"), first.stream().map(VoucherCode::getCode).toList());
+        assertEquals(List.of("PAGE0003", "PAGE0004"), second.stream().map(VoucherCode::getCode).toList());
+    }
+
+    @Test
+    void testFindUnusedByExpirationDate_RejectsUnknownAfterId() {
+        LocalDate expirationDate = LocalDate.now().plusDays(3);
+        voucherCodeRepository.save(new VoucherCode("PAGE0000", recipient.getId(), specialOffer.getId(), expirationDate));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> voucherCodeRepository.findUnusedByExpirationDate(expirationDate, "000000ff", 3));
+        assertThrows(IllegalArgumentException.class,
+                () -> voucherCodeRepository.findUnusedByExpirationDate(expirationDate, "not-an-id", 3));
+    }
+
+    @Test
+    void testDeleteById_TombstonesRowAndFreesCode() {
+        LocalDate expirationDate = LocalDate.now().plusDays(5);
+        VoucherCode deleted = voucherCodeRepository.save(
+                new VoucherCode("DELETED1", recipient.getId(), specialOffer.getId(), expirationDate));
+        VoucherCode kept = voucherCodeRepository.save(
+                new VoucherCode("KEPT0001", recipient.getId(), specialOffer.getId(), expirationDate));
+
+        voucherCodeRepository.deleteById(deleted.getId());
+
+        assertTrue(voucherCodeRepository.findByCode("DELETED1").isEmpty());
+        assertTrue(voucherCodeRepository.findById(deleted.getId()).isEmpty());
+        assertFalse(voucherCodeRepository.markUsed(deleted, LocalDateTime.now()));
+        assertEquals(1, voucherCodeRepository.count());
+        assertEquals(List.of(kept.getId()), voucherCodeRepository.findAll().stream().map(VoucherCode::getId).toList());
+        assertEquals(List.of("KEPT0001"), voucherCodeRepository.findUnusedByExpirationDate(expirationDate, null, 10)
+                .stream().map(VoucherCode::getCode).toList());
+        assertEquals(List.of("KEPT0001"), voucherCodeRepository.findByRecipientIdAndExpirationDateAfterAndUsageDateIsNull(
+                recipient.getId(), LocalDate.now()).stream().map(VoucherCode::getCode).toList());
+
+        VoucherCode regenerated = voucherCodeRepository.save(
+                new VoucherCode("DELETED1", recipient.getId(), specialOffer.getId(), expirationDate));
+
+        assertEquals(regenerated.getId(), voucherCodeRepository.findByCode("DELETED1").orElseThrow().getId());
+        assertNotEquals(deleted.getId(), regenerated.getId());
+        assertEquals(2, voucherCodeRepository.count());
+    }
+
+    @Test
+    void testDeleteAll_LeavesNoVoucherCodes() {
+        voucherCodeRepository.save(new VoucherCode("DELETED1", recipient.getId(), specialOffer.getId(), LocalDate.now().plusDays(5)));
+        voucherCodeRepository.save(new VoucherCode("DELETED2", recipient.getId(), specialOffer.getId(), LocalDate.now().plusDays(5)));
+
+        voucherCodeRepository.deleteAll();
+
+        assertEquals(0, voucherCodeRepository.count());
+        assertTrue(voucherCodeRepository.findAll().isEmpty());
+        assertTrue(voucherCodeRepository.findWalletEntriesByRecipientId(recipient.getId(), LocalDate.now()).isEmpty());
+    }
+
+    @Test
+    void testFindAll_SortsByProperty() {
+        specialOfferRepository.save(new SpecialOffer("Another Offer", 25.0));
+        specialOfferRepository.save(new SpecialOffer("Last Offer", 5.0));
+
+        List<SpecialOffer> byDiscount = specialOfferRepository.findAll(Sort.by(Sort.Direction.DESC, "discountPercentage"));
+        List<SpecialOffer> byName = specialOfferRepository.findAll(Sort.by(Sort.Order.asc("name").ignoreCase()));
+
+        assertEquals(List.of(25.0, 10.0, 5.0), byDiscount.stream().map(SpecialOffer::getDiscountPercentage).toList());
+        assertEquals(List.of("Another Offer", "Last Offer", "Test Offer"), byName.stream().map(SpecialOffer::getName).toList());
+    }
+
+    @Test
+    void testSnapshot_RestoresTablesAndUsage(@TempDir Path directory) throws Exception {
+        VoucherCode used = voucherCodeRepository.save(
+                new VoucherCode("USED0001", recipient.getId(), specialOffer.getId(), LocalDate.now().plusDays(5)));
+        voucherCodeRepository.markUsed(used, LocalDateTime.now());
+        voucherCodeRepository.save(new VoucherCode("VALID001", recipient.getId(), specialOffer.getId(), LocalDate.now().plusDays(5)));
+        Path snapshot = directory.resolve("voucher-pool.snapshot");
+
+        store.writeSnapshot(snapshot);
+        EmbeddedStore restored = new EmbeddedStore();
+        assertEquals(2, restored.restoreSnapshot(snapshot));
+
+        EmbeddedVoucherCodeRepository restoredVouchers = new EmbeddedVoucherCodeRepository(restored);
+        assertEquals("Test User", new EmbeddedRecipientRepository(restored).findByEmail("test@example.com").get().getName());
+        assertEquals(10.0, new EmbeddedSpecialOfferRepository(restored).findByName("Test Offer").get().getDiscountPercentage());
+        assertNotNull(restoredVouchers.findByCode("USED0001").get().getUsageDate());
+        assertEquals(recipient.getId(), restoredVouchers.findByCode("VALID001").get().getRecipientId());
+        assertFalse(restoredVouchers.markUsed(restoredVouchers.findByCode("USED0001").get(), LocalDateTime.now()));
+    }
+
+    @Test
+    void testSnapshot_KeepsDeletedRowsDeleted(@TempDir Path directory) throws Exception {
+        LocalDate expirationDate = LocalDate.now().plusDays(5);
+        VoucherCode deleted = voucherCodeRepository.save(
+                new VoucherCode("REUSED01", recipient.getId(), specialOffer.getId(), expirationDate));
+        voucherCodeRepository.deleteById(deleted.getId());
+        VoucherCode regenerated = voucherCodeRepository.save(
+                new VoucherCode("REUSED01", recipient.getId(), specialOffer.getId(), expirationDate));
+        Path snapshot = directory.resolve("voucher-pool.snapshot");
+
+        store.writeSnapshot(snapshot);
+        EmbeddedStore restored = new EmbeddedStore();
+        restored.restoreSnapshot(snapshot);
+
+        EmbeddedVoucherCodeRepository restoredVouchers = new EmbeddedVoucherCodeRepository(restored);
+        assertEquals(1, restoredVouchers.count());
+        assertTrue(restoredVouchers.findById(deleted.getId()).isEmpty());
+        assertEquals(regenerated.getId(), restoredVouchers.findByCode("REUSED01").orElseThrow().getId());
+    }
+}
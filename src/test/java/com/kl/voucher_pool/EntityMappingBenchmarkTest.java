@@ -0,0 +1,59 @@
+package com.kl.voucher_pool;
+
+import com.kl.voucher_pool.model.VoucherCode;
+import com.kl.voucher_pool.repository.codec.ModelCodecs;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+
+import java.time.LocalDate;
+
+import static com.kl.voucher_pool.BenchmarkMeasurement.measure;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares decoding voucher code documents, as received from the server, through MappingMongoConverter
+ * (as done before the codecs) with the hand-written VoucherCodeCodec, for the full document and for the
+ * redemption and wallet projections. Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class EntityMappingBenchmarkTest {
+
+    private final MappingMongoConverter converter = ModelCodecsTest.mappingConverter();
+    private final DocumentCodec documentCodec = new DocumentCodec();
+    private final Codec<VoucherCode> voucherCodeCodec = ModelCodecs.REGISTRY.get(VoucherCode.class);
+
+    @Test
+    void benchmarkVoucherCodeDecoding() {
+        VoucherCode voucherCode = new VoucherCode("TESTCODE", new ObjectId().toHexString(), new ObjectId().toHexString(),
+                LocalDate.now().plusDays(30));
+        voucherCode.setId(new ObjectId().toHexString());
+        Document document = new Document();
+        converter.write(voucherCode, document);
+        RawBsonDocument full = new RawBsonDocument(document, documentCodec);
+        RawBsonDocument redemption = new RawBsonDocument(new Document("_id", document.get("_id"))
+                .append("recipientId", document.get("recipientId"))
+                .append("specialOfferId", document.get("specialOfferId"))
+                .append("expirationDate", document.get("expirationDate")), documentCodec);
+        RawBsonDocument wallet = new RawBsonDocument(new Document("code", document.get("code"))
+                .append("specialOfferId", document.get("specialOfferId")), documentCodec);
+
+        BenchmarkMeasurement mapping = measure(() -> converter.read(VoucherCode.class, full.decode(documentCodec)));
+        BenchmarkMeasurement codec = measure(() -> full.decode(voucherCodeCodec));
+        BenchmarkMeasurement redemptionCodec = measure(() -> redemption.decode(voucherCodeCodec));
+        BenchmarkMeasurement walletCodec = measure(() -> wallet.decode(voucherCodeCodec));
+
+        System.out.printf("%-20s %14s %14s%n", "path", "bytes/op", "cpu ns/op");
+        System.out.printf("%-20s %14.1f %14.1f%n", "mapping", mapping.bytesPerOp, mapping.cpuNanosPerOp);
+        System.out.printf("%-20s %14.1f %14.1f%n", "codec", codec.bytesPerOp, codec.cpuNanosPerOp);
+        System.out.printf("%-20s %14.1f %14.1f%n", "codec (redemption)", redemptionCodec.bytesPerOp, redemptionCodec.cpuNanosPerOp);
+        System.out.printf("%-20s %14.1f %14.1f%n", "codec (wallet)", walletCodec.bytesPerOp, walletCodec.cpuNanosPerOp);
+
+        assertTrue(codec.bytesPerOp < mapping.bytesPerOp);
+    }
+}
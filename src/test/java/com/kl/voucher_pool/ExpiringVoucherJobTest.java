@@ -0,0 +1,115 @@
+package com.kl.voucher_pool;
+
+import com.kl.voucher_pool.config.ExpiringVoucherJob;
+import com.kl.voucher_pool.model.ExpiryNotification;
+import com.kl.voucher_pool.model.ScanCheckpoint;
+import com.kl.voucher_pool.repository.embedded.EmbeddedExpiryNotificationRepository;
+import com.kl.voucher_pool.repository.embedded.EmbeddedScanCheckpointRepository;
+import com.kl.voucher_pool.service.ExpiringScanPosition;
+import com.kl.voucher_pool.service.ExpiringVoucher;
+import com.kl.voucher_pool.service.ExpiringVoucherBatch;
+import com.kl.voucher_pool.service.ExpiringVoucherNotifier;
+import com.kl.voucher_pool.service.ExpiringVoucherScanner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ExpiringVoucherJobTest {
+
+    private static final String JOB_ID = "expiring-vouchers";
+
+    private final LocalDate today = LocalDate.now();
+
+    private ExpiringVoucherScanner scanner;
+    private ExpiringVoucherNotifier notifier;
+    private EmbeddedScanCheckpointRepository checkpoints;
+    private EmbeddedExpiryNotificationRepository notifications;
+    private ExpiringVoucherJob job;
+
+    @BeforeEach
+    void setUp() {
+        scanner = mock(ExpiringVoucherScanner.class);
+        scanReturns();
+        notifier = mock(ExpiringVoucherNotifier.class);
+        checkpoints = new EmbeddedScanCheckpointRepository();
+        notifications = new EmbeddedExpiryNotificationRepository();
+        job = new ExpiringVoucherJob(scanner, notifier, checkpoints, notifications, 7, 500);
+    }
+
+    @Test
+    void testFirstRun_ScansWholeWindow() {
+        job.run();
+
+        assertEquals(today, scannedFrom());
+    }
+
+    @Test
+    void testNextRun_ScansWholeWindowAgain() {
+        ScanCheckpoint yesterday = new ScanCheckpoint(JOB_ID, today.minusDays(1), today.plusDays(6), today.plusDays(6));
+        yesterday.setCompleted(true);
+        checkpoints.save(yesterday);
+
+        job.run();
+
+        assertEquals(today, scannedFrom());
+        assertTrue(checkpoints.findById(JOB_ID).orElseThrow().isCompleted());
+    }
+
+    @Test
+    void testNextRun_NotifiesOnlyVouchersNotNotifiedBefore() {
+        ExpiringVoucher notified = voucher("CODE0001", today.plusDays(3));
+        notifications.save(new ExpiryNotification("CODE0001", today.plusDays(3)));
+        // Generated after the previous run, with an expiration date that was already inside its window.
+        ExpiringVoucher generatedSince = voucher("CODE0002", today.plusDays(2));
+        scanReturns(notified, generatedSince);
+
+        job.run();
+
+        verify(notifier).notify(List.of(generatedSince));
+        assertTrue(notifications.existsById("CODE0002"));
+    }
+
+    @Test
+    void testRun_RemovesNotificationsOfExpiredVouchers() {
+        notifications.save(new ExpiryNotification("EXPIRED1", today.minusDays(1)));
+        notifications.save(new ExpiryNotification("CODE0001", today));
+
+        job.run();
+
+        assertFalse(notifications.existsById("EXPIRED1"));
+        assertTrue(notifications.existsById("CODE0001"));
+    }
+
+    @Test
+    void testCompletedRun_IsNotRepeated() {
+        ScanCheckpoint todayRun = new ScanCheckpoint(JOB_ID, today, today.plusDays(7), today.plusDays(7));
+        todayRun.setCompleted(true);
+        checkpoints.save(todayRun);
+
+        job.run();
+
+        verifyNoInteractions(scanner);
+    }
+
+    private void scanReturns(ExpiringVoucher... vouchers) {
+        when(scanner.nextBatch(any(ExpiringScanPosition.class), any(LocalDate.class), anyInt()))
+                .thenReturn(new ExpiringVoucherBatch(List.of(vouchers), null));
+    }
+
+    private ExpiringVoucher voucher(String code, LocalDate expirationDate) {
+        return new ExpiringVoucher(code, "test@example.com", "Test User", "Test Offer", 10.0, expirationDate);
+    }
+
+    private LocalDate scannedFrom() {
+        ArgumentCaptor<ExpiringScanPosition> position = ArgumentCaptor.forClass(ExpiringScanPosition.class);
+        verify(scanner).nextBatch(position.capture(), eq(today.plusDays(7)), eq(500));
+        return position.getValue().getExpirationDate();
+    }
+}
@@ -0,0 +1,79 @@
+package com.kl.voucher_pool;
+
+import com.kl.voucher_pool.model.Recipient;
+import com.kl.voucher_pool.model.SpecialOffer;
+import com.kl.voucher_pool.model.VoucherCode;
+import com.kl.voucher_pool.repository.RecipientRepository;
+import com.kl.voucher_pool.repository.SpecialOfferRepository;
+import com.kl.voucher_pool.repository.VoucherCodeRepository;
+import com.kl.voucher_pool.service.ExpiringScanPosition;
+import com.kl.voucher_pool.service.ExpiringVoucherBatch;
+import com.kl.voucher_pool.service.ExpiringVoucherScanner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ExpiringVoucherScannerTest {
+
+    private final LocalDate today = LocalDate.of(2030, 1, 1);
+
+    private VoucherCodeRepository voucherCodeRepository;
+    private RecipientRepository recipientRepository;
+    private SpecialOfferRepository specialOfferRepository;
+    private ExpiringVoucherScanner scanner;
+
+    @BeforeEach
+    void setUp() {
+        voucherCodeRepository = mock(VoucherCodeRepository.class);
+        recipientRepository = mock(RecipientRepository.class);
+        specialOfferRepository = mock(SpecialOfferRepository.class);
+        scanner = new ExpiringVoucherScanner(voucherCodeRepository, recipientRepository, specialOfferRepository);
+
+        Recipient recipient = new Recipient("test@example.com", "Test User");
+        recipient.setId("r1");
+        SpecialOffer specialOffer = new SpecialOffer("Test Offer", 10.0);
+        specialOffer.setId("o1");
+        when(recipientRepository.findAllById(anyIterable())).thenReturn(List.of(recipient));
+        when(specialOfferRepository.findById("o1")).thenReturn(Optional.of(specialOffer));
+    }
+
+    private VoucherCode voucher(String id, LocalDate expirationDate) {
+        VoucherCode voucherCode = new VoucherCode("CODE" + id, "r1", "o1", expirationDate);
+        voucherCode.setId(id);
+        return voucherCode;
+    }
+
+    @Test
+    void testNextBatch_PagesWithinADate() {
+        when(voucherCodeRepository.findUnusedByExpirationDate(today, null, 2))
+                .thenReturn(List.of(voucher("1", today), voucher("2", today)));
+
+        ExpiringVoucherBatch batch = scanner.nextBatch(new ExpiringScanPosition(today, null), today.plusDays(3), 2);
+
+        assertEquals(2, batch.getVouchers().size());
+        assertEquals("test@example.com", batch.getVouchers().get(0).getRecipientEmail());
+        assertEquals("Test Offer", batch.getVouchers().get(0).getOfferName());
+        assertEquals(today, batch.getNextPosition().getExpirationDate());
+        assertEquals("2", batch.getNextPosition().getLastId());
+    }
+
+    @Test
+    void testNextBatch_MovesToNextDateWhenExhausted() {
+        LocalDate tomorrow = today.plusDays(1);
+        when(voucherCodeRepository.findUnusedByExpirationDate(today, "2", 3)).thenReturn(List.of(voucher("3", today)));
+        when(voucherCodeRepository.findUnusedByExpirationDate(tomorrow, null, 2)).thenReturn(List.of(voucher("4", tomorrow)));
+
+        ExpiringVoucherBatch batch = scanner.nextBatch(new ExpiringScanPosition(today, "2"), tomorrow, 3);
+
+        assertEquals(2, batch.getVouchers().size());
+        assertNull(batch.getNextPosition());
+        verify(specialOfferRepository, times(1)).findById("o1");
+    }
+}
@@ -0,0 +1,67 @@
+package com.kl.voucher_pool;
+
+import com.kl.voucher_pool.model.IdempotencyRecord;
+import com.kl.voucher_pool.model.VoucherCode;
+import com.kl.voucher_pool.repository.ClaimingIdempotencyRecordRepositoryImpl;
+import com.mongodb.client.MongoClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyRecordRepositoryTest {
+
+    private static final String FINGERPRINT = "test@example.com|Test Offer|2030-01-01";
+
+    private final Instant claimedAt = Instant.now().minusSeconds(60).truncatedTo(ChronoUnit.MILLIS);
+    private final VoucherCode firstCode = new VoucherCode("FIRSTCOD", "1", "1", LocalDate.of(2030, 1, 1));
+    private final VoucherCode secondCode = new VoucherCode("SECONDCO", "1", "1", LocalDate.of(2030, 1, 1));
+
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private ClaimingIdempotencyRecordRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        client = MongoTestServer.newClient();
+        mongoTemplate = new MongoTemplate(client, "idempotency_record_repository_test");
+        mongoTemplate.getDb().drop();
+        repository = new ClaimingIdempotencyRecordRepositoryImpl(mongoTemplate);
+        IdempotencyRecord claimed = new IdempotencyRecord("key-1", FINGERPRINT, claimedAt);
+        claimed.setClaimedAt(claimedAt);
+        claimed.setClaimToken("token-1");
+        mongoTemplate.insert(claimed);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongoTemplate.getDb().drop();
+        client.close();
+    }
+
+    @Test
+    void testCompleteClaim_FencedAfterTakeOver() {
+        assertTrue(repository.takeOver("key-1", claimedAt, Instant.now(), "token-2"));
+
+        assertFalse(repository.completeClaim("key-1", "token-1", FINGERPRINT, firstCode, Instant.now()).isCompleted());
+        assertEquals("SECONDCO", repository.completeClaim("key-1", "token-2", FINGERPRINT, secondCode, Instant.now())
+                .getVoucherCode().getCode());
+        assertEquals("SECONDCO", repository.completeClaim("key-1", "token-1", FINGERPRINT, firstCode, Instant.now())
+                .getVoucherCode().getCode());
+    }
+
+    @Test
+    void testReleaseClaim_OnlyByClaimHolder() {
+        repository.releaseClaim("key-1", "token-2");
+        assertNotNull(mongoTemplate.findById("key-1", IdempotencyRecord.class));
+
+        repository.releaseClaim("key-1", "token-1");
+        assertNull(mongoTemplate.findById("key-1", IdempotencyRecord.class));
+    }
+}
@@ -0,0 +1,123 @@
+package com.kl.voucher_pool;
+
+import com.kl.voucher_pool.model.IdempotencyRecord;
+import com.kl.voucher_pool.model.VoucherCode;
+import com.kl.voucher_pool.repository.IdempotencyRecordRepository;
+import com.kl.voucher_pool.repository.embedded.EmbeddedIdempotencyRecordRepository;
+import com.kl.voucher_pool.service.IdempotencyStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class IdempotencyStoreTest {
+
+    private static final String FINGERPRINT = "test@example.com|Test Offer|2030-01-01";
+
+    private final VoucherCode firstCode = new VoucherCode("FIRSTCOD", "1", "1", LocalDate.of(2030, 1, 1));
+    private final VoucherCode secondCode = new VoucherCode("SECONDCO", "1", "1", LocalDate.of(2030, 1, 1));
+
+    @Test
+    void testClaim_InProgressWhileLeaseHolds() {
+        IdempotencyStore store = store(new EmbeddedIdempotencyRecordRepository(Duration.ofHours(24)), Duration.ofHours(24));
+
+        assertTrue(store.claim("key-1", FINGERPRINT, "token-1").isEmpty());
+        Optional<IdempotencyRecord> retry = store.claim("key-1", FINGERPRINT, "token-2");
+
+        assertTrue(retry.isPresent());
+        assertFalse(retry.get().isCompleted());
+    }
+
+    @Test
+    void testClaim_TakesOverExpiredLeaseOnce() {
+        EmbeddedIdempotencyRecordRepository repository = new EmbeddedIdempotencyRecordRepository(Duration.ofHours(24));
+        IdempotencyStore store = store(repository, Duration.ofHours(24));
+        IdempotencyRecord abandoned = new IdempotencyRecord("key-1", FINGERPRINT, Instant.now().minusSeconds(60));
+        abandoned.setClaimedAt(abandoned.getCreatedAt());
+        repository.save(abandoned);
+
+        assertTrue(store.claim("key-1", FINGERPRINT, "token-2").isEmpty());
+        assertTrue(store.claim("key-1", FINGERPRINT, "token-3").isPresent());
+    }
+
+    @Test
+    void testClaim_DoesNotTakeOverForDifferentRequest() {
+        EmbeddedIdempotencyRecordRepository repository = new EmbeddedIdempotencyRecordRepository(Duration.ofHours(24));
+        IdempotencyStore store = store(repository, Duration.ofHours(24));
+        IdempotencyRecord abandoned = new IdempotencyRecord("key-1", "other|request|2030-01-01", Instant.now().minusSeconds(60));
+        abandoned.setClaimedAt(abandoned.getCreatedAt());
+        repository.save(abandoned);
+
+        Optional<IdempotencyRecord> existing = store.claim("key-1", FINGERPRINT, "token-1");
+
+        assertTrue(existing.isPresent());
+        assertEquals("other|request|2030-01-01", existing.get().getFingerprint());
+    }
+
+    @Test
+    void testComplete_TakenOverClaimCannotComplete() {
+        EmbeddedIdempotencyRecordRepository repository = new EmbeddedIdempotencyRecordRepository(Duration.ofHours(24));
+        IdempotencyStore store = store(repository, Duration.ofHours(24));
+        IdempotencyRecord slow = new IdempotencyRecord("key-1", FINGERPRINT, Instant.now().minusSeconds(60));
+        slow.setClaimedAt(slow.getCreatedAt());
+        slow.setClaimToken("token-1");
+        repository.save(slow);
+        assertTrue(store.claim("key-1", FINGERPRINT, "token-2").isEmpty());
+
+        assertEquals(Optional.empty(), store.complete("key-1", FINGERPRINT, "token-1", firstCode));
+        assertEquals(Optional.of(secondCode), store.complete("key-1", FINGERPRINT, "token-2", secondCode));
+        assertEquals(Optional.of(secondCode), store.complete("key-1", FINGERPRINT, "token-1", firstCode));
+        assertEquals(secondCode, store.claim("key-1", FINGERPRINT, "token-3").orElseThrow().getVoucherCode());
+    }
+
+    @Test
+    void testRelease_LeavesTakenOverClaim() {
+        EmbeddedIdempotencyRecordRepository repository = new EmbeddedIdempotencyRecordRepository(Duration.ofHours(24));
+        IdempotencyStore store = store(repository, Duration.ofHours(24));
+        store.claim("key-1", FINGERPRINT, "token-1");
+
+        store.release("key-1", "token-2");
+        assertTrue(repository.existsById("key-1"));
+
+        store.release("key-1", "token-1");
+        assertFalse(repository.existsById("key-1"));
+    }
+
+    @Test
+    void testClaim_CachedCompletionExpiresWithTtl() throws InterruptedException {
+        IdempotencyStore store = store(new EmbeddedIdempotencyRecordRepository(Duration.ofMillis(50)), Duration.ofMillis(50));
+        store.claim("key-1", FINGERPRINT, "token-1");
+        store.complete("key-1", FINGERPRINT, "token-1", firstCode);
+
+        Thread.sleep(100);
+
+        assertTrue(store.claim("key-1", FINGERPRINT, "token-1").isEmpty());
+    }
+
+    @Test
+    void testComplete_FailsWhenRecordCannotBeWritten() {
+        IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+        when(repository.completeClaim(anyString(), anyString(), anyString(), any(VoucherCode.class), any(Instant.class)))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"));
+        IdempotencyStore store = store(repository, Duration.ofHours(24));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> store.complete("key-1", FINGERPRINT, "token-1", firstCode));
+
+        verify(repository, times(3)).completeClaim(eq("key-1"), eq("token-1"), eq(FINGERPRINT), eq(firstCode), any(Instant.class));
+        verify(repository, never()).releaseClaim(anyString(), anyString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static IdempotencyStore store(IdempotencyRecordRepository repository, Duration ttl) {
+        return new IdempotencyStore(repository, mock(ObjectProvider.class), ttl, Duration.ofSeconds(30), 100);
+    }
+}
@@ -0,0 +1,121 @@
+package com.kl.voucher_pool;
+
+import com.kl.voucher_pool.model.Recipient;
+import com.kl.voucher_pool.model.SpecialOffer;
+import com.kl.voucher_pool.model.VoucherCode;
+import com.kl.voucher_pool.repository.codec.ModelCodecs;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.BsonInvalidOperationException;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModelCodecsTest {
+
+    private final MappingMongoConverter converter = mappingConverter();
+
+    @Test
+    void testVoucherCodeCodec_ReadsMappedDocument() {
+        VoucherCode voucherCode = new VoucherCode("TESTCODE", new ObjectId().toHexString(), new ObjectId().toHexString(),
+                LocalDate.now().plusDays(30));
+        voucherCode.setId(new ObjectId().toHexString());
+        voucherCode.setUsageDate(LocalDateTime.now().withNano(123_000_000));
+
+        VoucherCode decoded = decode(mapped(voucherCode), VoucherCode.class);
+
+        assertEquals(voucherCode.getId(), decoded.getId());
+        assertEquals(voucherCode.getCode(), decoded.getCode());
+        assertEquals(voucherCode.getRecipientId(), decoded.getRecipientId());
+        assertEquals(voucherCode.getSpecialOfferId(), decoded.getSpecialOfferId());
+        assertEquals(voucherCode.getExpirationDate(), decoded.getExpirationDate());
+        assertEquals(voucherCode.getUsageDate(), decoded.getUsageDate());
+    }
+
+    @Test
+    void testVoucherCodeCodec_WritesMappedDocument() {
+        VoucherCode voucherCode = new VoucherCode("TESTCODE", "1", "2", LocalDate.now().plusDays(30));
+        voucherCode.setId(new ObjectId().toHexString());
+
+        assertEquals(mapped(voucherCode), encode(voucherCode, VoucherCode.class));
+    }
+
+    @Test
+    void testRecipientAndSpecialOfferCodecs_MatchMappedDocuments() {
+        Recipient recipient = new Recipient("test@example.com", "Test User");
+        recipient.setId(new ObjectId().toHexString());
+        SpecialOffer specialOffer = new SpecialOffer("Test Offer", 12.5);
+        specialOffer.setId(new ObjectId().toHexString());
+
+        assertEquals(mapped(recipient), encode(recipient, Recipient.class));
+        assertEquals(mapped(specialOffer), encode(specialOffer, SpecialOffer.class));
+        assertEquals("test@example.com", decode(mapped(recipient), Recipient.class).getEmail());
+        assertEquals(12.5, decode(mapped(specialOffer), SpecialOffer.class).getDiscountPercentage());
+    }
+
+    @Test
+    void testVoucherCodeCodec_LeavesProjectedFieldsNull() {
+        BsonDocument projected = new BsonDocument()
+                .append("code", new BsonString("TESTCODE"))
+                .append("specialOfferId", new BsonString("2"));
+
+        VoucherCode decoded = decode(projected, VoucherCode.class);
+
+        assertEquals("TESTCODE", decoded.getCode());
+        assertEquals("2", decoded.getSpecialOfferId());
+        assertNull(decoded.getId());
+        assertNull(decoded.getExpirationDate());
+    }
+
+    @Test
+    void testSpecialOfferCodec_RejectsNonNumericDiscount() {
+        BsonDocument stored = new BsonDocument()
+                .append("name", new BsonString("Test Offer"))
+                .append("discountPercentage", new BsonString("12.5"));
+
+        assertThrows(BsonInvalidOperationException.class, () -> decode(stored, SpecialOffer.class));
+    }
+
+    private BsonDocument mapped(Object entity) {
+        Document document = new Document();
+        converter.write(entity, document);
+        return document.toBsonDocument(BsonDocument.class, ModelCodecs.REGISTRY);
+    }
+
+    private static <T> BsonDocument encode(T entity, Class<T> type) {
+        BsonDocument document = new BsonDocument();
+        ModelCodecs.REGISTRY.get(type).encode(new BsonDocumentWriter(document), entity, EncoderContext.builder().build());
+        return document;
+    }
+
+    private static <T> T decode(BsonDocument document, Class<T> type) {
+        Codec<T> codec = ModelCodecs.REGISTRY.get(type);
+        return codec.decode(new BsonDocumentReader(document), DecoderContext.builder().build());
+    }
+
+    static MappingMongoConverter mappingConverter() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+}
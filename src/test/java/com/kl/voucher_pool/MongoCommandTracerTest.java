@@ -0,0 +1,101 @@
+package com.kl.voucher_pool;
+
+import com.kl.voucher_pool.diagnostics.MongoCommandTracer;
+import com.kl.voucher_pool.diagnostics.OperationScope;
+import com.kl.voucher_pool.diagnostics.ServiceOperation;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MongoCommandTracerTest {
+
+    private final ConnectionDescription connection = new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+    @Test
+    void testCommandsAreAttributedToOperation(@TempDir Path directory) throws Exception {
+        MongoCommandTracer tracer = new MongoCommandTracer(Duration.ofMillis(100));
+        Path dump = directory.resolve("recording.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable("com.kl.voucher_pool.ServiceCall");
+            recording.enable("com.kl.voucher_pool.MongoCommand");
+            recording.start();
+            try (OperationScope scope = OperationScope.open(ServiceOperation.VALIDATE)) {
+                runCommand(tracer, 1, "find", TimeUnit.MILLISECONDS.toNanos(3));
+                runCommand(tracer, 2, "update", TimeUnit.MILLISECONDS.toNanos(5));
+                scope.setOutcome("OK");
+            }
+            runCommand(tracer, 3, "find", TimeUnit.MILLISECONDS.toNanos(1));
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        List<RecordedEvent> commands = events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.kl.voucher_pool.MongoCommand"))
+                .toList();
+        List<RecordedEvent> calls = events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.kl.voucher_pool.ServiceCall"))
+                .toList();
+
+        assertEquals(3, commands.size());
+        assertEquals(2, commands.stream().filter(event -> event.getString("operation").equals("validate")).count());
+        assertTrue(commands.stream().allMatch(event -> event.getString("collection").equals("voucher_codes")));
+        assertEquals(1, calls.size());
+        assertEquals("validate", calls.get(0).getString("operation"));
+        assertEquals("OK", calls.get(0).getString("outcome"));
+        assertEquals(2, calls.get(0).getInt("mongoCommands"));
+        assertEquals(Duration.ofMillis(8), calls.get(0).getDuration("mongoTime"));
+        assertNull(OperationScope.current());
+    }
+
+    @Test
+    void testCommandsAreAttributedWhileServiceCallsAreNotRecorded(@TempDir Path directory) throws Exception {
+        MongoCommandTracer tracer = new MongoCommandTracer(Duration.ofMillis(100));
+        Path dump = directory.resolve("recording.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable("com.kl.voucher_pool.MongoCommand");
+            recording.disable("com.kl.voucher_pool.ServiceCall");
+            recording.start();
+            try (OperationScope scope = OperationScope.open(ServiceOperation.VALIDATE)) {
+                runCommand(tracer, 1, "find", TimeUnit.MILLISECONDS.toNanos(3));
+                scope.setOutcome("OK");
+            }
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        assertEquals(1, events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.kl.voucher_pool.MongoCommand"))
+                .filter(event -> event.getString("operation").equals("validate"))
+                .count());
+        assertTrue(events.stream().noneMatch(event -> event.getEventType().getName().equals("com.kl.voucher_pool.ServiceCall")));
+        assertNull(OperationScope.current());
+    }
+
+    private void runCommand(MongoCommandTracer tracer, int requestId, String commandName, long elapsedNanos) {
+        BsonDocument command = new BsonDocument(commandName, new BsonString("voucher_codes"));
+        tracer.commandStarted(new CommandStartedEvent(null, requestId, requestId, connection, "voucher_pool", commandName, command));
+        tracer.commandSucceeded(new CommandSucceededEvent(null, requestId, requestId, connection, "voucher_pool", commandName,
+                new BsonDocument(), elapsedNanos));
+    }
+}
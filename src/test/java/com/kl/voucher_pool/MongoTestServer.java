@@ -0,0 +1,71 @@
+package com.kl.voucher_pool;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.flapdoodle.embed.mongo.commands.MongodArguments;
+import de.flapdoodle.embed.mongo.config.Storage;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import de.flapdoodle.reverse.transitions.Start;
+import org.bson.Document;
+
+import java.util.List;
+
+/**
+ * Starts one embedded mongod per test JVM, as a single-node replica set so that change streams,
+ * transactions and read preferences behave as in production. The process is stopped when the JVM exits.
+ */
+final class MongoTestServer {
+
+    private static final String REPLICA_SET = "rs0";
+
+    private static String connectionString;
+
+    private MongoTestServer() {
+    }
+
+    /**
+     * @return The connection string of the running server, starting it on first use
+     */
+    static synchronized String connectionString() {
+        if (connectionString == null) {
+            TransitionWalker.ReachedState<RunningMongodProcess> running = Mongod.instance()
+                    .withMongodArguments(Start.to(MongodArguments.class).initializedWith(
+                            MongodArguments.defaults().withReplication(Storage.of(REPLICA_SET, 0))))
+                    .start(Version.Main.V7_0);
+            Runtime.getRuntime().addShutdownHook(new Thread(running::close));
+
+            String address = running.current().getServerAddress().toString();
+            try (MongoClient client = MongoClients.create("mongodb://" + address + "/?directConnection=true")) {
+                client.getDatabase("admin").runCommand(new Document("replSetInitiate", new Document("_id", REPLICA_SET)
+                        .append("members", List.of(new Document("_id", 0).append("host", address)))));
+                awaitPrimary(client);
+            }
+            connectionString = "mongodb://" + address + "/?replicaSet=" + REPLICA_SET;
+        }
+        return connectionString;
+    }
+
+    static MongoClient newClient() {
+        return MongoClients.create(connectionString());
+    }
+
+    private static void awaitPrimary(MongoClient client) {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (System.currentTimeMillis() < deadline) {
+            Document hello = client.getDatabase("admin").runCommand(new Document("hello", 1));
+            if (Boolean.TRUE.equals(hello.getBoolean("isWritablePrimary"))) {
+                return;
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+        throw new IllegalStateException("Replica set did not elect a primary");
+    }
+}
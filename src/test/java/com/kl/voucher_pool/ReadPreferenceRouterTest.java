@@ -0,0 +1,45 @@
+package com.kl.voucher_pool;
+
+import com.kl.voucher_pool.repository.ReadPreferenceRouter;
+import com.mongodb.ReadPreference;
+import com.mongodb.TaggableReadPreference;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadPreferenceRouterTest {
+
+    @Test
+    void testForMethod_UsesDefaultWhenNotConfigured() {
+        ReadPreferenceRouter router = new ReadPreferenceRouter(new MockEnvironment());
+
+        assertEquals(ReadPreference.primary(), router.forMethod("VoucherCodeRepository.findByCode"));
+    }
+
+    @Test
+    void testForMethod_SecondaryIsBoundedByMaxStaleness() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("voucher.read-preference.max-staleness", "120s")
+                .withProperty("voucher.read-preference.RecipientRepository.findWalletOwnerByEmail", "secondaryPreferred");
+        ReadPreferenceRouter router = new ReadPreferenceRouter(environment);
+
+        ReadPreference readPreference = router.forMethod("RecipientRepository.findWalletOwnerByEmail");
+
+        assertEquals("secondaryPreferred", readPreference.getName());
+        assertEquals(120L, ((TaggableReadPreference) readPreference).getMaxStaleness(TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testForMethod_PrimaryForWritePaths() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("voucher.read-preference.default", "secondaryPreferred")
+                .withProperty("voucher.read-preference.VoucherCodeRepository.findByCode", "primary");
+        ReadPreferenceRouter router = new ReadPreferenceRouter(environment);
+
+        assertEquals(ReadPreference.primary(), router.forMethod("VoucherCodeRepository.findByCode"));
+        assertEquals("secondaryPreferred", router.forMethod("SpecialOfferRepository.findById").getName());
+    }
+}
@@ -0,0 +1,110 @@
+package com.kl.voucher_pool;
+
+import com.kl.voucher_pool.cache.SpecialOfferCache;
+import com.kl.voucher_pool.model.Recipient;
+import com.kl.voucher_pool.model.SpecialOffer;
+import com.kl.voucher_pool.repository.ReadPreferenceRouter;
+import com.kl.voucher_pool.repository.RoutedRecipientRepositoryImpl;
+import com.kl.voucher_pool.repository.RoutedSpecialOfferRepositoryImpl;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks, against a replica set, which read preference the shipped configuration
+ * sends with the recipient and special offer lookups of each call site.
+ */
+class ReadPreferenceRoutingTest {
+
+    private final List<String> findReadPreferences = new CopyOnWriteArrayList<>();
+
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private RoutedRecipientRepositoryImpl recipientRepository;
+    private RoutedSpecialOfferRepositoryImpl specialOfferRepository;
+    private Recipient recipient;
+    private SpecialOffer specialOffer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        CommandListener listener = new CommandListener() {
+            @Override
+            public void commandStarted(CommandStartedEvent event) {
+                if ("find".equals(event.getCommandName())) {
+                    BsonDocument readPreference = event.getCommand().getDocument("$readPreference", null);
+                    findReadPreferences.add(readPreference == null ? "primary" : readPreference.getString("mode").getValue());
+                }
+            }
+        };
+        client = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(MongoTestServer.connectionString()))
+                .addCommandListener(listener)
+                .build());
+        mongoTemplate = new MongoTemplate(client, "read_preference_routing_test");
+        mongoTemplate.getDb().drop();
+        recipient = mongoTemplate.insert(new Recipient("test@example.com", "Test User"));
+        specialOffer = mongoTemplate.insert(new SpecialOffer("Test Offer", 10.0));
+
+        ReadPreferenceRouter router = new ReadPreferenceRouter(applicationProperties());
+        recipientRepository = new RoutedRecipientRepositoryImpl(mongoTemplate, router);
+        specialOfferRepository = new RoutedSpecialOfferRepositoryImpl(mongoTemplate, router,
+                new SpecialOfferCache(false, Duration.ofMinutes(10)));
+        findReadPreferences.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongoTemplate.getDb().drop();
+        client.close();
+    }
+
+    @Test
+    void testGenerateLookups_ReadFromPrimary() {
+        assertTrue(recipientRepository.findByEmail("test@example.com").isPresent());
+        assertTrue(specialOfferRepository.findByName("Test Offer").isPresent());
+
+        assertEquals(List.of("primary", "primary"), findReadPreferences);
+    }
+
+    @Test
+    void testRedemptionLookups_ReadFromPrimary() {
+        assertTrue(recipientRepository.findById(recipient.getId()).isPresent());
+        assertTrue(specialOfferRepository.findById(specialOffer.getId()).isPresent());
+
+        assertEquals(List.of("primary", "primary"), findReadPreferences);
+    }
+
+    @Test
+    void testWalletAndDashboardLookups_ReadFromSecondaryPreferred() {
+        assertTrue(recipientRepository.findWalletOwnerByEmail("test@example.com").isPresent());
+        assertTrue(specialOfferRepository.findDashboardOfferByName("Test Offer").isPresent());
+
+        assertEquals(List.of("secondaryPreferred", "secondaryPreferred"), findReadPreferences);
+    }
+
+    private static MockEnvironment applicationProperties() throws IOException {
+        Properties properties = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+        MockEnvironment environment = new MockEnvironment();
+        properties.stringPropertyNames().forEach(name -> environment.setProperty(name, properties.getProperty(name)));
+        return environment;
+    }
+}
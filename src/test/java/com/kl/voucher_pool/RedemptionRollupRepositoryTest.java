@@ -0,0 +1,75 @@
+package com.kl.voucher_pool;
+
+import com.kl.voucher_pool.model.RedemptionRollup;
+import com.kl.voucher_pool.repository.IncrementalRedemptionRollupRepositoryImpl;
+import com.kl.voucher_pool.repository.ReadPreferenceRouter;
+import com.mongodb.client.MongoClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedemptionRollupRepositoryTest {
+
+    private final LocalDateTime hour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private IncrementalRedemptionRollupRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        client = MongoTestServer.newClient();
+        mongoTemplate = new MongoTemplate(client, "redemption_rollup_repository_test");
+        mongoTemplate.getDb().drop();
+        repository = new IncrementalRedemptionRollupRepositoryImpl(mongoTemplate, new ReadPreferenceRouter(new MockEnvironment()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongoTemplate.getDb().drop();
+        client.close();
+    }
+
+    @Test
+    void testIncrement_ResentFlushIsNotCountedTwice() {
+        assertEquals(List.of(), repository.increment(List.of(increment("o1", 5, 2), increment("o2", 5, 1)), "node-1", 1));
+
+        assertEquals(List.of(), repository.increment(List.of(increment("o1", 5, 2), increment("o2", 5, 1)), "node-1", 1));
+
+        assertEquals(2, totalOf("o1"));
+        assertEquals(1, totalOf("o2"));
+    }
+
+    @Test
+    void testIncrement_AddsLaterFlushesAndOtherNodes() {
+        repository.increment(List.of(increment("o1", 5, 2)), "node-1", 1);
+
+        repository.increment(List.of(increment("o1", 6, 3)), "node-1", 2);
+        repository.increment(List.of(increment("o1", 5, 4)), "node-2.example.com", 1);
+
+        RedemptionRollup rollup = mongoTemplate.findById(RedemptionRollup.idOf("o1", hour), RedemptionRollup.class);
+        assertNotNull(rollup);
+        assertEquals(9, rollup.getTotal());
+        assertEquals(6, rollup.getMinutes().get("5"));
+        assertEquals(2, rollup.getFlushes().get("node-1"));
+        assertEquals(1, rollup.getFlushes().get("node-2_example_com"));
+    }
+
+    private RedemptionRollup increment(String specialOfferId, int minute, long count) {
+        RedemptionRollup increment = new RedemptionRollup(specialOfferId, hour);
+        increment.add(minute, count);
+        return increment;
+    }
+
+    private long totalOf(String specialOfferId) {
+        return mongoTemplate.findById(RedemptionRollup.idOf(specialOfferId, hour), RedemptionRollup.class).getTotal();
+    }
+}
@@ -0,0 +1,117 @@
+package com.kl.voucher_pool;
+
+import com.kl.voucher_pool.model.RedemptionRollup;
+import com.kl.voucher_pool.model.SpecialOffer;
+import com.kl.voucher_pool.repository.RedemptionRollupRepository;
+import com.kl.voucher_pool.repository.SpecialOfferRepository;
+import com.kl.voucher_pool.repository.embedded.EmbeddedRedemptionRollupRepository;
+import com.kl.voucher_pool.service.ErrorCode;
+import com.kl.voucher_pool.service.RedemptionAccumulator;
+import com.kl.voucher_pool.service.RedemptionCount;
+import com.kl.voucher_pool.service.RedemptionRollupService;
+import com.kl.voucher_pool.service.ServiceResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RedemptionRollupServiceTest {
+
+    private final LocalDateTime hour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+
+    private RedemptionAccumulator redemptionAccumulator;
+    private SpecialOfferRepository specialOfferRepository;
+    private RedemptionRollupRepository redemptionRollupRepository;
+    private RedemptionRollupService redemptionRollupService;
+
+    @BeforeEach
+    void setUp() {
+        redemptionAccumulator = new RedemptionAccumulator();
+        specialOfferRepository = mock(SpecialOfferRepository.class);
+        redemptionRollupRepository = new EmbeddedRedemptionRollupRepository();
+        redemptionRollupService = new RedemptionRollupService(redemptionAccumulator, redemptionRollupRepository, specialOfferRepository, "node-1");
+
+        SpecialOffer specialOffer = new SpecialOffer("Test Offer", 10.0);
+        specialOffer.setId("o1");
+        when(specialOfferRepository.findDashboardOfferByName("Test Offer")).thenReturn(Optional.of(specialOffer));
+    }
+
+    @Test
+    void testFlush_AddsUpAcrossFlushes() {
+        redemptionAccumulator.record("o1", hour.plusMinutes(5).plusSeconds(10));
+        redemptionAccumulator.record("o1", hour.plusMinutes(5).plusSeconds(50));
+        redemptionAccumulator.record("o1", hour.minusMinutes(1));
+        assertEquals(3, redemptionRollupService.flush());
+        redemptionAccumulator.record("o1", hour.plusMinutes(5));
+        assertEquals(1, redemptionRollupService.flush());
+        assertEquals(0, redemptionRollupService.flush());
+
+        ServiceResult<List<RedemptionCount>> result = redemptionRollupService.getRedemptionsPerMinute(
+                "Test Offer", hour.minusMinutes(1), hour.plusMinutes(6));
+
+        assertTrue(result.isSuccess());
+        assertEquals(List.of(hour.minusMinutes(1), hour.plusMinutes(5)),
+                result.getValue().stream().map(RedemptionCount::getMinute).toList());
+        assertEquals(List.of(1L, 3L), result.getValue().stream().map(RedemptionCount::getCount).toList());
+        assertEquals(4, redemptionRollupRepository.findAll().stream().mapToLong(RedemptionRollup::getTotal).sum());
+    }
+
+    @Test
+    void testGetRedemptionsPerMinute_ExcludesMinutesOutsideRange() {
+        redemptionAccumulator.record("o1", hour.plusMinutes(1));
+        redemptionAccumulator.record("o1", hour.plusMinutes(30));
+        redemptionRollupService.flush();
+
+        ServiceResult<List<RedemptionCount>> result = redemptionRollupService.getRedemptionsPerMinute(
+                "Test Offer", hour.plusMinutes(2), hour.plusMinutes(30));
+
+        assertTrue(result.getValue().isEmpty());
+        assertEquals(ErrorCode.SPECIAL_OFFER_NOT_FOUND,
+                redemptionRollupService.getRedemptionsPerMinute("Other Offer", hour, hour.plusHours(1)).getError());
+    }
+
+    @Test
+    void testFlush_ResendsUnstoredIncrementsWithoutCountingTwice() {
+        RedemptionRollupRepository flakyRepository = spy(new EmbeddedRedemptionRollupRepository());
+        doAnswer(invocation -> {
+            invocation.callRealMethod();
+            throw new DataAccessResourceFailureException("Timed out waiting for the reply");
+        }).doCallRealMethod().when(flakyRepository).increment(anyList(), anyString(), anyLong());
+        RedemptionRollupService flakyService = new RedemptionRollupService(redemptionAccumulator, flakyRepository, specialOfferRepository, "node-1");
+        redemptionAccumulator.record("o1", hour.plusMinutes(5));
+        redemptionAccumulator.record("o2", hour.plusMinutes(5));
+
+        assertThrows(DataAccessResourceFailureException.class, flakyService::flush);
+        redemptionAccumulator.record("o1", hour.plusMinutes(6));
+        assertEquals(3, flakyService.flush());
+        assertEquals(0, flakyService.flush());
+
+        assertEquals(3, flakyRepository.findAll().stream().mapToLong(RedemptionRollup::getTotal).sum());
+    }
+
+    @Test
+    void testFlush_KeepsIncrementsNotStoredForNextFlush() {
+        RedemptionRollupRepository partialRepository = spy(new EmbeddedRedemptionRollupRepository());
+        doAnswer(invocation -> {
+            List<RedemptionRollup> increments = invocation.getArgument(0);
+            partialRepository.increment(increments.subList(0, 1), invocation.getArgument(1), invocation.getArgument(2));
+            return increments.subList(1, increments.size());
+        }).doCallRealMethod().when(partialRepository).increment(anyList(), anyString(), anyLong());
+        RedemptionRollupService partialService = new RedemptionRollupService(redemptionAccumulator, partialRepository, specialOfferRepository, "node-1");
+        redemptionAccumulator.record("o1", hour.plusMinutes(5));
+        redemptionAccumulator.record("o2", hour.plusMinutes(5));
+
+        assertEquals(1, partialService.flush());
+        assertEquals(1, partialService.flush());
+
+        assertEquals(2, partialRepository.findAll().stream().mapToLong(RedemptionRollup::getTotal).sum());
+    }
+}
@@ -0,0 +1,361 @@
+package com.kl.voucher_pool;
+
+import com.kl.voucher_pool.model.RedemptionRollup;
+import com.kl.voucher_pool.model.Recipient;
+import com.kl.voucher_pool.model.SpecialOffer;
+import com.kl.voucher_pool.model.VoucherCode;
+import com.kl.voucher_pool.repository.RecipientRepository;
+import com.kl.voucher_pool.repository.RedemptionRollupRepository;
+import com.kl.voucher_pool.repository.SpecialOfferRepository;
+import com.kl.voucher_pool.repository.VoucherCodeRepository;
+import com.kl.voucher_pool.service.ErrorCode;
+import com.kl.voucher_pool.service.RedemptionRollupService;
+import com.kl.voucher_pool.service.ServiceResult;
+import com.kl.voucher_pool.service.VoucherPoolService;
+import com.mongodb.client.MongoClient;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives a mixed generate/validate/list workload at a fixed rate from many threads against the service
+ * running in-process on MongoDB, started by MongoTestServer, then reports throughput and latency percentiles
+ * and checks that no voucher code was redeemed twice and that the redemption rollups add up.
+ *
+ * Validations pick seeded codes at random, so concurrent redemptions of the same code are part of the load.
+ * Some generations send the same idempotency key twice at once, so one of them may find the key in progress.
+ * Latencies are measured from the time an operation was scheduled to start, so a stalled service shows up
+ * in the percentiles, and throughput from the time the last worker finished, so it shows up there too.
+ * Run with: mvn test -Psoak
+ *
+ * Tunable with system properties, e.g. -Dsoak.rate=5000 -Dsoak.threads=64 -Dsoak.duration=PT5M:
+ * soak.recipients, soak.offers, soak.codes (seeded volumes), soak.threads, soak.rate (operations per second),
+ * soak.duration, soak.mix (generate:validate:list weights) and soak.profiles (e.g. "embedded" to run
+ * against the embedded store instead of MongoDB).
+ */
+@Tag("soak")
+class SoakTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(SoakTest.class);
+
+    private static final int RECIPIENTS = Integer.getInteger("soak.recipients", 1_000);
+    private static final int OFFERS = Integer.getInteger("soak.offers", 20);
+    private static final int CODES = Integer.getInteger("soak.codes", 100_000);
+    private static final int THREADS = Integer.getInteger("soak.threads", 16);
+    private static final int RATE = Integer.getInteger("soak.rate", 2_000);
+    private static final Duration DURATION = Duration.parse(System.getProperty("soak.duration", "PT30S"));
+    private static final String MIX = System.getProperty("soak.mix", "20:60:20");
+    private static final String PROFILES = System.getProperty("soak.profiles", "");
+
+    private static final String DATABASE = "voucher_pool_soak";
+
+    // Share of generate operations retried with the same idempotency key.
+    private static final int RETRY_PERCENT = 10;
+
+    private enum Operation { GENERATE, VALIDATE, LIST }
+
+    private String[] emails;
+    private String[] offerNames;
+    private String[] codes;
+    private String[] codeEmails;
+    private ExecutorService retryExecutor;
+
+    private final Set<String> redeemedCodes = ConcurrentHashMap.newKeySet();
+    private final AtomicLong doubleRedemptions = new AtomicLong();
+    private final AtomicLong idempotencyViolations = new AtomicLong();
+    private final AtomicLong unexpectedFailures = new AtomicLong();
+    private final AtomicLong exceptions = new AtomicLong();
+    private final Map<Operation, Map<String, AtomicLong>> outcomes = new EnumMap<>(Map.of(
+            Operation.GENERATE, new ConcurrentHashMap<>(),
+            Operation.VALIDATE, new ConcurrentHashMap<>(),
+            Operation.LIST, new ConcurrentHashMap<>()));
+
+    @Test
+    void soak() throws Exception {
+        SpringApplicationBuilder application = new SpringApplicationBuilder(VoucherPoolApplication.class)
+                .web(WebApplicationType.NONE);
+        List<String> profiles = PROFILES.isBlank() ? List.of() : List.of(PROFILES.split(","));
+        application.profiles(profiles.toArray(String[]::new));
+        // Arguments rather than default properties, so they override the profile's properties files.
+        List<String> arguments = new ArrayList<>(List.of("--voucher.grpc.enabled=false",
+                "--voucher.embedded.snapshot.path=", "--voucher.rollups.flush-interval=PT1S"));
+        if (!profiles.contains("embedded")) {
+            try (MongoClient client = MongoTestServer.newClient()) {
+                client.getDatabase(DATABASE).drop();
+            }
+            arguments.add("--spring.data.mongodb.uri=" + MongoTestServer.connectionString().replace("/?", "/" + DATABASE + "?"));
+        }
+        retryExecutor = Executors.newCachedThreadPool();
+        try (ConfigurableApplicationContext context = application.run(arguments.toArray(String[]::new))) {
+            VoucherPoolService voucherPoolService = context.getBean(VoucherPoolService.class);
+            seed(context, voucherPoolService);
+
+            int[] weights = Arrays.stream(MIX.split(":")).mapToInt(Integer::parseInt).toArray();
+            Worker[] workers = new Worker[THREADS];
+            long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+            long end = start + DURATION.toNanos();
+            CountDownLatch done = new CountDownLatch(THREADS);
+            for (int i = 0; i < THREADS; i++) {
+                workers[i] = new Worker(voucherPoolService, weights, start, end, i, done);
+                new Thread(workers[i], "soak-" + i).start();
+            }
+            assertTrue(done.await(DURATION.toSeconds() + 60, TimeUnit.SECONDS), "Workers did not finish");
+            long elapsed = Arrays.stream(workers).mapToLong(worker -> worker.finishedAt).max().orElse(end) - start;
+
+            double throughput = report(workers, elapsed);
+            context.getBean(RedemptionRollupService.class).flush();
+            verify(context, throughput);
+        } finally {
+            retryExecutor.shutdownNow();
+        }
+    }
+
+    private void seed(ConfigurableApplicationContext context, VoucherPoolService voucherPoolService) {
+        RecipientRepository recipientRepository = context.getBean(RecipientRepository.class);
+        SpecialOfferRepository specialOfferRepository = context.getBean(SpecialOfferRepository.class);
+        long seedStart = System.nanoTime();
+
+        emails = new String[RECIPIENTS];
+        for (int i = 0; i < RECIPIENTS; i++) {
+            emails[i] = "soak-" + i + "@example.com";
+            recipientRepository.save(new Recipient(emails[i], "Soak Recipient " + i));
+        }
+        offerNames = new String[OFFERS];
+        for (int i = 0; i < OFFERS; i++) {
+            offerNames[i] = "Soak Offer " + i;
+            specialOfferRepository.save(new SpecialOffer(offerNames[i], 5.0 + i % 50));
+        }
+        codes = new String[CODES];
+        codeEmails = new String[CODES];
+        LocalDate expirationDate = LocalDate.now().plusDays(30);
+        for (int i = 0; i < CODES; i++) {
+            codeEmails[i] = emails[i % RECIPIENTS];
+            codes[i] = voucherPoolService.generateVoucherCode(codeEmails[i], offerNames[i % OFFERS], expirationDate)
+                    .orElseThrow().getCode();
+        }
+        logger.info("Seeded {} recipients, {} offers and {} codes in {} ms", RECIPIENTS, OFFERS, CODES,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedStart));
+    }
+
+    /**
+     * @param elapsed The time from the start of the run until the last worker finished
+     * @return The completed operations per second
+     */
+    private double report(Worker[] workers, long elapsed) {
+        double elapsedSeconds = elapsed / 1e9;
+        long completed = 0;
+        System.out.printf("%n%-10s %10s %10s %10s %10s %10s %10s %10s%n",
+                "operation", "count", "ops/s", "p50 us", "p90 us", "p99 us", "p99.9 us", "max us");
+        for (Operation operation : Operation.values()) {
+            long[] latencies = Arrays.stream(workers).map(worker -> worker.latencies[operation.ordinal()])
+                    .flatMapToLong(recorder -> Arrays.stream(recorder.values, 0, recorder.size))
+                    .sorted()
+                    .toArray();
+            completed += latencies.length;
+            if (latencies.length == 0) {
+                continue;
+            }
+            System.out.printf("%-10s %10d %10.0f %10d %10d %10d %10d %10d%n", operation, latencies.length,
+                    latencies.length / elapsedSeconds,
+                    micros(latencies, 0.50), micros(latencies, 0.90), micros(latencies, 0.99), micros(latencies, 0.999),
+                    TimeUnit.NANOSECONDS.toMicros(latencies[latencies.length - 1]));
+        }
+        double throughput = completed / elapsedSeconds;
+        System.out.printf("total      %10d %10.0f (target %d ops/s on %d threads, %.1f s to finish a %d s run)%n",
+                completed, throughput, RATE, THREADS, elapsedSeconds, DURATION.toSeconds());
+        System.out.printf("outcomes   %s%nexceptions %d%n%n", outcomes, exceptions.get());
+        return throughput;
+    }
+
+    private void verify(ConfigurableApplicationContext context, double throughput) {
+        long redeemed = redeemedCodes.size();
+        long usedInStore = context.getBean(VoucherCodeRepository.class).findAll().stream()
+                .filter(voucherCode -> voucherCode.getUsageDate() != null)
+                .count();
+        long inRollups = context.getBean(RedemptionRollupRepository.class).findAll().stream()
+                .mapToLong(RedemptionRollup::getTotal)
+                .sum();
+
+        assertEquals(0, doubleRedemptions.get(), "Voucher codes redeemed more than once");
+        assertEquals(0, idempotencyViolations.get(), "Idempotent retries that returned a different code");
+        assertEquals(0, exceptions.get(), "Operations that threw");
+        assertEquals(0, unexpectedFailures.get(), "Validations of seeded codes failing for another reason than reuse");
+        assertEquals(redeemed, usedInStore, "Successful redemptions vs. used codes in the store");
+        assertEquals(redeemed, inRollups, "Successful redemptions vs. redemption rollups");
+        assertTrue(throughput >= 0.9 * RATE,
+                "The service ran at " + Math.round(throughput) + " ops/s, below the target rate of " + RATE + " ops/s");
+    }
+
+    private void count(Operation operation, ServiceResult<?> result) {
+        String outcome = result.isSuccess() ? "OK" : result.getError().name();
+        outcomes.get(operation).computeIfAbsent(outcome, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    private static long micros(long[] sortedLatencies, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return TimeUnit.NANOSECONDS.toMicros(sortedLatencies[Math.max(index, 0)]);
+    }
+
+    /**
+     * Runs operations at a fixed interval, offset from the other workers so that together they hit the target rate.
+     */
+    private final class Worker implements Runnable {
+        private final VoucherPoolService voucherPoolService;
+        private final int[] weights;
+        private final long start;
+        private final long end;
+        private final long interval;
+        private final CountDownLatch done;
+        private final SplittableRandom random;
+        private final LatencyRecorder[] latencies = new LatencyRecorder[Operation.values().length];
+        private volatile long finishedAt;
+
+        private Worker(VoucherPoolService voucherPoolService, int[] weights, long start, long end, int index, CountDownLatch done) {
+            this.voucherPoolService = voucherPoolService;
+            this.weights = weights;
+            this.interval = TimeUnit.SECONDS.toNanos(THREADS) / RATE;
+            this.start = start + interval * index / THREADS;
+            this.end = end;
+            this.done = done;
+            this.random = new SplittableRandom(index);
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = new LatencyRecorder();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (long scheduled = start; scheduled < end; scheduled += interval) {
+                    long now;
+                    while ((now = System.nanoTime()) < scheduled) {
+                        LockSupport.parkNanos(scheduled - now);
+                    }
+                    Operation operation = pick();
+                    try {
+                        execute(operation);
+                    } catch (RuntimeException e) {
+                        if (exceptions.incrementAndGet() == 1) {
+                            logger.error("Soak operation {} failed", operation, e);
+                        }
+                    }
+                    latencies[operation.ordinal()].record(System.nanoTime() - scheduled);
+                }
+            } finally {
+                finishedAt = System.nanoTime();
+                done.countDown();
+            }
+        }
+
+        private Operation pick() {
+            int roll = random.nextInt(weights[0] + weights[1] + weights[2]);
+            if (roll < weights[0]) {
+                return Operation.GENERATE;
+            }
+            return roll < weights[0] + weights[1] ? Operation.VALIDATE : Operation.LIST;
+        }
+
+        private void execute(Operation operation) {
+            switch (operation) {
+                case GENERATE -> generate();
+                case VALIDATE -> validate();
+                case LIST -> count(Operation.LIST, voucherPoolService.getValidVoucherCodes(emails[random.nextInt(emails.length)]));
+            }
+        }
+
+        private void generate() {
+            String email = emails[random.nextInt(emails.length)];
+            String offerName = offerNames[random.nextInt(offerNames.length)];
+            LocalDate expirationDate = LocalDate.now().plusDays(1 + random.nextInt(60));
+            if (random.nextInt(100) >= RETRY_PERCENT) {
+                count(Operation.GENERATE, voucherPoolService.generateVoucherCode(email, offerName, expirationDate));
+                return;
+            }
+            // A client retrying before its first request was answered: both are released together.
+            String idempotencyKey = UUID.randomUUID().toString();
+            CyclicBarrier together = new CyclicBarrier(2);
+            Callable<ServiceResult<VoucherCode>> request = () -> {
+                together.await();
+                return voucherPoolService.generateVoucherCode(email, offerName, expirationDate, idempotencyKey);
+            };
+            Future<ServiceResult<VoucherCode>> first = retryExecutor.submit(request);
+            Future<ServiceResult<VoucherCode>> retry = retryExecutor.submit(request);
+            List<ServiceResult<VoucherCode>> results = List.of(resultOf(first), resultOf(retry));
+            results.forEach(result -> count(Operation.GENERATE, result));
+
+            List<String> generated = results.stream().filter(ServiceResult::isSuccess)
+                    .map(result -> result.getValue().getCode()).distinct().toList();
+            boolean onlyInProgress = results.stream().allMatch(result ->
+                    result.isSuccess() || result.getError() == ErrorCode.IDEMPOTENCY_KEY_IN_PROGRESS);
+            // Once answered, the key must keep answering with the same code.
+            ServiceResult<VoucherCode> replay = voucherPoolService.generateVoucherCode(email, offerName, expirationDate, idempotencyKey);
+            if (generated.size() != 1 || !onlyInProgress
+                    || !replay.isSuccess() || !replay.getValue().getCode().equals(generated.get(0))) {
+                idempotencyViolations.incrementAndGet();
+            }
+        }
+
+        private ServiceResult<VoucherCode> resultOf(Future<ServiceResult<VoucherCode>> request) {
+            try {
+                return request.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private void validate() {
+            int index = random.nextInt(codes.length);
+            ServiceResult<Map<String, Object>> result = voucherPoolService.validateVoucherCode(codes[index], codeEmails[index]);
+            count(Operation.VALIDATE, result);
+            if (result.isSuccess() && !redeemedCodes.add(codes[index])) {
+                doubleRedemptions.incrementAndGet();
+            } else if (!result.isSuccess() && result.getError() != ErrorCode.VOUCHER_ALREADY_USED) {
+                // Seeded codes are valid and unexpired, so losing the race is the only expected failure.
+                unexpectedFailures.incrementAndGet();
+            }
+        }
+    }
+
+    private static final class LatencyRecorder {
+        private long[] values = new long[1024];
+        private int size;
+
+        private void record(long nanos) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.kl.voucher_pool;
+
+import com.kl.voucher_pool.cache.CacheInvalidationEvent;
+import com.kl.voucher_pool.cache.SpecialOfferCache;
+import com.kl.voucher_pool.model.SpecialOffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpecialOfferCacheTest {
+
+    private SpecialOffer specialOffer;
+    private AtomicInteger loads;
+    private Function<String, Optional<SpecialOffer>> loader;
+
+    @BeforeEach
+    void setUp() {
+        specialOffer = new SpecialOffer("Test Offer", 10.0);
+        specialOffer.setId("1");
+        loads = new AtomicInteger();
+        loader = id -> {
+            loads.incrementAndGet();
+            return Optional.of(specialOffer);
+        };
+    }
+
+    @Test
+    void testGet_LoadsOnlyOnce() {
+        SpecialOfferCache cache = new SpecialOfferCache(true, Duration.ofMinutes(10));
+
+        cache.get("1", loader);
+        Optional<SpecialOffer> result = cache.get("1", loader);
+
+        assertEquals(1, loads.get());
+        assertEquals(10.0, result.orElseThrow().getDiscountPercentage());
+    }
+
+    @Test
+    void testGet_ReturnsCopies() {
+        SpecialOfferCache cache = new SpecialOfferCache(true, Duration.ofMinutes(10));
+
+        cache.get("1", loader).orElseThrow().setDiscountPercentage(50.0);
+
+        assertEquals(10.0, cache.get("1", loader).orElseThrow().getDiscountPercentage());
+    }
+
+    @Test
+    void testInvalidate_ReloadsChangedOffer() {
+        SpecialOfferCache cache = new SpecialOfferCache(true, Duration.ofMinutes(10));
+        cache.get("1", loader);
+
+        specialOffer.setDiscountPercentage(15.0);
+        cache.invalidate(new CacheInvalidationEvent("special_offers", "1", null));
+
+        assertEquals(15.0, cache.get("1", loader).orElseThrow().getDiscountPercentage());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testGet_DoesNotCacheLoadRacingWithInvalidation() {
+        SpecialOfferCache cache = new SpecialOfferCache(true, Duration.ofMinutes(10));
+
+        cache.get("1", id -> {
+            cache.invalidateAll();
+            return loader.apply(id);
+        });
+        cache.get("1", loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testGet_DisabledAlwaysLoads() {
+        SpecialOfferCache cache = new SpecialOfferCache(false, Duration.ofMinutes(10));
+
+        cache.get("1", loader);
+        cache.get("1", loader);
+
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,64 @@
+package com.kl.voucher_pool;
+
+import com.kl.voucher_pool.controller.VoucherPoolController;
+import com.kl.voucher_pool.model.VoucherCode;
+import com.kl.voucher_pool.repository.RecipientRepository;
+import com.kl.voucher_pool.repository.SpecialOfferRepository;
+import com.kl.voucher_pool.repository.VoucherCodeRepository;
+import com.kl.voucher_pool.service.VoucherPoolService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.kl.voucher_pool.BenchmarkMeasurement.measure;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the cost of rejecting an unknown voucher code through the controller with exceptions
+ * (as done before ServiceResult) and with result objects. Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class ValidationOutcomeBenchmarkTest {
+
+    private final VoucherCodeRepository voucherCodeRepository = emptyRepository(VoucherCodeRepository.class);
+    private final VoucherPoolService voucherPoolService = new VoucherPoolService(
+            emptyRepository(RecipientRepository.class), emptyRepository(SpecialOfferRepository.class), voucherCodeRepository, null, null);
+    private final VoucherPoolController voucherPoolController = new VoucherPoolController(voucherPoolService, null);
+
+    @Test
+    void benchmarkInvalidCodeRejection() {
+        BenchmarkMeasurement exceptions = measure(this::validateWithException);
+        BenchmarkMeasurement results = measure(() -> voucherPoolController.validateVoucher("UNKNOWN1", "test@example.com"));
+
+        System.out.printf("%-12s %14s %14s%n", "path", "bytes/op", "cpu ns/op");
+        System.out.printf("%-12s %14.1f %14.1f%n", "exception", exceptions.bytesPerOp, exceptions.cpuNanosPerOp);
+        System.out.printf("%-12s %14.1f %14.1f%n", "result", results.bytesPerOp, results.cpuNanosPerOp);
+
+        assertTrue(results.bytesPerOp < exceptions.bytesPerOp);
+    }
+
+    /**
+     * The exception based flow replaced by ServiceResult: the service threw and the controller caught.
+     */
+    private ResponseEntity<Map<String, Object>> validateWithException() {
+        try {
+            VoucherCode voucherCode = voucherCodeRepository.findByCode("UNKNOWN1")
+                    .orElseThrow(() -> new IllegalArgumentException("Invalid voucher code"));
+            return ResponseEntity.ok(Map.of("code", voucherCode.getCode()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * A repository answering every lookup with an empty Optional, cheaper and more predictable than a mock.
+     */
+    private static <T> T emptyRepository(Class<T> repositoryType) {
+        return repositoryType.cast(Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType},
+                (proxy, method, args) -> Optional.empty()));
+    }
+}
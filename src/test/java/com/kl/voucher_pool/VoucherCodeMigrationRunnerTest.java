@@ -0,0 +1,154 @@
+package com.kl.voucher_pool;
+
+import com.kl.voucher_pool.config.VoucherCodeMigrationRunner;
+import com.kl.voucher_pool.model.VoucherCode;
+import com.kl.voucher_pool.repository.PartitionedVoucherCodeRepositoryImpl;
+import com.kl.voucher_pool.repository.ReadPreferenceRouter;
+import com.kl.voucher_pool.repository.partition.CodeHashPartitionStrategy;
+import com.kl.voucher_pool.repository.partition.OfferPartitionStrategy;
+import com.kl.voucher_pool.repository.partition.VoucherCodeCollectionPreparer;
+import com.kl.voucher_pool.repository.partition.VoucherCodePartitionStrategy;
+import com.mongodb.client.MongoClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VoucherCodeMigrationRunnerTest {
+
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private CodeHashPartitionStrategy partitionStrategy;
+    private VoucherCodeCollectionPreparer collectionPreparer;
+
+    @BeforeEach
+    void setUp() {
+        client = MongoTestServer.newClient();
+        mongoTemplate = new MongoTemplate(client, "voucher_code_migration_test");
+        mongoTemplate.getDb().drop();
+        partitionStrategy = new CodeHashPartitionStrategy(4);
+        collectionPreparer = new VoucherCodeCollectionPreparer(mongoTemplate, partitionStrategy, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongoTemplate.getDb().drop();
+        client.close();
+    }
+
+    @Test
+    void testRun_MovesEveryVoucherCodeToItsPartition() throws InterruptedException {
+        List<VoucherCode> legacy = insertLegacyVoucherCodes(25);
+
+        runner(7).run();
+
+        assertEquals(0, mongoTemplate.getCollection(VoucherCodePartitionStrategy.BASE_COLLECTION).countDocuments());
+        for (VoucherCode voucherCode : legacy) {
+            VoucherCode migrated = mongoTemplate.findById(voucherCode.getId(), VoucherCode.class,
+                    partitionStrategy.collectionFor(voucherCode));
+            assertNotNull(migrated, voucherCode.getCode());
+            assertEquals(voucherCode.getCode(), migrated.getCode());
+            assertEquals(voucherCode.getExpirationDate(), migrated.getExpirationDate());
+        }
+    }
+
+    @Test
+    void testRun_ResumesAfterBatchWasCopiedButNotRemoved() throws InterruptedException {
+        List<VoucherCode> legacy = insertLegacyVoucherCodes(10);
+        VoucherCode alreadyCopied = legacy.get(0);
+        mongoTemplate.insert(alreadyCopied, partitionStrategy.collectionFor(alreadyCopied));
+
+        runner(3).run();
+
+        assertEquals(0, mongoTemplate.getCollection(VoucherCodePartitionStrategy.BASE_COLLECTION).countDocuments());
+        assertEquals(legacy.size(), repository(false).count());
+    }
+
+    @Test
+    void testRun_PartitionedRepositoryFindsMigratedVoucherCodes() throws InterruptedException {
+        List<VoucherCode> legacy = insertLegacyVoucherCodes(12);
+        PartitionedVoucherCodeRepositoryImpl repository = repository(true);
+        VoucherCode first = legacy.get(0);
+        assertTrue(repository.findByCode(first.getCode()).isPresent());
+
+        runner(5).run();
+
+        for (VoucherCode voucherCode : legacy) {
+            assertEquals(voucherCode.getId(), repository.findByCode(voucherCode.getCode()).orElseThrow().getId());
+        }
+        assertTrue(repository.existsById(first.getId()));
+        assertEquals(legacy.size(), repository.findAll().size());
+
+        repository.deleteById(first.getId());
+
+        assertTrue(repository.findById(first.getId()).isEmpty());
+        assertEquals(legacy.size() - 1, repository.count());
+    }
+
+    @Test
+    void testSave_UpdatesUnmigratedVoucherCodeInPlace() {
+        VoucherCode legacy = insertLegacyVoucherCodes(1).get(0);
+        PartitionedVoucherCodeRepositoryImpl repository = repository(true);
+
+        legacy.setExpirationDate(LocalDate.of(2031, 1, 1));
+        repository.save(legacy);
+
+        assertEquals(1, repository.count());
+        assertEquals(LocalDate.of(2031, 1, 1), mongoTemplate.findById(legacy.getId(), VoucherCode.class,
+                VoucherCodePartitionStrategy.BASE_COLLECTION).getExpirationDate());
+    }
+
+    @Test
+    void testSave_RejectsCodeAlreadyStored() {
+        PartitionedVoucherCodeRepositoryImpl repository = repository(false);
+        repository.save(new VoucherCode("TAKEN001", "recipient1", "offer1", LocalDate.of(2030, 1, 1)));
+
+        assertThrows(DuplicateKeyException.class,
+                () -> repository.save(new VoucherCode("TAKEN001", "recipient2", "offer1", LocalDate.of(2030, 1, 1))));
+    }
+
+    @Test
+    void testRun_OfferRoutesFindMigratedVoucherCodesWithoutFallback() throws InterruptedException {
+        List<VoucherCode> legacy = insertLegacyVoucherCodes(6);
+        OfferPartitionStrategy offerStrategy = new OfferPartitionStrategy(mongoTemplate, Duration.ofMinutes(1));
+        VoucherCodeCollectionPreparer offerPreparer = new VoucherCodeCollectionPreparer(mongoTemplate, offerStrategy, false);
+
+        new VoucherCodeMigrationRunner(mongoTemplate, offerStrategy, offerPreparer, 4, 0).run();
+
+        PartitionedVoucherCodeRepositoryImpl repository = new PartitionedVoucherCodeRepositoryImpl(mongoTemplate,
+                new ReadPreferenceRouter(new MockEnvironment()), offerStrategy, offerPreparer, false);
+        for (VoucherCode voucherCode : legacy) {
+            assertEquals(voucherCode.getId(), repository.findByCode(voucherCode.getCode()).orElseThrow().getId());
+        }
+        VoucherCode taken = new VoucherCode(legacy.get(0).getCode(), "recipient1", "offer9", LocalDate.of(2030, 1, 1));
+        assertThrows(DuplicateKeyException.class, () -> repository.save(taken));
+    }
+
+    private List<VoucherCode> insertLegacyVoucherCodes(int count) {
+        List<VoucherCode> voucherCodes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            VoucherCode voucherCode = new VoucherCode(String.format("LEGACY%02d", i), "recipient" + (i % 3),
+                    "offer" + (i % 2), LocalDate.of(2030, 1, 1).plusDays(i));
+            voucherCodes.add(mongoTemplate.insert(voucherCode, VoucherCodePartitionStrategy.BASE_COLLECTION));
+        }
+        return voucherCodes;
+    }
+
+    private VoucherCodeMigrationRunner runner(int batchSize) {
+        return new VoucherCodeMigrationRunner(mongoTemplate, partitionStrategy, collectionPreparer, batchSize, 0);
+    }
+
+    private PartitionedVoucherCodeRepositoryImpl repository(boolean legacyFallback) {
+        return new PartitionedVoucherCodeRepositoryImpl(mongoTemplate, new ReadPreferenceRouter(new MockEnvironment()),
+                partitionStrategy, collectionPreparer, legacyFallback);
+    }
+}
@@ -0,0 +1,82 @@
+package com.kl.voucher_pool;
+
+import com.kl.voucher_pool.model.VoucherCode;
+import com.kl.voucher_pool.repository.partition.CodeHashPartitionStrategy;
+import com.kl.voucher_pool.repository.partition.OfferPartitionStrategy;
+import com.kl.voucher_pool.repository.partition.SingleCollectionPartitionStrategy;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VoucherCodePartitionStrategyTest {
+
+    private final VoucherCode voucherCode = new VoucherCode("TESTCODE", "1", "offer1", LocalDate.now().plusDays(30));
+
+    @Test
+    void testSingleCollection_RoutesEverythingToBaseCollection() {
+        SingleCollectionPartitionStrategy strategy = new SingleCollectionPartitionStrategy();
+
+        assertEquals("voucher_codes", strategy.collectionFor(voucherCode));
+        assertEquals(List.of("voucher_codes"), strategy.collectionsForCode("TESTCODE"));
+        assertEquals(List.of("voucher_codes"), strategy.collections());
+    }
+
+    @Test
+    void testCodeHash_WriteAndLookupAgree() {
+        CodeHashPartitionStrategy strategy = new CodeHashPartitionStrategy(8);
+
+        String collection = strategy.collectionFor(voucherCode);
+
+        assertEquals(List.of(collection), strategy.collectionsForCode("TESTCODE"));
+        assertTrue(strategy.collections().contains(collection));
+        assertEquals(8, strategy.collections().size());
+    }
+
+    @Test
+    void testCodeHash_InvalidBucketCount() {
+        assertThrows(IllegalArgumentException.class, () -> new CodeHashPartitionStrategy(0));
+    }
+
+    @Test
+    void testOffer_ListsKnownOfferCollections() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.getCollectionNames()).thenReturn(Set.of("recipients", "voucher_codes_offer_offer2"));
+        OfferPartitionStrategy strategy = new OfferPartitionStrategy(mongoTemplate, Duration.ofMinutes(1));
+
+        assertEquals("voucher_codes_offer_offer1", strategy.collectionFor(voucherCode));
+        assertEquals(List.of("voucher_codes_offer_offer1", "voucher_codes_offer_offer2"), strategy.collections());
+    }
+
+    @Test
+    void testOffer_LooksUpCodeThroughItsRoute() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.findById("TESTCODE", Document.class, "voucher_code_routes"))
+                .thenReturn(new Document("_id", "TESTCODE").append("collection", "voucher_codes_offer_offer1"));
+        OfferPartitionStrategy strategy = new OfferPartitionStrategy(mongoTemplate, Duration.ofMinutes(1));
+
+        assertEquals(List.of("voucher_codes_offer_offer1"), strategy.collectionsForCode("TESTCODE"));
+        assertEquals(List.of(), strategy.collectionsForCode("UNKNOWN1"));
+    }
+
+    @Test
+    void testOffer_RegistersRouteOfCode() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        OfferPartitionStrategy strategy = new OfferPartitionStrategy(mongoTemplate, Duration.ofMinutes(1));
+
+        strategy.register(voucherCode);
+
+        verify(mongoTemplate).upsert(argThat((Query query) -> query.getQueryObject().equals(
+                        new Document("_id", "TESTCODE").append("collection", "voucher_codes_offer_offer1"))),
+                any(Update.class), eq("voucher_code_routes"));
+    }
+}
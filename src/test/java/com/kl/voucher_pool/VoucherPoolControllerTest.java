@@ -1,7 +1,11 @@
 package com.kl.voucher_pool;
 
 import com.kl.voucher_pool.model.VoucherCode;
+import com.kl.voucher_pool.service.ErrorCode;
+import com.kl.voucher_pool.service.RedemptionRollupService;
+import com.kl.voucher_pool.service.ServiceResult;
 import com.kl.voucher_pool.service.VoucherPoolService;
+import com.kl.voucher_pool.service.WalletEntry;
 import com.kl.voucher_pool.controller.VoucherPoolController;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,6 +16,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -26,6 +31,9 @@ class VoucherPoolControllerTest {
     @Mock
     private VoucherPoolService voucherPoolService;
 
+    @Mock
+    private RedemptionRollupService redemptionRollupService;
+
     @InjectMocks
     private VoucherPoolController voucherPoolController;
 
@@ -38,11 +46,24 @@ class VoucherPoolControllerTest {
 
     @Test
     void testGenerateVoucher_Success() {
-        when(voucherPoolService.generateVoucherCode(anyString(), anyString(), any(LocalDate.class)))
-                .thenReturn(voucherCode);
+        when(voucherPoolService.generateVoucherCode(anyString(), anyString(), any(LocalDate.class), isNull()))
+                .thenReturn(ServiceResult.success(voucherCode));
 
         ResponseEntity<Map<String, Object>> response = voucherPoolController.generateVoucher(
-                "test@example.com", "Test Offer", LocalDate.now().plusDays(30));
+                "test@example.com", "Test Offer", LocalDate.now().plusDays(30), null);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("TESTCODE", response.getBody().get("code"));
+    }
+
+    @Test
+    void testGenerateVoucher_PassesIdempotencyKey() {
+        when(voucherPoolService.generateVoucherCode(anyString(), anyString(), any(LocalDate.class), eq("retry-key")))
+                .thenReturn(ServiceResult.success(voucherCode));
+
+        ResponseEntity<Map<String, Object>> response = voucherPoolController.generateVoucher(
+                "test@example.com", "Test Offer", LocalDate.now().plusDays(30), "retry-key");
 
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -51,21 +72,34 @@ class VoucherPoolControllerTest {
 
     @Test
     void testGenerateVoucher_Failure() {
-        when(voucherPoolService.generateVoucherCode(anyString(), anyString(), any(LocalDate.class)))
-                .thenThrow(new IllegalArgumentException("Invalid input"));
+        when(voucherPoolService.generateVoucherCode(anyString(), anyString(), any(LocalDate.class), isNull()))
+                .thenReturn(ServiceResult.failure(ErrorCode.RECIPIENT_NOT_FOUND));
 
         ResponseEntity<Map<String, Object>> response = voucherPoolController.generateVoucher(
-                "test@example.com", "Test Offer", LocalDate.now().plusDays(30));
+                "test@example.com", "Test Offer", LocalDate.now().plusDays(30), null);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals("Invalid input", response.getBody().get("error"));
+        assertEquals("Recipient not found", response.getBody().get("error"));
+    }
+
+    @Test
+    void testGenerateVoucher_IdempotencyConflict() {
+        when(voucherPoolService.generateVoucherCode(anyString(), anyString(), any(LocalDate.class), eq("retry-key")))
+                .thenReturn(ServiceResult.failure(ErrorCode.IDEMPOTENCY_KEY_IN_PROGRESS));
+
+        ResponseEntity<Map<String, Object>> response = voucherPoolController.generateVoucher(
+                "test@example.com", "Test Offer", LocalDate.now().plusDays(30), "retry-key");
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("A request with this idempotency key is still in progress", response.getBody().get("error"));
     }
 
     @Test
     void testValidateVoucher_Success() {
         Map<String, Object> validationResult = Map.of("discount", 10.0, "offerName", "Test Offer");
-        when(voucherPoolService.validateVoucherCode(anyString(), anyString())).thenReturn(validationResult);
+        when(voucherPoolService.validateVoucherCode(anyString(), anyString())).thenReturn(ServiceResult.success(validationResult));
 
         ResponseEntity<Map<String, Object>> response = voucherPoolController.validateVoucher("TESTCODE", "test@example.com");
 
@@ -78,37 +112,48 @@ class VoucherPoolControllerTest {
     @Test
     void testValidateVoucher_Failure() {
         when(voucherPoolService.validateVoucherCode(anyString(), anyString()))
-                .thenThrow(new IllegalArgumentException("Invalid voucher"));
+                .thenReturn(ServiceResult.failure(ErrorCode.INVALID_VOUCHER_CODE));
 
         ResponseEntity<Map<String, Object>> response = voucherPoolController.validateVoucher("INVALIDCODE", "test@example.com");
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals("Invalid voucher", response.getBody().get("error"));
+        assertEquals("Invalid voucher code", response.getBody().get("error"));
     }
 
     @Test
     void testGetValidVouchers_Success() {
-        List<String> validVouchers = Arrays.asList("VOUCHER1", "VOUCHER2");
-        when(voucherPoolService.getValidVoucherCodes(anyString())).thenReturn(validVouchers);
+        List<WalletEntry> validVouchers = Arrays.asList(new WalletEntry("VOUCHER1", "Summer Sale"), new WalletEntry("VOUCHER2", "Winter Discount"));
+        when(voucherPoolService.getValidVoucherCodes(anyString())).thenReturn(ServiceResult.success(validVouchers));
 
         ResponseEntity<Map<String, Object>> response = voucherPoolController.getValidVouchers("test@example.com");
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertTrue(response.getBody().containsKey("vouchers"));
-        assertEquals(validVouchers, response.getBody().get("vouchers"));
+        assertEquals(List.of("VOUCHER1 - Summer Sale", "VOUCHER2 - Winter Discount"), response.getBody().get("vouchers"));
     }
 
     @Test
     void testGetValidVouchers_Failure() {
         when(voucherPoolService.getValidVoucherCodes(anyString()))
-                .thenThrow(new IllegalArgumentException("Invalid email"));
+                .thenReturn(ServiceResult.failure(ErrorCode.RECIPIENT_NOT_FOUND));
 
         ResponseEntity<Map<String, Object>> response = voucherPoolController.getValidVouchers("invalid@example.com");
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals("Invalid email", response.getBody().get("error"));
+        assertEquals("Recipient not found", response.getBody().get("error"));
+    }
+
+    @Test
+    void testGetRedemptions_RangeTooLong() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        ResponseEntity<Map<String, Object>> response = voucherPoolController.getRedemptions("Test Offer", from, from.plusDays(8));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("Invalid time range", response.getBody().get("error"));
     }
-}
\ No newline at end of file
+}
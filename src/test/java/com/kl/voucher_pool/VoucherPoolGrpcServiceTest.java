@@ -0,0 +1,157 @@
+package com.kl.voucher_pool;
+
+import com.kl.voucher_pool.grpc.GrpcServer;
+import com.kl.voucher_pool.grpc.VoucherPoolGrpcService;
+import com.kl.voucher_pool.grpc.proto.Error;
+import com.kl.voucher_pool.grpc.proto.ListValidRequest;
+import com.kl.voucher_pool.grpc.proto.ListValidResponse;
+import com.kl.voucher_pool.grpc.proto.ValidateRequest;
+import com.kl.voucher_pool.grpc.proto.ValidateResponse;
+import com.kl.voucher_pool.grpc.proto.VoucherPoolGrpc;
+import com.kl.voucher_pool.service.ErrorCode;
+import com.kl.voucher_pool.service.ServiceResult;
+import com.kl.voucher_pool.service.VoucherPoolService;
+import com.kl.voucher_pool.service.WalletEntry;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VoucherPoolGrpcServiceTest {
+
+    private VoucherPoolService voucherPoolService;
+    private GrpcServer server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() {
+        voucherPoolService = mock(VoucherPoolService.class);
+        server = new GrpcServer(new VoucherPoolGrpcService(voucherPoolService), 0, Duration.ofSeconds(1));
+        server.start();
+        channel = ManagedChannelBuilder.forAddress("localhost", server.getPort()).usePlaintext().build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.stop();
+    }
+
+    @Test
+    void testValidate_ReturnsRedemption() {
+        LocalDate expirationDate = LocalDate.of(2030, 1, 1);
+        LocalDateTime usageDate = LocalDateTime.of(2029, 6, 1, 12, 0);
+        when(voucherPoolService.validateVoucherCode("TESTCODE", "test@example.com")).thenReturn(ServiceResult.success(Map.of(
+                "discount", 10.0, "offerName", "Test Offer", "expirationDate", expirationDate, "usageDate", usageDate)));
+
+        ValidateResponse response = VoucherPoolGrpc.newBlockingStub(channel).validate(ValidateRequest.newBuilder()
+                .setRequestId("1").setCode("TESTCODE").setEmail("test@example.com").build());
+
+        assertEquals("1", response.getRequestId());
+        assertEquals(Error.NONE, response.getError());
+        assertEquals(10.0, response.getDiscount());
+        assertEquals("Test Offer", response.getOfferName());
+        assertEquals("2030-01-01", response.getExpirationDate());
+        assertEquals(usageDate.toString(), response.getUsageDate());
+    }
+
+    @Test
+    void testValidateStream_FailureDoesNotEndStream() throws Exception {
+        when(voucherPoolService.validateVoucherCode("USEDCODE", "test@example.com"))
+                .thenReturn(ServiceResult.failure(ErrorCode.VOUCHER_ALREADY_USED));
+        when(voucherPoolService.validateVoucherCode("TESTCODE", "test@example.com")).thenReturn(ServiceResult.success(Map.of(
+                "discount", 10.0, "offerName", "Test Offer", "expirationDate", LocalDate.of(2030, 1, 1),
+                "usageDate", LocalDateTime.of(2029, 6, 1, 12, 0))));
+        List<ValidateResponse> responses = new CopyOnWriteArrayList<>();
+        CountDownLatch completed = new CountDownLatch(1);
+
+        StreamObserver<ValidateRequest> requests = VoucherPoolGrpc.newStub(channel).validateStream(new StreamObserver<>() {
+            @Override
+            public void onNext(ValidateResponse response) {
+                responses.add(response);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                fail(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                completed.countDown();
+            }
+        });
+        requests.onNext(ValidateRequest.newBuilder().setRequestId("1").setCode("USEDCODE").setEmail("test@example.com").build());
+        requests.onNext(ValidateRequest.newBuilder().setRequestId("2").setCode("TESTCODE").setEmail("test@example.com").build());
+        requests.onCompleted();
+
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals(2, responses.size());
+        assertEquals("1", responses.get(0).getRequestId());
+        assertEquals(Error.VOUCHER_ALREADY_USED, responses.get(0).getError());
+        assertEquals("2", responses.get(1).getRequestId());
+        assertEquals(Error.NONE, responses.get(1).getError());
+    }
+
+    @Test
+    void testValidateStream_AnswersEveryRequestInOrder() throws Exception {
+        when(voucherPoolService.validateVoucherCode(anyString(), eq("test@example.com")))
+                .thenReturn(ServiceResult.failure(ErrorCode.VOUCHER_ALREADY_USED));
+        List<ValidateResponse> responses = new CopyOnWriteArrayList<>();
+        CountDownLatch completed = new CountDownLatch(1);
+
+        StreamObserver<ValidateRequest> requests = VoucherPoolGrpc.newStub(channel).validateStream(new StreamObserver<>() {
+            @Override
+            public void onNext(ValidateResponse response) {
+                responses.add(response);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                fail(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                completed.countDown();
+            }
+        });
+        for (int i = 0; i < 1000; i++) {
+            requests.onNext(ValidateRequest.newBuilder().setRequestId(String.valueOf(i)).setCode("CODE" + i).setEmail("test@example.com").build());
+        }
+        requests.onCompleted();
+
+        assertTrue(completed.await(10, TimeUnit.SECONDS));
+        assertEquals(1000, responses.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(String.valueOf(i), responses.get(i).getRequestId());
+        }
+    }
+
+    @Test
+    void testListValid_KeepsCodeAndOfferNameApart() {
+        when(voucherPoolService.getValidVoucherCodes("test@example.com"))
+                .thenReturn(ServiceResult.success(List.of(new WalletEntry("TESTCODE", "Summer - Sale"))));
+
+        ListValidResponse response = VoucherPoolGrpc.newBlockingStub(channel)
+                .listValid(ListValidRequest.newBuilder().setEmail("test@example.com").build());
+
+        assertEquals(1, response.getVouchersCount());
+        assertEquals("TESTCODE", response.getVouchers(0).getCode());
+        assertEquals("Summer - Sale", response.getVouchers(0).getOfferName());
+    }
+}
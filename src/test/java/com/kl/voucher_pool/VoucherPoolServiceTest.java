@@ -1,19 +1,30 @@
 package com.kl.voucher_pool;
 
+import com.kl.voucher_pool.model.IdempotencyRecord;
 import com.kl.voucher_pool.model.Recipient;
 import com.kl.voucher_pool.model.SpecialOffer;
 import com.kl.voucher_pool.model.VoucherCode;
 import com.kl.voucher_pool.repository.RecipientRepository;
 import com.kl.voucher_pool.repository.SpecialOfferRepository;
 import com.kl.voucher_pool.repository.VoucherCodeRepository;
+import com.kl.voucher_pool.service.ErrorCode;
+import com.kl.voucher_pool.service.IdempotencyStore;
+import com.kl.voucher_pool.service.RedemptionAccumulator;
+import com.kl.voucher_pool.service.ServiceResult;
 import com.kl.voucher_pool.service.VoucherPoolService;
+import com.kl.voucher_pool.service.WalletEntry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -34,6 +45,12 @@ class VoucherPoolServiceTest {
     @Mock
     private VoucherCodeRepository voucherCodeRepository;
 
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @Mock
+    private RedemptionAccumulator redemptionAccumulator;
+
     @InjectMocks
     private VoucherPoolService voucherPoolService;
 
@@ -56,11 +73,25 @@ class VoucherPoolServiceTest {
         when(specialOfferRepository.findByName(anyString())).thenReturn(Optional.of(specialOffer));
         when(voucherCodeRepository.save(any(VoucherCode.class))).thenReturn(voucherCode);
 
-        VoucherCode result = voucherPoolService.generateVoucherCode("test@example.com", "Test Offer", LocalDate.now().plusDays(30));
+        ServiceResult<VoucherCode> result = voucherPoolService.generateVoucherCode("test@example.com", "Test Offer", LocalDate.now().plusDays(30));
 
-        assertNotNull(result);
-        assertEquals("TESTCODE", result.getCode());
-        verify(voucherCodeRepository, times(1)).save(any(VoucherCode.class));
+        assertTrue(result.isSuccess());
+        assertEquals("TESTCODE", result.getValue().getCode());
+        verify(voucherCodeRepository, times(1)).save(argThat(saved -> saved.getCode().matches("[A-Z0-9]{8}")));
+    }
+
+    @Test
+    void testGenerateVoucherCode_RetriesCodeAlreadyTaken() {
+        when(recipientRepository.findByEmail(anyString())).thenReturn(Optional.of(recipient));
+        when(specialOfferRepository.findByName(anyString())).thenReturn(Optional.of(specialOffer));
+        when(voucherCodeRepository.save(any(VoucherCode.class)))
+                .thenThrow(new DuplicateKeyException("code taken"))
+                .thenReturn(voucherCode);
+
+        ServiceResult<VoucherCode> result = voucherPoolService.generateVoucherCode("test@example.com", "Test Offer", LocalDate.now().plusDays(30));
+
+        assertEquals("TESTCODE", result.getValue().getCode());
+        verify(voucherCodeRepository, times(2)).save(any(VoucherCode.class));
     }
 
     @Test
@@ -69,64 +100,215 @@ class VoucherPoolServiceTest {
 
         String nonexistentEmail = "nonexistent@example.com";
         LocalDate expirationDate = LocalDate.now().plusDays(30);
-        
-        assertThrows(IllegalArgumentException.class, () -> {
-            voucherPoolService.generateVoucherCode(nonexistentEmail, "Test Offer", expirationDate);
-        });
+
+        ServiceResult<VoucherCode> result = voucherPoolService.generateVoucherCode(nonexistentEmail, "Test Offer", expirationDate);
+
+        assertEquals(ErrorCode.RECIPIENT_NOT_FOUND, result.getError());
+        verify(voucherCodeRepository, never()).save(any(VoucherCode.class));
+    }
+
+    @Test
+    void testGenerateVoucherCode_IdempotentFirstRequest() {
+        LocalDate expirationDate = LocalDate.now().plusDays(30);
+        when(idempotencyStore.claim(eq("key-1"), anyString(), anyString())).thenReturn(Optional.empty());
+        when(recipientRepository.findByEmail(anyString())).thenReturn(Optional.of(recipient));
+        when(specialOfferRepository.findByName(anyString())).thenReturn(Optional.of(specialOffer));
+        when(voucherCodeRepository.save(any(VoucherCode.class))).thenReturn(voucherCode);
+        when(idempotencyStore.complete(eq("key-1"), anyString(), anyString(), eq(voucherCode))).thenReturn(Optional.of(voucherCode));
+
+        ServiceResult<VoucherCode> result = voucherPoolService.generateVoucherCode("test@example.com", "Test Offer", expirationDate, "key-1");
+
+        assertEquals("TESTCODE", result.getValue().getCode());
+        verify(idempotencyStore, times(1)).complete(eq("key-1"), anyString(), anyString(), eq(voucherCode));
+        verify(voucherCodeRepository, never()).deleteById(anyString());
+    }
+
+    @Test
+    void testGenerateVoucherCode_LostClaimDeletesGeneratedCode() {
+        LocalDate expirationDate = LocalDate.now().plusDays(30);
+        voucherCode.setId("generated");
+        VoucherCode winner = new VoucherCode("WINNERCD", "1", "1", expirationDate);
+        when(idempotencyStore.claim(eq("key-1"), anyString(), anyString())).thenReturn(Optional.empty());
+        when(recipientRepository.findByEmail(anyString())).thenReturn(Optional.of(recipient));
+        when(specialOfferRepository.findByName(anyString())).thenReturn(Optional.of(specialOffer));
+        when(voucherCodeRepository.save(any(VoucherCode.class))).thenReturn(voucherCode);
+        when(idempotencyStore.complete(eq("key-1"), anyString(), anyString(), eq(voucherCode))).thenReturn(Optional.of(winner));
+
+        ServiceResult<VoucherCode> result = voucherPoolService.generateVoucherCode("test@example.com", "Test Offer", expirationDate, "key-1");
+
+        assertSame(winner, result.getValue());
+        verify(voucherCodeRepository).deleteById("generated");
+    }
+
+    @Test
+    void testGenerateVoucherCode_LostClaimStillInProgress() {
+        LocalDate expirationDate = LocalDate.now().plusDays(30);
+        voucherCode.setId("generated");
+        when(idempotencyStore.claim(eq("key-1"), anyString(), anyString())).thenReturn(Optional.empty());
+        when(recipientRepository.findByEmail(anyString())).thenReturn(Optional.of(recipient));
+        when(specialOfferRepository.findByName(anyString())).thenReturn(Optional.of(specialOffer));
+        when(voucherCodeRepository.save(any(VoucherCode.class))).thenReturn(voucherCode);
+        when(idempotencyStore.complete(eq("key-1"), anyString(), anyString(), eq(voucherCode))).thenReturn(Optional.empty());
+
+        ServiceResult<VoucherCode> result = voucherPoolService.generateVoucherCode("test@example.com", "Test Offer", expirationDate, "key-1");
+
+        assertEquals(ErrorCode.IDEMPOTENCY_KEY_IN_PROGRESS, result.getError());
+        verify(voucherCodeRepository).deleteById("generated");
+    }
+
+    @Test
+    void testGenerateVoucherCode_UnrecordedCodeIsDeletedBeforeReleasingKey() {
+        LocalDate expirationDate = LocalDate.now().plusDays(30);
+        voucherCode.setId("generated");
+        when(idempotencyStore.claim(eq("key-1"), anyString(), anyString())).thenReturn(Optional.empty());
+        when(recipientRepository.findByEmail(anyString())).thenReturn(Optional.of(recipient));
+        when(specialOfferRepository.findByName(anyString())).thenReturn(Optional.of(specialOffer));
+        when(voucherCodeRepository.save(any(VoucherCode.class))).thenReturn(voucherCode);
+        when(idempotencyStore.complete(eq("key-1"), anyString(), anyString(), eq(voucherCode)))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"));
+
+        assertThrows(DataAccessResourceFailureException.class, () ->
+                voucherPoolService.generateVoucherCode("test@example.com", "Test Offer", expirationDate, "key-1"));
+
+        InOrder inOrder = inOrder(voucherCodeRepository, idempotencyStore);
+        inOrder.verify(voucherCodeRepository).deleteById("generated");
+        inOrder.verify(idempotencyStore).release(eq("key-1"), anyString());
+    }
+
+    @Test
+    void testGenerateVoucherCode_IdempotentRetryReturnsOriginal() {
+        LocalDate expirationDate = LocalDate.now().plusDays(30);
+        IdempotencyRecord record = new IdempotencyRecord("key-1", "test@example.com|Test Offer|" + expirationDate, Instant.now());
+        record.setVoucherCode(voucherCode);
+        when(idempotencyStore.claim(eq("key-1"), anyString(), anyString())).thenReturn(Optional.of(record));
+
+        ServiceResult<VoucherCode> result = voucherPoolService.generateVoucherCode("test@example.com", "Test Offer", expirationDate, "key-1");
+
+        assertSame(voucherCode, result.getValue());
+        verify(voucherCodeRepository, never()).save(any(VoucherCode.class));
+        verify(recipientRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    void testGenerateVoucherCode_IdempotencyKeyReusedForDifferentRequest() {
+        IdempotencyRecord record = new IdempotencyRecord("key-1", "other@example.com|Test Offer|2030-01-01", Instant.now());
+        record.setVoucherCode(voucherCode);
+        when(idempotencyStore.claim(eq("key-1"), anyString(), anyString())).thenReturn(Optional.of(record));
+        LocalDate expirationDate = LocalDate.now().plusDays(30);
+
+        ServiceResult<VoucherCode> result = voucherPoolService.generateVoucherCode("test@example.com", "Test Offer", expirationDate, "key-1");
+
+        assertEquals(ErrorCode.IDEMPOTENCY_KEY_REUSED, result.getError());
+        verify(voucherCodeRepository, never()).save(any(VoucherCode.class));
+    }
+
+    @Test
+    void testGenerateVoucherCode_IdempotencyKeyReleasedOnFailure() {
+        when(idempotencyStore.claim(eq("key-1"), anyString(), anyString())).thenReturn(Optional.empty());
+        when(recipientRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+        LocalDate expirationDate = LocalDate.now().plusDays(30);
+
+        ServiceResult<VoucherCode> result = voucherPoolService.generateVoucherCode("nonexistent@example.com", "Test Offer", expirationDate, "key-1");
+
+        assertEquals(ErrorCode.RECIPIENT_NOT_FOUND, result.getError());
+        verify(idempotencyStore, times(1)).release(eq("key-1"), anyString());
     }
 
     @Test
     void testValidateVoucherCode_Success() {
-        when(voucherCodeRepository.findByCode(anyString())).thenReturn(Optional.of(voucherCode));
+        when(voucherCodeRepository.findRedemptionStateByCode(anyString())).thenReturn(Optional.of(voucherCode));
         when(recipientRepository.findById(anyString())).thenReturn(Optional.of(recipient));
         when(specialOfferRepository.findById(anyString())).thenReturn(Optional.of(specialOffer));
+        when(voucherCodeRepository.markUsed(any(VoucherCode.class), any(LocalDateTime.class))).thenReturn(true);
 
-        Map<String, Object> result = voucherPoolService.validateVoucherCode("TESTCODE", "test@example.com");
+        ServiceResult<Map<String, Object>> result = voucherPoolService.validateVoucherCode("TESTCODE", "test@example.com");
 
-        assertNotNull(result);
-        assertEquals(10.0, result.get("discount"));
-        assertEquals("Test Offer", result.get("offerName"));
-        verify(voucherCodeRepository, times(1)).save(any(VoucherCode.class));
+        assertTrue(result.isSuccess());
+        assertEquals(10.0, result.getValue().get("discount"));
+        assertEquals("Test Offer", result.getValue().get("offerName"));
+        verify(voucherCodeRepository, times(1)).markUsed(any(VoucherCode.class), any(LocalDateTime.class));
+        verify(redemptionAccumulator).record(eq("1"), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testValidateVoucherCode_ConcurrentRedemption() {
+        when(voucherCodeRepository.findRedemptionStateByCode(anyString())).thenReturn(Optional.of(voucherCode));
+        when(recipientRepository.findById(anyString())).thenReturn(Optional.of(recipient));
+        when(specialOfferRepository.findById(anyString())).thenReturn(Optional.of(specialOffer));
+        when(voucherCodeRepository.markUsed(any(VoucherCode.class), any(LocalDateTime.class))).thenReturn(false);
+
+        ServiceResult<Map<String, Object>> result = voucherPoolService.validateVoucherCode("TESTCODE", "test@example.com");
+
+        assertEquals(ErrorCode.VOUCHER_ALREADY_USED, result.getError());
+        assertNull(voucherCode.getUsageDate());
+        verifyNoInteractions(redemptionAccumulator);
     }
 
     @Test
     void testValidateVoucherCode_InvalidCode() {
-        when(voucherCodeRepository.findByCode(anyString())).thenReturn(Optional.empty());
+        when(voucherCodeRepository.findRedemptionStateByCode(anyString())).thenReturn(Optional.empty());
 
-        assertThrows(IllegalArgumentException.class, () ->
-                voucherPoolService.validateVoucherCode("INVALIDCODE", "test@example.com"));
+        ServiceResult<Map<String, Object>> result = voucherPoolService.validateVoucherCode("INVALIDCODE", "test@example.com");
+
+        assertEquals(ErrorCode.INVALID_VOUCHER_CODE, result.getError());
+        assertNull(result.getValue());
     }
 
     @Test
     void testValidateVoucherCode_ExpiredCode() {
         voucherCode.setExpirationDate(LocalDate.now().minusDays(1));
-        when(voucherCodeRepository.findByCode(anyString())).thenReturn(Optional.of(voucherCode));
+        when(voucherCodeRepository.findRedemptionStateByCode(anyString())).thenReturn(Optional.of(voucherCode));
         when(recipientRepository.findById(anyString())).thenReturn(Optional.of(recipient));
 
-        assertThrows(IllegalArgumentException.class, () ->
-                voucherPoolService.validateVoucherCode("TESTCODE", "test@example.com"));
+        ServiceResult<Map<String, Object>> result = voucherPoolService.validateVoucherCode("TESTCODE", "test@example.com");
+
+        assertEquals(ErrorCode.VOUCHER_EXPIRED, result.getError());
+        verify(voucherCodeRepository, never()).markUsed(any(VoucherCode.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testValidateVoucherCode_AlreadyUsed() {
+        voucherCode.setUsageDate(LocalDateTime.now().minusHours(1));
+        when(voucherCodeRepository.findRedemptionStateByCode(anyString())).thenReturn(Optional.of(voucherCode));
+        when(recipientRepository.findById(anyString())).thenReturn(Optional.of(recipient));
+
+        ServiceResult<Map<String, Object>> result = voucherPoolService.validateVoucherCode("TESTCODE", "test@example.com");
+
+        assertEquals(ErrorCode.VOUCHER_ALREADY_USED, result.getError());
+    }
+
+    @Test
+    void testValidateVoucherCode_WrongEmail() {
+        when(voucherCodeRepository.findRedemptionStateByCode(anyString())).thenReturn(Optional.of(voucherCode));
+        when(recipientRepository.findById(anyString())).thenReturn(Optional.of(recipient));
+
+        ServiceResult<Map<String, Object>> result = voucherPoolService.validateVoucherCode("TESTCODE", "other@example.com");
+
+        assertEquals(ErrorCode.INVALID_RECIPIENT_EMAIL, result.getError());
     }
 
     @Test
     void testGetValidVoucherCodes_Success() {
-        when(recipientRepository.findByEmail(anyString())).thenReturn(Optional.of(recipient));
-        when(voucherCodeRepository.findByRecipientIdAndExpirationDateAfterAndUsageDateIsNull(anyString(), any(LocalDate.class)))
+        when(recipientRepository.findWalletOwnerByEmail(anyString())).thenReturn(Optional.of(recipient));
+        when(voucherCodeRepository.findWalletEntriesByRecipientId(anyString(), any(LocalDate.class)))
                 .thenReturn(List.of(voucherCode));
         when(specialOfferRepository.findById(anyString())).thenReturn(Optional.of(specialOffer));
 
-        List<String> result = voucherPoolService.getValidVoucherCodes("test@example.com");
+        ServiceResult<List<WalletEntry>> result = voucherPoolService.getValidVoucherCodes("test@example.com");
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals("TESTCODE - Test Offer", result.get(0));
+        assertTrue(result.isSuccess());
+        assertEquals(1, result.getValue().size());
+        assertEquals("TESTCODE", result.getValue().get(0).getCode());
+        assertEquals("Test Offer", result.getValue().get(0).getOfferName());
     }
 
     @Test
     void testGetValidVoucherCodes_RecipientNotFound() {
-        when(recipientRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+        when(recipientRepository.findWalletOwnerByEmail(anyString())).thenReturn(Optional.empty());
 
-        assertThrows(IllegalArgumentException.class, () ->
-                voucherPoolService.getValidVoucherCodes("nonexistent@example.com"));
+        ServiceResult<List<WalletEntry>> result = voucherPoolService.getValidVoucherCodes("nonexistent@example.com");
+
+        assertEquals(ErrorCode.RECIPIENT_NOT_FOUND, result.getError());
     }
 
     @Test